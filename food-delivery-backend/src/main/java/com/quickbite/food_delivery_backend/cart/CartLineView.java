@@ -0,0 +1,6 @@
+package com.quickbite.food_delivery_backend.cart;
+
+import com.quickbite.food_delivery_backend.catalog.MenuItemView;
+
+public record CartLineView(Long id, MenuItemView menuItem, Integer quantity) {
+}
@@ -0,0 +1,70 @@
+package com.quickbite.food_delivery_backend.cart;
+
+import com.quickbite.food_delivery_backend.models.Cart;
+import com.quickbite.food_delivery_backend.models.CartItem;
+import com.quickbite.food_delivery_backend.repository.CartRepository;
+import com.quickbite.food_delivery_backend.repository.MenuItemRepository;
+import com.quickbite.food_delivery_backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes cart snapshots to carts/cart_items. Each call is its own transaction, so a batch
+// either lands completely or not at all, and writing the same snapshot twice is harmless.
+@Component
+public class CartPersister {
+
+    @Autowired
+    CartRepository cartRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    MenuItemRepository menuItemRepository;
+
+    // Returns the cart id for each user in the batch.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Map<Long, Long> persist(List<CartState.Snapshot> snapshots) {
+        Map<Long, Cart> carts = new HashMap<>();
+        for (Cart cart : cartRepository.findAllWithItemsByUserIdIn(
+                snapshots.stream().map(CartState.Snapshot::userId).toList())) {
+            carts.put(cart.getUser().getId(), cart);
+        }
+
+        Map<Long, Long> cartIds = new HashMap<>();
+        for (CartState.Snapshot snapshot : snapshots) {
+            Cart cart = carts.get(snapshot.userId());
+            if (cart == null) {
+                cart = new Cart(userRepository.getReferenceById(snapshot.userId()));
+            }
+
+            Map<Long, Integer> wanted = snapshot.quantities();
+            cart.getItems().removeIf(item -> !wanted.containsKey(item.getMenuItem().getId()));
+
+            Map<Long, CartItem> existing = new HashMap<>();
+            for (CartItem item : cart.getItems()) {
+                existing.put(item.getMenuItem().getId(), item);
+            }
+            for (Map.Entry<Long, Integer> line : wanted.entrySet()) {
+                CartItem item = existing.get(line.getKey());
+                if (item != null) {
+                    item.setQuantity(line.getValue());
+                } else {
+                    // Cart.addItem would recalculate the total through every menu item
+                    item = new CartItem(cart, menuItemRepository.getReferenceById(line.getKey()), line.getValue());
+                    cart.getItems().add(item);
+                }
+            }
+            cart.setTotalPrice(snapshot.totalPrice());
+
+            cartIds.put(snapshot.userId(), cartRepository.save(cart).getId());
+        }
+        return cartIds;
+    }
+}
@@ -0,0 +1,130 @@
+package com.quickbite.food_delivery_backend.cart;
+
+import com.quickbite.food_delivery_backend.catalog.MenuItemView;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// In-memory cart for one user, keyed by menu item. Every mutation bumps the version and
+// adjusts the running total; the store flushes a snapshot of it and records which version
+// reached the database. Callers must hold the instance's monitor.
+final class CartState {
+
+    static final class Line {
+        final long id;
+        MenuItemView menuItem;
+        int quantity;
+
+        Line(long id, MenuItemView menuItem, int quantity) {
+            this.id = id;
+            this.menuItem = menuItem;
+            this.quantity = quantity;
+        }
+    }
+
+    // Menu item id -> quantity, in cart order, as of one version.
+    record Snapshot(Long userId, long version, Map<Long, Integer> quantities, double totalPrice) {
+    }
+
+    final Long userId;
+    Long cartId;
+    long version;
+    long flushedVersion;
+    long lastAccessMillis;
+    boolean evicted;
+
+    private final Map<Long, Line> lines = new LinkedHashMap<>();
+    private BigDecimal total = BigDecimal.ZERO;
+
+    CartState(Long userId, Long cartId) {
+        this.userId = userId;
+        this.cartId = cartId;
+    }
+
+    // Used while loading from the database; does not count as a change.
+    void load(long lineId, MenuItemView menuItem, int quantity) {
+        lines.put(menuItem.id(), new Line(lineId, menuItem, quantity));
+        total = total.add(lineTotal(menuItem, quantity));
+    }
+
+    Line line(Long menuItemId) {
+        return lines.get(menuItemId);
+    }
+
+    Line lineById(long lineId) {
+        for (Line line : lines.values()) {
+            if (line.id == lineId) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    Iterable<Line> lines() {
+        return lines.values();
+    }
+
+    Line add(long newLineId, MenuItemView menuItem, int quantity) {
+        Line line = lines.get(menuItem.id());
+        if (line == null) {
+            line = new Line(newLineId, menuItem, 0);
+            lines.put(menuItem.id(), line);
+        }
+        setQuantity(line, menuItem, line.quantity + quantity);
+        return line;
+    }
+
+    // Re-prices the line from the given menu item, so the running total follows price changes
+    // the next time a line is touched.
+    void setQuantity(Line line, MenuItemView menuItem, int quantity) {
+        total = total.subtract(lineTotal(line.menuItem, line.quantity)).add(lineTotal(menuItem, quantity));
+        line.menuItem = menuItem;
+        line.quantity = quantity;
+        version++;
+    }
+
+    void remove(Line line) {
+        if (lines.remove(line.menuItem.id()) != null) {
+            total = total.subtract(lineTotal(line.menuItem, line.quantity));
+            version++;
+        }
+    }
+
+    List<Line> clear() {
+        List<Line> removed = new ArrayList<>(lines.values());
+        lines.clear();
+        total = BigDecimal.ZERO;
+        version++;
+        return removed;
+    }
+
+    boolean isClean() {
+        return flushedVersion == version;
+    }
+
+    CartView view() {
+        List<CartLineView> items = new ArrayList<>(lines.size());
+        for (Line line : lines.values()) {
+            items.add(new CartLineView(line.id, line.menuItem, line.quantity));
+        }
+        return new CartView(cartId, items, total.doubleValue());
+    }
+
+    Snapshot snapshot() {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (Line line : lines.values()) {
+            quantities.put(line.menuItem.id(), line.quantity);
+        }
+        return new Snapshot(userId, version, quantities, total.doubleValue());
+    }
+
+    private static BigDecimal lineTotal(MenuItemView menuItem, int quantity) {
+        if (menuItem.price() == null) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(menuItem.price()).multiply(BigDecimal.valueOf(quantity));
+    }
+}
@@ -0,0 +1,460 @@
+package com.quickbite.food_delivery_backend.cart;
+
+import com.quickbite.food_delivery_backend.catalog.CatalogService;
+import com.quickbite.food_delivery_backend.catalog.CatalogSnapshot;
+import com.quickbite.food_delivery_backend.catalog.MenuItemView;
+import com.quickbite.food_delivery_backend.models.Cart;
+import com.quickbite.food_delivery_backend.models.CartItem;
+import com.quickbite.food_delivery_backend.payload.request.CartOperationRequest;
+import com.quickbite.food_delivery_backend.repository.CartItemRepository;
+import com.quickbite.food_delivery_backend.repository.CartRepository;
+import com.quickbite.food_delivery_backend.repository.MenuItemRepository;
+import com.quickbite.food_delivery_backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Write-behind cart store. Carts live in memory per user with a running total; mutations
+// only mark the cart dirty, and a background task writes dirty carts to the database in
+// batches. A cart is only marked clean once the version it flushed has committed, so a
+// failed flush is retried. Edits are not durable until flushed: a crash loses whatever
+// changed since the last flush, up to app.cartFlushIntervalMs of edits (longer while the
+// database is failing). Checkout calls flush(userId) so the order is placed against a
+// persisted cart.
+@Service
+public class CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartStore.class);
+
+    @Autowired
+    private CartPersister persister;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cartWriteBehind:true}")
+    private boolean enabled;
+
+    @Value("${app.cartFlushIntervalMs:1000}")
+    private long flushIntervalMs;
+
+    @Value("${app.cartFlushBatchSize:100}")
+    private int flushBatchSize;
+
+    @Value("${app.cartIdleEvictMs:1800000}")
+    private long idleEvictMs;
+
+    private final Map<Long, CartState> carts = new ConcurrentHashMap<>();
+    private final Map<Long, Long> lineOwners = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    // Lines that have not been written yet get negative ids so they never clash with cart_items ids
+    private final AtomicLong nextLineId = new AtomicLong();
+
+    // Carts being written right now. Background and checkout flushes must not write the same
+    // cart concurrently; a checkout only ever waits for its own cart, never for a whole batch.
+    private final Map<Long, CountDownLatch> flushing = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+    private Counter flushedCarts;
+    private Counter flushFailures;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        flushedCarts = Counter.builder("cart.store.flushed").register(meterRegistry);
+        flushFailures = Counter.builder("cart.store.flush.failures").register(meterRegistry);
+        flushTimer = Timer.builder("cart.store.flush.duration").register(meterRegistry);
+        Gauge.builder("cart.store.carts", carts, Map::size).register(meterRegistry);
+        Gauge.builder("cart.store.dirty", dirty, Set::size).register(meterRegistry);
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushDirty, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushDirty();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CartView get(Long userId) {
+        CartState state = carts.get(userId);
+        if (state == null) {
+            state = load(userId, false);
+            if (state == null) {
+                return CartView.empty();
+            }
+        }
+        synchronized (state) {
+            state.lastAccessMillis = System.currentTimeMillis();
+            return state.view();
+        }
+    }
+
+    public CartView add(Long userId, Long menuItemId, int quantity) {
+        MenuItemView menuItem = resolveMenuItem(menuItemId);
+        return mutate(userId, true, state -> {
+            CartState.Line line = state.add(nextLineId.decrementAndGet(), menuItem, quantity);
+            lineOwners.putIfAbsent(line.id, userId);
+            return state.view();
+        });
+    }
+
+    // Applies every operation under one acquisition of the cart, so the batch is seen all or nothing.
+    // Menu items must already be resolved; see resolveMenuItems.
+    public CartView apply(Long userId, List<CartOperationRequest> operations, Map<Long, MenuItemView> menuItems) {
+        return mutate(userId, true, state -> {
+            for (CartOperationRequest operation : operations) {
+                CartState.Line line = state.line(operation.getMenuItemId());
+                switch (operation.getType()) {
+                    case ADD -> {
+                        line = state.add(nextLineId.decrementAndGet(), menuItems.get(operation.getMenuItemId()), operation.getQuantity());
+                        lineOwners.putIfAbsent(line.id, userId);
+                    }
+                    case SET_QUANTITY -> {
+                        if (operation.getQuantity() == 0) {
+                            removeLine(state, line);
+                        } else if (line == null) {
+                            line = state.add(nextLineId.decrementAndGet(), menuItems.get(operation.getMenuItemId()), operation.getQuantity());
+                            lineOwners.putIfAbsent(line.id, userId);
+                        } else {
+                            state.setQuantity(line, menuItems.get(operation.getMenuItemId()), operation.getQuantity());
+                        }
+                    }
+                    case REMOVE -> removeLine(state, line);
+                }
+            }
+            return state.view();
+        });
+    }
+
+    private void removeLine(CartState state, CartState.Line line) {
+        if (line != null) {
+            state.remove(line);
+            lineOwners.remove(line.id);
+        }
+    }
+
+    public CartView removeLine(Long lineId) {
+        Long userId = lineOwners.get(lineId);
+        if (userId == null) {
+            // Not loaded yet (or evicted); the id can only be a persisted cart_items id
+            CartItem cartItem = cartItemRepository.findById(lineId)
+                    .orElseThrow(() -> new RuntimeException("Error: CartItem not found."));
+            userId = cartItem.getCart().getUser().getId();
+        }
+        return mutate(userId, false, state -> {
+            CartState.Line line = state.lineById(lineId);
+            if (line == null) {
+                throw new RuntimeException("Error: CartItem not found.");
+            }
+            state.remove(line);
+            lineOwners.remove(line.id);
+            return state.view();
+        });
+    }
+
+    public CartView clear(Long userId) {
+        return mutate(userId, false, state -> {
+            state.clear().forEach(line -> lineOwners.remove(line.id));
+            return state.view();
+        });
+    }
+
+    // Synchronously writes the user's cart if it has unflushed changes. Call it outside any
+    // transaction: the write commits in its own, and would otherwise hold a second connection.
+    public void flush(Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        // Wait out an in-flight flush of this cart so its commit is seen before we look
+        CountDownLatch claim = new CountDownLatch(1);
+        CountDownLatch inFlight;
+        while ((inFlight = flushing.putIfAbsent(userId, claim)) != null) {
+            try {
+                inFlight.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Error: Interrupted while saving the cart.");
+            }
+        }
+        try {
+            if (dirty.contains(userId)) {
+                flushClaimed(List.of(userId));
+            }
+        } finally {
+            release(List.of(userId), claim);
+        }
+    }
+
+    void flushDirty() {
+        try {
+            // Carts that fail are marked dirty again and wait for the next run
+            List<Long> batch = new ArrayList<>(flushBatchSize);
+            for (Long userId : new ArrayList<>(dirty)) {
+                batch.add(userId);
+                if (batch.size() == flushBatchSize) {
+                    flushBatch(batch);
+                    batch = new ArrayList<>(flushBatchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                flushBatch(batch);
+            }
+            evictIdle();
+        } catch (RuntimeException e) {
+            logger.error("Cart flush failed: {}", e.getMessage());
+        }
+    }
+
+    // Carts a checkout is already writing are skipped; that checkout flushes them
+    private void flushBatch(List<Long> userIds) {
+        CountDownLatch claim = new CountDownLatch(1);
+        List<Long> claimed = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            if (flushing.putIfAbsent(userId, claim) == null) {
+                claimed.add(userId);
+            }
+        }
+        try {
+            flushClaimed(claimed);
+        } finally {
+            release(claimed, claim);
+        }
+    }
+
+    private void release(List<Long> userIds, CountDownLatch claim) {
+        for (Long userId : userIds) {
+            flushing.remove(userId, claim);
+        }
+        claim.countDown();
+    }
+
+    private void flushClaimed(List<Long> userIds) {
+        List<CartState.Snapshot> snapshots = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            // Clear the mark before snapshotting: any later edit marks the cart dirty again
+            dirty.remove(userId);
+            CartState state = carts.get(userId);
+            if (state != null) {
+                synchronized (state) {
+                    snapshots.add(state.snapshot());
+                }
+            }
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            markFlushed(snapshots, persister.persist(snapshots));
+        } catch (RuntimeException e) {
+            if (snapshots.size() == 1) {
+                flushFailed(snapshots.get(0), e);
+                return;
+            }
+            // Find the cart that broke the batch without holding back the others
+            for (CartState.Snapshot snapshot : snapshots) {
+                try {
+                    markFlushed(List.of(snapshot), persister.persist(List.of(snapshot)));
+                } catch (RuntimeException single) {
+                    flushFailed(snapshot, single);
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void markFlushed(List<CartState.Snapshot> snapshots, Map<Long, Long> cartIds) {
+        for (CartState.Snapshot snapshot : snapshots) {
+            CartState state = carts.get(snapshot.userId());
+            if (state == null) {
+                continue;
+            }
+            synchronized (state) {
+                state.cartId = cartIds.get(snapshot.userId());
+                state.flushedVersion = Math.max(state.flushedVersion, snapshot.version());
+            }
+        }
+        flushedCarts.increment(snapshots.size());
+    }
+
+    private void flushFailed(CartState.Snapshot snapshot, RuntimeException e) {
+        flushFailures.increment();
+        CartState state = carts.get(snapshot.userId());
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            if (!(e instanceof DataIntegrityViolationException)) {
+                dirty.add(snapshot.userId());
+                logger.warn("Cart flush for user {} failed, will retry: {}", snapshot.userId(), e.getMessage());
+                return;
+            }
+            // e.g. a menu item deleted since it was added; retrying cannot succeed, so the database copy wins
+            logger.error("Dropping unflushable cart for user {}: {}", snapshot.userId(), e.getMessage());
+            discard(state);
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMs;
+        Iterator<CartState> states = carts.values().iterator();
+        while (states.hasNext()) {
+            CartState state = states.next();
+            synchronized (state) {
+                if (state.lastAccessMillis <= cutoff && state.isClean() && !dirty.contains(state.userId)
+                    && !flushing.containsKey(state.userId)) {
+                    discard(state);
+                }
+            }
+        }
+    }
+
+    // Caller holds the state's monitor.
+    private void discard(CartState state) {
+        state.evicted = true;
+        carts.remove(state.userId, state);
+        state.lines().forEach(line -> lineOwners.remove(line.id));
+    }
+
+    private <T> T mutate(Long userId, boolean createIfMissing, Function<CartState, T> operation) {
+        while (true) {
+            CartState state = carts.get(userId);
+            if (state == null) {
+                state = load(userId, createIfMissing);
+                if (state == null) {
+                    throw new RuntimeException("Error: Cart not found.");
+                }
+            }
+            synchronized (state) {
+                if (state.evicted) {
+                    continue;
+                }
+                long version = state.version;
+                T result = operation.apply(state);
+                state.lastAccessMillis = System.currentTimeMillis();
+                if (state.version != version) {
+                    dirty.add(userId);
+                }
+                return result;
+            }
+        }
+    }
+
+    private CartState load(Long userId, boolean createIfMissing) {
+        List<Cart> found = cartRepository.findAllWithItemsByUserIdIn(List.of(userId));
+        CartState state;
+        if (found.isEmpty()) {
+            if (!createIfMissing) {
+                return null;
+            }
+            if (!userRepository.existsById(userId)) {
+                throw new RuntimeException("Error: User not found.");
+            }
+            state = new CartState(userId, null);
+        } else {
+            Cart cart = found.get(0);
+            state = new CartState(userId, cart.getId());
+            for (CartItem item : cart.getItems()) {
+                state.load(item.getId(), MenuItemView.from(item.getMenuItem()), item.getQuantity());
+            }
+        }
+        state.lastAccessMillis = System.currentTimeMillis();
+
+        CartState existing = carts.putIfAbsent(userId, state);
+        if (existing != null) {
+            return existing;
+        }
+        for (CartState.Line line : state.lines()) {
+            lineOwners.put(line.id, userId);
+        }
+        return state;
+    }
+
+    // Catalog snapshot first; anything it does not know yet is fetched in a single query.
+    public Map<Long, MenuItemView> resolveMenuItems(Collection<Long> menuItemIds) {
+        CatalogSnapshot snapshot = catalogService.snapshot();
+        Map<Long, MenuItemView> resolved = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long menuItemId : menuItemIds) {
+            snapshot.menuItem(menuItemId).ifPresentOrElse(
+                    item -> resolved.put(menuItemId, item),
+                    () -> missing.add(menuItemId));
+        }
+        if (!missing.isEmpty()) {
+            menuItemRepository.findAllById(missing).forEach(item -> resolved.put(item.getId(), MenuItemView.from(item)));
+        }
+        return resolved;
+    }
+
+    private MenuItemView resolveMenuItem(Long menuItemId) {
+        if (menuItemId == null) {
+            throw new RuntimeException("Error: MenuItem not found.");
+        }
+        return catalogService.snapshot().menuItem(menuItemId)
+                .or(() -> menuItemRepository.findById(menuItemId).map(MenuItemView::from))
+                .orElseThrow(() -> new RuntimeException("Error: MenuItem not found."));
+    }
+}
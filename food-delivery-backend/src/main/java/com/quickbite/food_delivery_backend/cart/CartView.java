@@ -0,0 +1,15 @@
+package com.quickbite.food_delivery_backend.cart;
+
+import java.util.List;
+
+// Same JSON shape the cart endpoints have always returned, minus the owning user.
+public record CartView(Long id, List<CartLineView> items, Double totalPrice) {
+
+    public CartView {
+        items = List.copyOf(items);
+    }
+
+    public static CartView empty() {
+        return new CartView(null, List.of(), 0.0);
+    }
+}
@@ -0,0 +1,28 @@
+package com.quickbite.food_delivery_backend.catalog;
+
+// A single committed change to the catalog, captured from a JPA lifecycle callback.
+public record CatalogChange(Kind kind, Long restaurantId, RestaurantView restaurant, MenuItemView menuItem) {
+
+    public enum Kind {
+        RESTAURANT_UPSERT,
+        RESTAURANT_REMOVE,
+        MENU_ITEM_UPSERT,
+        MENU_ITEM_REMOVE
+    }
+
+    public static CatalogChange restaurantUpsert(RestaurantView restaurant) {
+        return new CatalogChange(Kind.RESTAURANT_UPSERT, restaurant.id(), restaurant, null);
+    }
+
+    public static CatalogChange restaurantRemove(Long restaurantId) {
+        return new CatalogChange(Kind.RESTAURANT_REMOVE, restaurantId, null, null);
+    }
+
+    public static CatalogChange menuItemUpsert(Long restaurantId, MenuItemView menuItem) {
+        return new CatalogChange(Kind.MENU_ITEM_UPSERT, restaurantId, null, menuItem);
+    }
+
+    public static CatalogChange menuItemRemove(Long restaurantId, MenuItemView menuItem) {
+        return new CatalogChange(Kind.MENU_ITEM_REMOVE, restaurantId, null, menuItem);
+    }
+}
@@ -0,0 +1,77 @@
+package com.quickbite.food_delivery_backend.catalog;
+
+import com.quickbite.food_delivery_backend.models.MenuItem;
+import com.quickbite.food_delivery_backend.models.Restaurant;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// JPA listener on Restaurant and MenuItem. Changes are buffered per transaction and
+// handed to the CatalogService in one batch once the transaction commits, so rolled
+// back writes never reach the snapshot.
+public class CatalogEntityListener {
+
+    private static final Object PENDING_CHANGES_KEY = new Object();
+
+    @Autowired
+    private ObjectProvider<CatalogService> catalogService;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Restaurant restaurant) {
+            record(CatalogChange.restaurantUpsert(RestaurantView.from(restaurant, List.of())));
+        } else if (entity instanceof MenuItem item && item.getRestaurant() != null) {
+            record(CatalogChange.menuItemUpsert(item.getRestaurant().getId(), MenuItemView.from(item)));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Restaurant restaurant) {
+            record(CatalogChange.restaurantRemove(restaurant.getId()));
+        } else if (entity instanceof MenuItem item) {
+            Long restaurantId = item.getRestaurant() != null ? item.getRestaurant().getId() : null;
+            record(CatalogChange.menuItemRemove(restaurantId, MenuItemView.from(item)));
+        }
+    }
+
+    private void record(CatalogChange change) {
+        CatalogService service = catalogService != null ? catalogService.getIfAvailable() : null;
+        if (service == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            service.apply(List.of(change));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<CatalogChange> pending = (List<CatalogChange>) TransactionSynchronizationManager.getResource(PENDING_CHANGES_KEY);
+        if (pending == null) {
+            List<CatalogChange> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(PENDING_CHANGES_KEY, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    service.apply(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_CHANGES_KEY);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+}
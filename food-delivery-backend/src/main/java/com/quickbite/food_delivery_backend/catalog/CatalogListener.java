@@ -0,0 +1,12 @@
+package com.quickbite.food_delivery_backend.catalog;
+
+import java.util.Set;
+
+// Callback for components that derive state from the catalog snapshot (e.g. the search index).
+// Invoked under the catalog write lock, so implementations see changes in commit order.
+public interface CatalogListener {
+
+    void onCatalogRebuilt(CatalogSnapshot snapshot);
+
+    void onCatalogUpdated(CatalogSnapshot previous, CatalogSnapshot current, Set<Long> restaurantIds);
+}
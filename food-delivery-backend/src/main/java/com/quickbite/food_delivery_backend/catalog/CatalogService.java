@@ -0,0 +1,168 @@
+package com.quickbite.food_delivery_backend.catalog;
+
+import com.quickbite.food_delivery_backend.models.MenuItem;
+import com.quickbite.food_delivery_backend.models.Restaurant;
+import com.quickbite.food_delivery_backend.repository.MenuItemRepository;
+import com.quickbite.food_delivery_backend.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Serves the restaurant catalog from an in-memory copy-on-write snapshot. Readers only do a
+// volatile read; writers are serialized and publish a new snapshot after each commit.
+@Service
+public class CatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogService.class);
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectProvider<CatalogListener> listeners;
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.empty();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter rebuilds;
+    private Counter incrementalUpdates;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = Counter.builder("catalog.snapshot.reads").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("catalog.snapshot.reads").tag("result", "miss").register(meterRegistry);
+        rebuilds = Counter.builder("catalog.snapshot.rebuilds").register(meterRegistry);
+        incrementalUpdates = Counter.builder("catalog.snapshot.updates").register(meterRegistry);
+        rebuildTimer = Timer.builder("catalog.snapshot.rebuild.duration").register(meterRegistry);
+        Gauge.builder("catalog.snapshot.restaurants", this, service -> service.snapshot.restaurantCount())
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.menu.items", this, service -> service.snapshot.menuItemCount())
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.version", this, service -> service.snapshot.version())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    public List<RestaurantView> findAll() {
+        hits.increment();
+        return snapshot.restaurants();
+    }
+
+    public Optional<RestaurantView> findById(Long id) {
+        Optional<RestaurantView> restaurant = snapshot.restaurant(id);
+        (restaurant.isPresent() ? hits : misses).increment();
+        return restaurant;
+    }
+
+    // Full reload with a single fetch-join query; used at startup and after bulk writes
+    // that bypass the JPA lifecycle callbacks.
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            rebuildTimer.record(() -> {
+                List<RestaurantView> views = new ArrayList<>();
+                for (Restaurant restaurant : restaurantRepository.findAllWithMenu()) {
+                    views.add(RestaurantView.from(restaurant, restaurant.getMenu()));
+                }
+                snapshot = CatalogSnapshot.of(snapshot.version() + 1, views);
+            });
+            CatalogSnapshot rebuilt = snapshot;
+            listeners.orderedStream().forEach(listener -> listener.onCatalogRebuilt(rebuilt));
+            rebuilds.increment();
+            logger.info("Catalog snapshot rebuilt: {} restaurants, {} menu items",
+                    snapshot.restaurantCount(), snapshot.menuItemCount());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Reloads one restaurant from the database, for writers that bypass the entity listeners.
+    @Transactional(readOnly = true)
+    public void refreshRestaurant(Long restaurantId) {
+        Optional<Restaurant> restaurant = restaurantRepository.findById(restaurantId);
+        if (restaurant.isEmpty()) {
+            apply(List.of(CatalogChange.restaurantRemove(restaurantId)));
+            return;
+        }
+
+        List<MenuItem> menu = menuItemRepository.findByRestaurantId(restaurantId);
+        List<CatalogChange> changes = new ArrayList<>();
+        changes.add(CatalogChange.restaurantRemove(restaurantId));
+        changes.add(CatalogChange.restaurantUpsert(RestaurantView.from(restaurant.get(), List.of())));
+        for (MenuItem item : menu) {
+            changes.add(CatalogChange.menuItemUpsert(restaurantId, MenuItemView.from(item)));
+        }
+        apply(changes);
+    }
+
+    public void apply(List<CatalogChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            CatalogSnapshot previous = snapshot;
+            CatalogSnapshot current = previous.apply(changes);
+            snapshot = current;
+            incrementalUpdates.increment();
+
+            Set<Long> restaurantIds = affectedRestaurants(previous, changes);
+            listeners.orderedStream().forEach(listener -> listener.onCatalogUpdated(previous, current, restaurantIds));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static Set<Long> affectedRestaurants(CatalogSnapshot previous, List<CatalogChange> changes) {
+        Set<Long> restaurantIds = new HashSet<>();
+        for (CatalogChange change : changes) {
+            if (change.restaurantId() != null) {
+                restaurantIds.add(change.restaurantId());
+            }
+            // A menu item that moved or was removed also changes the restaurant that held it
+            if (change.menuItem() != null) {
+                Long previousOwner = previous.restaurantIdOf(change.menuItem().id());
+                if (previousOwner != null) {
+                    restaurantIds.add(previousOwner);
+                }
+            }
+        }
+        return restaurantIds;
+    }
+}
@@ -0,0 +1,157 @@
+package com.quickbite.food_delivery_backend.catalog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// Immutable, versioned view of every restaurant and its menu. Writers never modify an
+// existing snapshot; they derive a new one with apply() and swap it in.
+public final class CatalogSnapshot {
+
+    private static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, Map.of(), Map.of());
+
+    private final long version;
+    private final List<RestaurantView> restaurants;
+    private final Map<Long, RestaurantView> restaurantsById;
+    private final Map<Long, Long> restaurantIdByMenuItemId;
+    private final int menuItemCount;
+
+    private CatalogSnapshot(long version, Map<Long, RestaurantView> restaurantsById, Map<Long, Long> restaurantIdByMenuItemId) {
+        this.version = version;
+        this.restaurantsById = restaurantsById;
+        this.restaurantIdByMenuItemId = restaurantIdByMenuItemId;
+        this.menuItemCount = restaurantIdByMenuItemId.size();
+
+        List<RestaurantView> sorted = new ArrayList<>(restaurantsById.values());
+        sorted.sort(Comparator.comparing(RestaurantView::id));
+        this.restaurants = List.copyOf(sorted);
+    }
+
+    public static CatalogSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static CatalogSnapshot of(long version, Collection<RestaurantView> restaurants) {
+        Map<Long, RestaurantView> byId = new HashMap<>();
+        Map<Long, Long> owners = new HashMap<>();
+        for (RestaurantView restaurant : restaurants) {
+            byId.put(restaurant.id(), restaurant);
+            for (MenuItemView item : restaurant.menu()) {
+                owners.put(item.id(), restaurant.id());
+            }
+        }
+        return new CatalogSnapshot(version, byId, owners);
+    }
+
+    // Menus touched by the batch are edited in id-ordered maps and rebuilt once at the end, so
+    // a batch with thousands of items for one restaurant stays O(n log n).
+    public CatalogSnapshot apply(List<CatalogChange> changes) {
+        Map<Long, RestaurantView> byId = new HashMap<>(restaurantsById);
+        Map<Long, Long> owners = new HashMap<>(restaurantIdByMenuItemId);
+        Map<Long, TreeMap<Long, MenuItemView>> editedMenus = new HashMap<>();
+
+        for (CatalogChange change : changes) {
+            switch (change.kind()) {
+                case RESTAURANT_UPSERT -> {
+                    // Menus arrive as their own changes, so keep whatever we already hold
+                    RestaurantView existing = byId.get(change.restaurantId());
+                    List<MenuItemView> menu = existing != null ? existing.menu() : List.of();
+                    byId.put(change.restaurantId(), change.restaurant().withMenu(menu));
+                }
+                case RESTAURANT_REMOVE -> {
+                    RestaurantView removed = byId.remove(change.restaurantId());
+                    TreeMap<Long, MenuItemView> edited = editedMenus.remove(change.restaurantId());
+                    if (edited != null) {
+                        edited.keySet().forEach(owners::remove);
+                    } else if (removed != null) {
+                        removed.menu().forEach(item -> owners.remove(item.id()));
+                    }
+                }
+                case MENU_ITEM_UPSERT -> {
+                    MenuItemView item = change.menuItem();
+                    detach(byId, owners, editedMenus, item.id());
+                    RestaurantView restaurant = byId.get(change.restaurantId());
+                    if (restaurant != null) {
+                        editedMenu(editedMenus, restaurant).put(item.id(), item);
+                        owners.put(item.id(), restaurant.id());
+                    }
+                }
+                case MENU_ITEM_REMOVE -> detach(byId, owners, editedMenus, change.menuItem().id());
+            }
+        }
+
+        editedMenus.forEach((restaurantId, menu) -> {
+            RestaurantView restaurant = byId.get(restaurantId);
+            if (restaurant != null) {
+                byId.put(restaurantId, restaurant.withMenu(List.copyOf(menu.values())));
+            }
+        });
+        return new CatalogSnapshot(version + 1, byId, owners);
+    }
+
+    private static TreeMap<Long, MenuItemView> editedMenu(Map<Long, TreeMap<Long, MenuItemView>> editedMenus,
+                                                         RestaurantView restaurant) {
+        return editedMenus.computeIfAbsent(restaurant.id(), id -> {
+            TreeMap<Long, MenuItemView> menu = new TreeMap<>();
+            restaurant.menu().forEach(item -> menu.put(item.id(), item));
+            return menu;
+        });
+    }
+
+    private static void detach(Map<Long, RestaurantView> byId, Map<Long, Long> owners,
+                               Map<Long, TreeMap<Long, MenuItemView>> editedMenus, Long menuItemId) {
+        Long ownerId = owners.remove(menuItemId);
+        if (ownerId == null) {
+            return;
+        }
+        RestaurantView owner = byId.get(ownerId);
+        if (owner != null) {
+            editedMenu(editedMenus, owner).remove(menuItemId);
+        }
+    }
+
+    public long version() { return version; }
+
+    public List<RestaurantView> restaurants() { return restaurants; }
+
+    public Optional<RestaurantView> restaurant(Long id) {
+        return Optional.ofNullable(restaurantsById.get(id));
+    }
+
+    public Long restaurantIdOf(Long menuItemId) {
+        return restaurantIdByMenuItemId.get(menuItemId);
+    }
+
+    // Menus are sorted by id, so the owner's menu can be binary searched.
+    public Optional<MenuItemView> menuItem(Long menuItemId) {
+        Long ownerId = restaurantIdByMenuItemId.get(menuItemId);
+        RestaurantView owner = ownerId != null ? restaurantsById.get(ownerId) : null;
+        if (owner == null) {
+            return Optional.empty();
+        }
+        List<MenuItemView> menu = owner.menu();
+        int low = 0;
+        int high = menu.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = menu.get(mid).id().compareTo(menuItemId);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return Optional.of(menu.get(mid));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int restaurantCount() { return restaurants.size(); }
+
+    public int menuItemCount() { return menuItemCount; }
+}
@@ -0,0 +1,16 @@
+package com.quickbite.food_delivery_backend.catalog;
+
+import com.quickbite.food_delivery_backend.models.MenuItem;
+
+public record MenuItemView(Long id, String name, Double price, String description, Boolean vegetarian, String image) {
+
+    public static MenuItemView from(MenuItem item) {
+        return new MenuItemView(
+                item.getId(),
+                item.getName(),
+                item.getPrice(),
+                item.getDescription(),
+                item.getVegetarian(),
+                item.getImage());
+    }
+}
@@ -0,0 +1,50 @@
+package com.quickbite.food_delivery_backend.catalog;
+
+import com.quickbite.food_delivery_backend.models.MenuItem;
+import com.quickbite.food_delivery_backend.models.Restaurant;
+
+import java.util.Comparator;
+import java.util.List;
+
+// Immutable copy of a Restaurant and its menu, safe to share between request threads.
+// Keeps the same JSON shape as the Restaurant entity minus the owner association.
+public record RestaurantView(Long id, String name, String image, Double rating, Integer deliveryTime,
+                             String category, String deliveryFee, String discount, String description,
+                             String address, Double latitude, Double longitude, String deliveryZone,
+                             List<MenuItemView> menu) {
+
+    public RestaurantView {
+        menu = List.copyOf(menu);
+    }
+
+    public static RestaurantView from(Restaurant restaurant, List<MenuItem> menu) {
+        return new RestaurantView(
+                restaurant.getId(),
+                restaurant.getName(),
+                restaurant.getImage(),
+                restaurant.getRating(),
+                restaurant.getDeliveryTime(),
+                restaurant.getCategory(),
+                restaurant.getDeliveryFee(),
+                restaurant.getDiscount(),
+                restaurant.getDescription(),
+                restaurant.getAddress(),
+                restaurant.getLatitude(),
+                restaurant.getLongitude(),
+                restaurant.getDeliveryZone(),
+                menu.stream()
+                        .map(MenuItemView::from)
+                        .sorted(Comparator.comparing(MenuItemView::id, Comparator.nullsLast(Comparator.naturalOrder())))
+                        .toList());
+    }
+
+    public RestaurantView withDeliveryTime(Integer newDeliveryTime) {
+        return new RestaurantView(id, name, image, rating, newDeliveryTime, category, deliveryFee,
+                discount, description, address, latitude, longitude, deliveryZone, menu);
+    }
+
+    public RestaurantView withMenu(List<MenuItemView> newMenu) {
+        return new RestaurantView(id, name, image, rating, deliveryTime, category, deliveryFee,
+                discount, description, address, latitude, longitude, deliveryZone, newMenu);
+    }
+}
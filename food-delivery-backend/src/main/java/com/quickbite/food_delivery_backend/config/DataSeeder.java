@@ -227,7 +227,8 @@ public class DataSeeder implements CommandLineRunner {
 
         for (MenuItem item : items) {
             item.setRestaurant(restaurant);
-            menuItemRepository.save(item);
         }
+        // Batched into a few multi-row inserts at flush
+        menuItemRepository.saveAll(items);
     }
 }
@@ -0,0 +1,78 @@
+package com.quickbite.food_delivery_backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Entities take ids in blocks from the id_generators table instead of auto-increment columns.
+// Databases that predate that table already hold auto-increment ids, so before anything is
+// inserted each generator row is raised past the largest id in its entity's table. With the
+// pooled-lo optimizer the stored value is the next id handed out, so max(id) + 1 is exact.
+@Component
+public class IdGeneratorAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorAligner.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private record Segment(TableGenerator generator, String table, String idColumn) {
+    }
+
+    @PostConstruct
+    void align() {
+        List<Segment> segments = new ArrayList<>();
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .forEachEntityDescriptor(persister -> {
+                    if (persister.getGenerator() instanceof TableGenerator generator
+                            && persister instanceof AbstractEntityPersister entity) {
+                        segments.add(new Segment(generator, entity.getTableName(), entity.getIdentifierColumnNames()[0]));
+                    }
+                });
+
+        for (Segment segment : segments) {
+            TableGenerator generator = segment.generator();
+            Long maxId = jdbcTemplate.queryForObject(
+                    "select max(" + segment.idColumn() + ") from " + segment.table(), Long.class);
+            if (maxId == null) {
+                continue;
+            }
+            long next = maxId + 1;
+            String table = generator.getTableName();
+            String segmentColumn = generator.getSegmentColumnName();
+            String valueColumn = generator.getValueColumnName();
+            List<Long> current = jdbcTemplate.queryForList("select " + valueColumn + " from " + table
+                    + " where " + segmentColumn + " = ?", Long.class, generator.getSegmentValue());
+            boolean raised = false;
+            if (current.isEmpty()) {
+                try {
+                    raised = jdbcTemplate.update("insert into " + table + " (" + segmentColumn + ", " + valueColumn
+                            + ") values (?, ?)", generator.getSegmentValue(), next) > 0;
+                } catch (DuplicateKeyException e) {
+                    // Another instance got there first; fall through to the conditional raise
+                }
+            }
+            if (!raised) {
+                raised = jdbcTemplate.update("update " + table + " set " + valueColumn + " = ? where "
+                        + segmentColumn + " = ? and " + valueColumn + " < ?", next, generator.getSegmentValue(), next) > 0;
+            }
+            if (raised) {
+                logger.info("Id generator {} starts at {}", generator.getSegmentValue(), next);
+            }
+        }
+    }
+}
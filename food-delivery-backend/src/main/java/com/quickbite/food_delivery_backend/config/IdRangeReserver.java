@@ -0,0 +1,38 @@
+package com.quickbite.food_delivery_backend.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Hands out ranges of ids to writers that insert with plain JDBC, from the same id_generators
+// rows the entities' @TableGenerators use, so those rows never clash with JPA-saved ones.
+// Each row stores the next id to hand out (pooled-lo), and the row lock keeps a reservation
+// atomic against Hibernate's own block allocations.
+@Component
+public class IdRangeReserver {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Returns the first of count consecutive ids for the segment (the entity's table name).
+    public long reserve(String segment, long count) {
+        return transactionTemplate.execute(status -> {
+            long next;
+            try {
+                next = jdbcTemplate.queryForObject(
+                        "select next_val from id_generators where name = ? for update", Long.class, segment);
+            } catch (EmptyResultDataAccessException e) {
+                jdbcTemplate.update("insert into id_generators (name, next_val) values (?, ?)", segment, 1 + count);
+                return 1L;
+            }
+            next = Math.max(next, 1);
+            jdbcTemplate.update("update id_generators set next_val = ? where name = ?", next + count, segment);
+            return next;
+        });
+    }
+}
@@ -1,14 +1,22 @@
 package com.quickbite.food_delivery_backend.controllers;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -24,15 +32,14 @@ import com.quickbite.food_delivery_backend.repository.UserRepository;
 import com.quickbite.food_delivery_backend.repository.RestaurantRepository;
 import com.quickbite.food_delivery_backend.repository.DeliveryInfoRepository;
 import com.quickbite.food_delivery_backend.security.jwt.JwtUtils;
+import com.quickbite.food_delivery_backend.security.services.PasswordHashingExecutor;
 import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsServiceImpl;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
-  @Autowired
-  AuthenticationManager authenticationManager;
-
   @Autowired
   UserRepository userRepository;
   
@@ -43,18 +50,61 @@ public class AuthController {
   DeliveryInfoRepository deliveryInfoRepository;
 
   @Autowired
-  PasswordEncoder encoder;
+  UserDetailsServiceImpl userDetailsService;
 
   @Autowired
   JwtUtils jwtUtils;
 
+  @Autowired
+  PasswordHashingExecutor passwordHashingExecutor;
+
+  private final AccountStatusUserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+
+  // The user lookup runs here and the rehash save on the callback thread; only the BCrypt
+  // comparison and rehash occupy the hashing pool.
   @PostMapping("/signin")
-  public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+  public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    UserDetails user = findUser(loginRequest.getEmail());
+    try {
+      return passwordHashingExecutor.matches("signin", loginRequest.getPassword(), user != null ? user.getPassword() : null)
+          .thenCompose(matched -> {
+            if (!matched) {
+              throw new BadCredentialsException("Bad credentials");
+            }
+            accountStatusChecker.check(user);
+            return rehashIfOutdated(user, loginRequest.getPassword());
+          })
+          .<ResponseEntity<?>>thenApply(details -> signedIn(
+              new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities())))
+          .exceptionally(this::badCredentials);
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.completedFuture(tooManyRequests());
+    }
+  }
 
-    Authentication authentication = authenticationManager.authenticate(
-        new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
+  private UserDetails findUser(String email) {
+    try {
+      return userDetailsService.loadUserByUsername(email);
+    } catch (UsernameNotFoundException e) {
+      return null;
+    }
+  }
 
-    SecurityContextHolder.getContext().setAuthentication(authentication);
+  // Stores a new hash when the stored one has a lower cost than app.passwordHashStrength. A
+  // saturated pool skips it; the next login tries again.
+  private CompletableFuture<UserDetails> rehashIfOutdated(UserDetails user, String rawPassword) {
+    if (!passwordHashingExecutor.upgradeEncoding(user.getPassword())) {
+      return CompletableFuture.completedFuture(user);
+    }
+    try {
+      return passwordHashingExecutor.encode("rehash", rawPassword)
+          .thenApply(encodedPassword -> userDetailsService.updatePassword(user, encodedPassword));
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.completedFuture(user);
+    }
+  }
+
+  private ResponseEntity<?> signedIn(Authentication authentication) {
     String jwt = jwtUtils.generateJwtToken(authentication);
     
     UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();    
@@ -70,13 +120,39 @@ public class AuthController {
                          role));
   }
 
+  private ResponseEntity<?> badCredentials(Throwable failure) {
+    Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+    if (cause instanceof AuthenticationException) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(new MessageResponse("Error: Invalid email or password!"));
+    }
+    throw failure instanceof CompletionException completion ? completion : new CompletionException(failure);
+  }
+
+  // Hashing pool is saturated; fail fast rather than queue behind other logins.
+  private ResponseEntity<?> tooManyRequests() {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(new MessageResponse("Error: Too many requests, please try again shortly."));
+  }
+
   @PostMapping("/signup")
-  public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+  public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
     if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-      return ResponseEntity
+      return CompletableFuture.completedFuture(ResponseEntity
           .badRequest()
-          .body(new MessageResponse("Error: Email is already in use!"));
+          .body(new MessageResponse("Error: Email is already in use!")));
+    }
+
+    try {
+      return passwordHashingExecutor.encode("signup", signUpRequest.getPassword())
+          .thenApply(encodedPassword -> saveNewUser(signUpRequest, encodedPassword));
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.completedFuture(tooManyRequests());
     }
+  }
+
+  private ResponseEntity<?> saveNewUser(SignupRequest signUpRequest, String encodedPassword) {
 
     // Determine Role
     ERole role = ERole.ROLE_CUSTOMER;
@@ -100,11 +176,13 @@ public class AuthController {
 
     User user = new User(signUpRequest.getFullName(), 
                signUpRequest.getEmail(),
-               encoder.encode(signUpRequest.getPassword()),
+               encodedPassword,
                role);
     
     user.setMobile(signUpRequest.getMobile());
     user.setAddress(address);
+    user.setLatitude(signUpRequest.getLatitude());
+    user.setLongitude(signUpRequest.getLongitude());
     user.setAvatarUrl(signUpRequest.getImageUrl()); // Use image URL as avatar for now
 
     User savedUser = userRepository.save(user);
@@ -116,6 +194,9 @@ public class AuthController {
         restaurant.setDescription(signUpRequest.getCategories()); // Using categories as description for now
         restaurant.setImage(signUpRequest.getImageUrl());
         restaurant.setAddress(address);
+        restaurant.setLatitude(signUpRequest.getLatitude());
+        restaurant.setLongitude(signUpRequest.getLongitude());
+        restaurant.setDeliveryZone(signUpRequest.getDeliveryZone());
         restaurant.setOwner(savedUser);
         restaurant.setCategory(signUpRequest.getCategories());
         restaurant.setRating(0.0); // Default
@@ -1,16 +1,30 @@
 package com.quickbite.food_delivery_backend.controllers;
 
+import com.quickbite.food_delivery_backend.cart.CartStore;
+import com.quickbite.food_delivery_backend.catalog.MenuItemView;
+import com.quickbite.food_delivery_backend.idempotency.IdempotencyService;
 import com.quickbite.food_delivery_backend.models.*;
 import com.quickbite.food_delivery_backend.payload.request.AddToCartRequest;
+import com.quickbite.food_delivery_backend.payload.request.CartBatchRequest;
+import com.quickbite.food_delivery_backend.payload.request.CartOperationRequest;
+import com.quickbite.food_delivery_backend.payload.response.MessageResponse;
 import com.quickbite.food_delivery_backend.repository.*;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 import jakarta.transaction.Transactional;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600, exposedHeaders = IdempotencyService.REPLAYED_HEADER)
 @RestController
 @RequestMapping("/api/cart")
 public class CartController {
@@ -27,8 +41,21 @@ public class CartController {
     @Autowired
     MenuItemRepository menuItemRepository;
 
+    @Autowired
+    CartStore cartStore;
+
+    @Autowired
+    IdempotencyService idempotencyService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
     @GetMapping("/{userId}")
     public ResponseEntity<?> getCart(@PathVariable Long userId) {
+        if (cartStore.isEnabled()) {
+            return ResponseEntity.ok(cartStore.get(userId));
+        }
+
         Optional<Cart> cart = cartRepository.findByUserId(userId);
         if (cart.isPresent()) {
             return ResponseEntity.ok(cart.get());
@@ -39,9 +66,28 @@ public class CartController {
         }
     }
 
+    // Adding is not naturally idempotent, so a retried add with the same Idempotency-Key is
+    // replayed rather than adding the quantity twice. Keys are scoped to the signed-in caller.
     @PostMapping("/add")
-    @Transactional
-    public ResponseEntity<?> addToCart(@RequestBody AddToCartRequest request) {
+    public ResponseEntity<?> addToCart(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                       @RequestBody AddToCartRequest request,
+                                       @AuthenticationPrincipal UserDetailsImpl caller) {
+        return idempotencyService.execute(idempotencyKey, "cart-add:" + caller.getId(), request,
+                () -> add(request));
+    }
+
+    // Only the JPA path opens a transaction; the write-behind store keeps the edit in memory.
+    private ResponseEntity<?> add(AddToCartRequest request) {
+        if (request.getQuantity() == null || request.getQuantity() < 1) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Quantity must be at least 1."));
+        }
+        if (cartStore.isEnabled()) {
+            return ResponseEntity.ok(cartStore.add(request.getUserId(), request.getMenuItemId(), request.getQuantity()));
+        }
+        return transactionTemplate.execute(status -> addToSavedCart(request));
+    }
+
+    private ResponseEntity<?> addToSavedCart(AddToCartRequest request) {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new RuntimeException("Error: User not found."));
 
@@ -69,9 +115,95 @@ public class CartController {
         return ResponseEntity.ok(savedCart);
     }
     
+    // Applies a list of add / set-quantity / remove operations all at once with a single menu
+    // item lookup, and returns the resulting cart. Only the JPA path opens a transaction.
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(@RequestBody CartBatchRequest request) {
+        List<CartOperationRequest> operations = request.getOperations();
+        if (request.getUserId() == null || operations == null || operations.isEmpty()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: No cart operations."));
+        }
+        for (CartOperationRequest operation : operations) {
+            if (!isValid(operation)) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Error: Invalid cart operation."));
+            }
+        }
+
+        Set<Long> menuItemIds = operations.stream()
+                .filter(operation -> operation.getType() != CartOperationRequest.Type.REMOVE)
+                .map(CartOperationRequest::getMenuItemId)
+                .collect(Collectors.toSet());
+
+        if (cartStore.isEnabled()) {
+            Map<Long, MenuItemView> menuItems = cartStore.resolveMenuItems(menuItemIds);
+            if (menuItems.size() != menuItemIds.size()) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Error: MenuItem not found."));
+            }
+            return ResponseEntity.ok(cartStore.apply(request.getUserId(), operations, menuItems));
+        }
+        return transactionTemplate.execute(status -> applyToSavedCart(request.getUserId(), operations, menuItemIds));
+    }
+
+    private ResponseEntity<?> applyToSavedCart(Long userId, List<CartOperationRequest> operations, Set<Long> menuItemIds) {
+        Map<Long, MenuItem> menuItems = menuItemRepository.findAllById(menuItemIds).stream()
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+        if (menuItems.size() != menuItemIds.size()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: MenuItem not found."));
+        }
+
+        Cart cart = cartRepository.findAllWithItemsByUserIdIn(List.of(userId)).stream()
+                .findFirst()
+                .orElseGet(() -> new Cart(userRepository.findById(userId)
+                        .orElseThrow(() -> new RuntimeException("Error: User not found."))));
+        Map<Long, CartItem> lines = cart.getItems().stream()
+                .collect(Collectors.toMap(item -> item.getMenuItem().getId(), Function.identity()));
+
+        for (CartOperationRequest operation : operations) {
+            CartItem line = lines.get(operation.getMenuItemId());
+            int quantity = switch (operation.getType()) {
+                case ADD -> (line != null ? line.getQuantity() : 0) + operation.getQuantity();
+                case SET_QUANTITY -> operation.getQuantity();
+                case REMOVE -> 0;
+            };
+
+            if (quantity == 0) {
+                if (line != null) {
+                    cart.getItems().remove(line);
+                    line.setCart(null);
+                    lines.remove(operation.getMenuItemId());
+                }
+            } else if (line != null) {
+                line.setQuantity(quantity);
+            } else {
+                // Added directly rather than through Cart.addItem so the total is computed once below
+                line = new CartItem(cart, menuItems.get(operation.getMenuItemId()), quantity);
+                cart.getItems().add(line);
+                lines.put(operation.getMenuItemId(), line);
+            }
+        }
+
+        cart.calculateTotal();
+        return ResponseEntity.ok(cartRepository.save(cart));
+    }
+
+    private boolean isValid(CartOperationRequest operation) {
+        if (operation.getType() == null || operation.getMenuItemId() == null) {
+            return false;
+        }
+        return switch (operation.getType()) {
+            case ADD -> operation.getQuantity() != null && operation.getQuantity() >= 1;
+            case SET_QUANTITY -> operation.getQuantity() != null && operation.getQuantity() >= 0;
+            case REMOVE -> true;
+        };
+    }
+
     @DeleteMapping("/remove/{itemId}")
     @Transactional
     public ResponseEntity<?> removeFromCart(@PathVariable Long itemId) {
+        if (cartStore.isEnabled()) {
+            return ResponseEntity.ok(cartStore.removeLine(itemId));
+        }
+
         CartItem cartItem = cartItemRepository.findById(itemId)
                 .orElseThrow(() -> new RuntimeException("Error: CartItem not found."));
         
@@ -85,6 +217,10 @@ public class CartController {
     @PostMapping("/clear/{userId}")
     @Transactional
     public ResponseEntity<?> clearCart(@PathVariable Long userId) {
+        if (cartStore.isEnabled()) {
+            return ResponseEntity.ok(cartStore.clear(userId));
+        }
+
         Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Error: Cart not found."));
         
@@ -0,0 +1,43 @@
+package com.quickbite.food_delivery_backend.controllers;
+
+import com.quickbite.food_delivery_backend.dispatch.DispatchEngine;
+import com.quickbite.food_delivery_backend.payload.response.MessageResponse;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/dispatch")
+public class DispatchController {
+
+    @Autowired
+    DispatchEngine dispatchEngine;
+
+    // Riders going on and off shift; only online riders are offered orders. A rider can only
+    // change their own status, an admin anyone's.
+    @PostMapping("/riders/{riderId}/online")
+    public ResponseEntity<?> goOnline(@PathVariable Long riderId, @AuthenticationPrincipal UserDetailsImpl user) {
+        return setOnline(riderId, true, user);
+    }
+
+    @PostMapping("/riders/{riderId}/offline")
+    public ResponseEntity<?> goOffline(@PathVariable Long riderId, @AuthenticationPrincipal UserDetailsImpl user) {
+        return setOnline(riderId, false, user);
+    }
+
+    private ResponseEntity<?> setOnline(Long riderId, boolean online, UserDetailsImpl user) {
+        boolean admin = user.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (!admin && !user.getId().equals(riderId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new MessageResponse("Error: Riders can only change their own status."));
+        }
+        if (!dispatchEngine.setRiderOnline(riderId, online)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Rider not found."));
+        }
+        return ResponseEntity.ok(new MessageResponse(online ? "Rider is online." : "Rider is offline."));
+    }
+}
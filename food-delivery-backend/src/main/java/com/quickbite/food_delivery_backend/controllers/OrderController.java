@@ -1,22 +1,58 @@
 package com.quickbite.food_delivery_backend.controllers;
 
+import com.quickbite.food_delivery_backend.cart.CartStore;
+import com.quickbite.food_delivery_backend.eta.EtaService;
+import com.quickbite.food_delivery_backend.events.OrderEventBus;
+import com.quickbite.food_delivery_backend.idempotency.IdempotencyService;
 import com.quickbite.food_delivery_backend.models.*;
+import com.quickbite.food_delivery_backend.orderfeed.OrderFeedHub;
+import com.quickbite.food_delivery_backend.orders.OrderLifecycleService;
+import com.quickbite.food_delivery_backend.orders.OrderOutbox;
+import com.quickbite.food_delivery_backend.orders.OrderTransitionException;
 import com.quickbite.food_delivery_backend.payload.request.OrderRequest;
 import com.quickbite.food_delivery_backend.payload.request.OrderItemRequest;
+import com.quickbite.food_delivery_backend.payload.response.MessageResponse;
+import com.quickbite.food_delivery_backend.payload.response.OrderLineSummary;
+import com.quickbite.food_delivery_backend.payload.response.OrderPlacedResponse;
+import com.quickbite.food_delivery_backend.payload.response.OrderSummary;
+import com.quickbite.food_delivery_backend.replica.ReplicaReads;
 import com.quickbite.food_delivery_backend.repository.*;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-@CrossOrigin(origins = "*", maxAge = 3600)
+@CrossOrigin(origins = "*", maxAge = 3600,
+        exposedHeaders = { OrderController.NEXT_CURSOR_HEADER, IdempotencyService.REPLAYED_HEADER })
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     OrderRepository orderRepository;
 
@@ -29,59 +65,228 @@ public class OrderController {
     @Autowired
     MenuItemRepository menuItemRepository;
 
+    @Autowired
+    OrderItemRepository orderItemRepository;
+
+    @Autowired
+    CartStore cartStore;
+
+    @Autowired
+    OrderFeedHub orderFeedHub;
+
+    @Autowired
+    OrderOutbox orderOutbox;
+
+    @Autowired
+    OrderLifecycleService orderLifecycleService;
+
+    @Autowired
+    OrderEventBus orderEventBus;
+
+    @Autowired
+    EtaService etaService;
+
+    @Autowired
+    IdempotencyService idempotencyService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ReplicaReads replicaReads;
+
+    // A retried checkout with the same Idempotency-Key gets the first response back instead of
+    // placing a second order. The order commits before its response is stored for replay. Keys
+    // are scoped to the signed-in caller, never to ids taken from the body.
     @PostMapping
-    public ResponseEntity<?> createOrder(@RequestBody OrderRequest orderRequest) {
+    public ResponseEntity<?> createOrder(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                         @RequestBody OrderRequest orderRequest,
+                                         @AuthenticationPrincipal UserDetailsImpl caller) {
+        return idempotencyService.execute(idempotencyKey, "orders:" + caller.getId(), orderRequest, () -> {
+            // Checkout persists any cart edits still waiting for the write-behind flush. Done before
+            // the order transaction opens, so a checkout holds one connection at a time.
+            cartStore.flush(orderRequest.getCustomerId());
+            return transactionTemplate.execute(status -> placeOrder(orderRequest));
+        });
+    }
+
+    private ResponseEntity<?> placeOrder(OrderRequest orderRequest) {
+        if (orderRequest.getItems() == null || orderRequest.getItems().isEmpty()) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Order has no items."));
+        }
+        for (OrderItemRequest itemRequest : orderRequest.getItems()) {
+            if (itemRequest.getMenuItemId() == null || itemRequest.getQuantity() == null || itemRequest.getQuantity() < 1) {
+                return ResponseEntity.badRequest().body(new MessageResponse("Error: Invalid order item."));
+            }
+        }
+
         User user = userRepository.findById(orderRequest.getCustomerId())
                 .orElseThrow(() -> new RuntimeException("Error: User not found."));
 
         Restaurant restaurant = restaurantRepository.findById(orderRequest.getRestaurantId())
                 .orElseThrow(() -> new RuntimeException("Error: Restaurant not found."));
 
+        // One IN query for every menu item, however many lines the order has
+        Set<Long> menuItemIds = orderRequest.getItems().stream()
+                .map(OrderItemRequest::getMenuItemId)
+                .collect(Collectors.toSet());
+        Map<Long, MenuItem> menuItems = menuItemRepository.findAllById(menuItemIds).stream()
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+
         Order order = new Order();
         order.setUser(user);
         order.setRestaurant(restaurant);
-        order.setTotalAmount(orderRequest.getTotalPrice());
         order.setDeliveryAddress(orderRequest.getDeliveryAddress());
         order.setStatus(EOrderStatus.PENDING);
         order.setCreatedAt(LocalDateTime.now());
 
+        // The total is priced from the menu; the client-supplied totalPrice is ignored
+        BigDecimal total = BigDecimal.ZERO;
         for (OrderItemRequest itemRequest : orderRequest.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemRequest.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("Error: MenuItem not found ID: " + itemRequest.getMenuItemId()));
-            
+            MenuItem menuItem = menuItems.get(itemRequest.getMenuItemId());
+            if (menuItem == null || !restaurant.getId().equals(menuItem.getRestaurant().getId())) {
+                return ResponseEntity.badRequest().body(new MessageResponse(
+                        "Error: MenuItem " + itemRequest.getMenuItemId() + " is not on this restaurant's menu."));
+            }
+
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setMenuItem(menuItem);
             orderItem.setQuantity(itemRequest.getQuantity());
             orderItem.setPrice(menuItem.getPrice());
-            
+
             order.addItem(orderItem);
+            total = total.add(BigDecimal.valueOf(menuItem.getPrice()).multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
         }
+        order.setTotalAmount(total.doubleValue());
+        int estimatedMinutes = etaService.estimateMinutes(restaurant.getId(), restaurant.getDeliveryTime());
+        order.setEstimatedDeliveryAt(order.getCreatedAt().plusMinutes(estimatedMinutes));
 
         orderRepository.save(order);
+        orderOutbox.append(order.getId(), restaurant.getId(), "order-created", summaryOf(order));
+        // Side effects run on the bus's consumer threads once the order commits
+        orderEventBus.orderCreated(order);
+
+        return ResponseEntity.ok(new OrderPlacedResponse("Order placed successfully!", order.getId(),
+                estimatedMinutes, order.getEstimatedDeliveryAt()));
+    }
+
+    // Built from the entities already in memory, so the feed costs no extra queries.
+    private static OrderSummary summaryOf(Order order) {
+        List<OrderLineSummary> lines = new ArrayList<>(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            MenuItem menuItem = item.getMenuItem();
+            lines.add(new OrderLineSummary(order.getId(), item.getId(), menuItem.getId(), menuItem.getName(),
+                    menuItem.getImage(), item.getQuantity(), item.getPrice()));
+        }
+        Restaurant restaurant = order.getRestaurant();
+        return new OrderSummary(order.getId(), order.getCreatedAt(), order.getStatus(), order.getTotalAmount(),
+                restaurant.getId(), restaurant.getName()).withItems(lines);
+    }
 
-        return ResponseEntity.ok("Order placed successfully!");
+    // Live orders for a restaurant's tablet. Browsers reconnect on their own and send
+    // Last-Event-ID; a "resync" event means the gap was too large and the list must be reloaded.
+    // Only the restaurant's owner or an admin may subscribe: the feed carries customers' orders
+    // and delivery addresses.
+    @GetMapping(path = "/restaurant/{restaurantId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRestaurantOrders(@PathVariable Long restaurantId,
+                                                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                             @AuthenticationPrincipal UserDetailsImpl user) {
+        Optional<Restaurant> restaurant = restaurantRepository.findById(restaurantId);
+        if (restaurant.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean admin = user.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        Long ownerId = restaurant.get().getOwner() != null ? restaurant.get().getOwner().getId() : null;
+        if (!admin && !user.getId().equals(ownerId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(orderFeedHub.subscribe(restaurantId, lastEventId));
     }
 
+    // Newest first, one page at a time. When more orders exist the X-Next-Cursor header holds
+    // the cursor to pass back for the following page. The first page reads the primary so a
+    // just-placed order shows up; later pages only hold older orders and may come from a replica.
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getUserOrders(@PathVariable Long userId) {
-        List<Order> orders = orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<?> getUserOrders(@PathVariable Long userId,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable page = PageRequest.of(0, pageSize + 1);
+
+        if (cursor == null || cursor.isEmpty()) {
+            return orderPage(orderRepository.findSummariesByUserId(userId, page), pageSize);
+        }
+        Cursor after = Cursor.decode(cursor);
+        if (after == null) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Invalid cursor."));
+        }
+        return replicaReads.execute(() -> orderPage(
+                orderRepository.findSummariesByUserIdBefore(userId, after.createdAt(), after.id(), page), pageSize));
     }
-    
+
+    private ResponseEntity<List<OrderSummary>> orderPage(List<OrderSummary> orders, int pageSize) {
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+
+        // Lines for the whole page in one query
+        Map<Long, List<OrderLineSummary>> lines = orders.isEmpty() ? Map.of()
+                : orderItemRepository.findLineSummariesByOrderIdIn(orders.stream().map(OrderSummary::id).toList())
+                        .stream()
+                        .collect(Collectors.groupingBy(OrderLineSummary::orderId));
+        List<OrderSummary> body = orders.stream()
+                .map(order -> order.withItems(lines.getOrDefault(order.id(), List.of())))
+                .toList();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasMore) {
+            OrderSummary last = body.get(body.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, new Cursor(last.createdAt(), last.id()).encode());
+        }
+        return response.body(body);
+    }
+
+    // Opaque to clients: base64url of "<createdAt>|<id>" for the last order on the page.
+    private record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String value) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 2) {
+                    return null;
+                }
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+
     @PutMapping("/{orderId}/status")
     public ResponseEntity<?> updateOrderStatus(@PathVariable Long orderId, @RequestBody String status) {
-         Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Error: Order not found."));
-         
+         EOrderStatus next;
          try {
              // Remove quotes if present
-             String cleanStatus = status.replace("\"", "");
-             order.setStatus(EOrderStatus.valueOf(cleanStatus));
-             orderRepository.save(order);
-             return ResponseEntity.ok("Order status updated.");
+             next = EOrderStatus.valueOf(status.replace("\"", ""));
          } catch (IllegalArgumentException e) {
              return ResponseEntity.badRequest().body("Invalid status");
          }
+
+         try {
+             orderLifecycleService.transition(orderId, next);
+             return ResponseEntity.ok("Order status updated.");
+         } catch (OrderTransitionException e) {
+             return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+         } catch (OptimisticLockingFailureException e) {
+             return ResponseEntity.status(HttpStatus.CONFLICT)
+                     .body(new MessageResponse("Error: Order is being updated by someone else, try again."));
+         }
     }
 }
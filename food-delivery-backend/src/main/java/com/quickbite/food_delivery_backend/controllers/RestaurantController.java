@@ -1,11 +1,32 @@
 package com.quickbite.food_delivery_backend.controllers;
 
+import com.quickbite.food_delivery_backend.catalog.CatalogService;
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+import com.quickbite.food_delivery_backend.eta.EtaService;
+import com.quickbite.food_delivery_backend.geo.GeoIndex;
+import com.quickbite.food_delivery_backend.geo.GeoService;
+import com.quickbite.food_delivery_backend.geo.NearbyRestaurant;
+import com.quickbite.food_delivery_backend.menuimport.MenuImportService;
 import com.quickbite.food_delivery_backend.models.Restaurant;
+import com.quickbite.food_delivery_backend.payload.response.MessageResponse;
 import com.quickbite.food_delivery_backend.repository.RestaurantRepository;
+import com.quickbite.food_delivery_backend.search.SearchService;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,24 +35,97 @@ import java.util.Optional;
 @RequestMapping("/api/restaurants")
 public class RestaurantController {
 
+    private static final int MAX_NEARBY_LIMIT = 100;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private GeoService geoService;
+
+    @Autowired
+    private EtaService etaService;
+
     @Autowired
     private RestaurantRepository restaurantRepository;
 
+    @Autowired
+    private MenuImportService menuImportService;
+
+    // deliveryTime on every restaurant returned here is the live estimate in minutes
     @GetMapping
-    public List<Restaurant> getAllRestaurants(@RequestParam(required = false) String category) {
+    public List<RestaurantView> getAllRestaurants(@RequestParam(required = false) String category) {
         if (category != null && !category.isEmpty()) {
-            return restaurantRepository.findByCategoryContainingIgnoreCase(category);
+            return etaService.withEstimates(searchService.findRestaurantsByCategory(category));
         }
-        return restaurantRepository.findAll();
+        return etaService.withEstimates(catalogService.findAll());
+    }
+
+    // Nearest first. Without radiusKm, returns the closest `limit` restaurants.
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyRestaurants(@RequestParam double lat,
+                                                  @RequestParam double lng,
+                                                  @RequestParam(required = false) Double radiusKm,
+                                                  @RequestParam(defaultValue = "20") int limit) {
+        if (!GeoIndex.isValid(lat, lng)) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Invalid coordinates."));
+        }
+        if (radiusKm != null && (radiusKm <= 0 || radiusKm > geoService.maxRadiusKm())) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: radiusKm must be between 0 and " + geoService.maxRadiusKm()));
+        }
+        List<NearbyRestaurant> nearby = geoService.nearby(lat, lng, radiusKm, Math.max(1, Math.min(limit, MAX_NEARBY_LIMIT)));
+        List<RestaurantView> estimated = etaService.withEstimates(nearby.stream().map(NearbyRestaurant::restaurant).toList());
+        List<NearbyRestaurant> response = new ArrayList<>(nearby.size());
+        for (int i = 0; i < nearby.size(); i++) {
+            response.add(new NearbyRestaurant(estimated.get(i), nearby.get(i).distanceKm()));
+        }
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Restaurant> getRestaurantById(@PathVariable Long id) {
-        Optional<Restaurant> restaurant = restaurantRepository.findById(id);
+    public ResponseEntity<RestaurantView> getRestaurantById(@PathVariable Long id) {
+        Optional<RestaurantView> restaurant = catalogService.findById(id);
         if (restaurant.isPresent()) {
-            return ResponseEntity.ok(restaurant.get());
+            return ResponseEntity.ok(etaService.withEstimate(restaurant.get()));
         } else {
             return ResponseEntity.notFound().build();
         }
     }
+
+    // Bulk menu upload by the restaurant's owner: CSV with a header row (name and price
+    // required; description, vegetarian, image optional) or one JSON object per line. Items are
+    // matched to the current menu by name. Bad rows are listed in the response and skipped.
+    @PostMapping(path = "/{id}/menu/import", consumes = { MenuImportService.CSV, MenuImportService.NDJSON })
+    @PreAuthorize("hasRole('RESTAURANT') or hasRole('ADMIN')")
+    public ResponseEntity<?> importMenu(@PathVariable Long id,
+                                        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        @AuthenticationPrincipal UserDetailsImpl user,
+                                        InputStream body) throws IOException {
+        Optional<Restaurant> restaurant = restaurantRepository.findById(id);
+        if (restaurant.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean admin = user.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        Long ownerId = restaurant.get().getOwner() != null ? restaurant.get().getOwner().getId() : null;
+        if (!admin && !user.getId().equals(ownerId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(new MessageResponse("Error: Only the restaurant's owner can import its menu."));
+        }
+
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+        MenuImportService.Format format = mediaType.isCompatibleWith(MediaType.parseMediaType(MenuImportService.CSV))
+                ? MenuImportService.Format.CSV : MenuImportService.Format.NDJSON;
+        try {
+            return ResponseEntity.ok(menuImportService.importMenu(id, format, new InputStreamReader(body, charset)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(e.getMessage()));
+        }
+    }
 }
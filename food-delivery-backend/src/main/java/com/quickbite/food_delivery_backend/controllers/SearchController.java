@@ -0,0 +1,38 @@
+package com.quickbite.food_delivery_backend.controllers;
+
+import com.quickbite.food_delivery_backend.payload.response.MessageResponse;
+import com.quickbite.food_delivery_backend.search.SearchIndex;
+import com.quickbite.food_delivery_backend.search.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Locale;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam("q") String query,
+                                    @RequestParam(defaultValue = "all") String type,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        int typeMask;
+        switch (type.toLowerCase(Locale.ROOT)) {
+            case "all" -> typeMask = SearchIndex.ALL_TYPES;
+            case "restaurants" -> typeMask = SearchIndex.RESTAURANTS;
+            case "dishes" -> typeMask = SearchIndex.MENU_ITEMS;
+            default -> {
+                return ResponseEntity.badRequest().body(new MessageResponse("Error: Unknown search type " + type));
+            }
+        }
+
+        return ResponseEntity.ok(searchService.search(query, typeMask, Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+}
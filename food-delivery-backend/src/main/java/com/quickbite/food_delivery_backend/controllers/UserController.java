@@ -37,6 +37,8 @@ public class UserController {
                     user.setMobile(userRequest.getMobile());
                     user.setAvatarUrl(userRequest.getAvatarUrl());
                     user.setAddress(userRequest.getAddress());
+                    user.setLatitude(userRequest.getLatitude());
+                    user.setLongitude(userRequest.getLongitude());
                     
                     userRepository.save(user);
                     
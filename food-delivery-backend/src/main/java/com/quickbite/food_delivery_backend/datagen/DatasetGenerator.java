@@ -0,0 +1,693 @@
+package com.quickbite.food_delivery_backend.datagen;
+
+import com.quickbite.food_delivery_backend.config.IdRangeReserver;
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+import com.quickbite.food_delivery_backend.models.ERole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fills the database with a synthetic dataset for load and scale testing: users (one owner per
+// restaurant, riders with delivery details, customers), restaurants clustered around a few
+// cities, menus of varying size and months of order history. Restaurant and customer
+// popularity follow Zipf distributions, orders peak at lunch, dinner and weekends and grow over
+// the period.
+//
+// Rows go in through batched JDBC from a pool of threads, one connection and transaction per
+// chunk. Ids are reserved from id_generators up front, and each chunk draws from its own random
+// stream seeded from (seed, table, chunk), so a spec produces the same rows whatever the thread
+// count. Everything later phases depend on (cities, menu sizes and prices, items per order) is
+// planned first from a single stream.
+public class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final int CHUNK_ROWS = 10_000;
+
+    private static final int PLAN_STREAM = 1;
+    private static final int USER_STREAM = 2;
+    private static final int RESTAURANT_STREAM = 3;
+    private static final int MENU_STREAM = 4;
+    private static final int ORDER_STREAM = 5;
+    private static final int DISH_STREAM = 6;
+
+    private static final String USER_INSERT = "insert into users (id, full_name, email, password, role, mobile, "
+            + "address, latitude, longitude) values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELIVERY_INFO_INSERT = "insert into delivery_info (id, user_id, vehicle_type, "
+            + "vehicle_model, license_number, vehicle_registration_number, delivery_zone) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String RESTAURANT_INSERT = "insert into restaurants (id, name, rating, delivery_time, "
+            + "category, delivery_fee, discount, description, address, latitude, longitude, delivery_zone, owner_id) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String MENU_ITEM_INSERT = "insert into menu_items (id, name, price, description, "
+            + "vegetarian, restaurant_id) values (?, ?, ?, ?, ?, ?)";
+    private static final String ORDER_INSERT = "insert into orders (id, user_id, restaurant_id, rider_id, "
+            + "assigned_at, total_amount, status, created_at, estimated_delivery_at, delivery_address, version) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String ORDER_ITEM_INSERT = "insert into order_items (id, order_id, menu_item_id, "
+            + "quantity, price) values (?, ?, ?, ?, ?)";
+
+    private record City(String name, String plateCode, double latitude, double longitude, double weight) {
+    }
+
+    private record Dish(String name, double price, boolean vegetarian) {
+    }
+
+    private record Cuisine(String category, double weight, Dish... dishes) {
+    }
+
+    private static final City[] CITIES = {
+            new City("Bengaluru", "KA01", 12.9716, 77.5946, 0.24),
+            new City("Mumbai", "MH02", 19.0760, 72.8777, 0.22),
+            new City("Delhi", "DL03", 28.6139, 77.2090, 0.22),
+            new City("Hyderabad", "TS09", 17.3850, 78.4867, 0.14),
+            new City("Chennai", "TN07", 13.0827, 80.2707, 0.10),
+            new City("Pune", "MH12", 18.5204, 73.8567, 0.08),
+    };
+
+    private static final Cuisine[] CUISINES = {
+            new Cuisine("North Indian", 0.22, new Dish("Butter Chicken", 380, false), new Dish("Dal Makhani", 280, true),
+                    new Dish("Paneer Tikka", 320, true), new Dish("Naan", 40, true), new Dish("Chole Bhature", 250, true),
+                    new Dish("Rajma Chawal", 220, true), new Dish("Malai Kofta", 300, true)),
+            new Cuisine("Biryani, Mughlai", 0.18, new Dish("Chicken Biryani", 350, false), new Dish("Mutton Biryani", 450, false),
+                    new Dish("Veg Biryani", 280, true), new Dish("Chicken 65", 250, false), new Dish("Mirchi Ka Salan", 150, true),
+                    new Dish("Mutton Korma", 420, false)),
+            new Cuisine("South Indian", 0.14, new Dish("Masala Dosa", 120, true), new Dish("Idli Sambar", 80, true),
+                    new Dish("Medu Vada", 90, true), new Dish("Uttapam", 140, true), new Dish("Rava Dosa", 130, true),
+                    new Dish("Filter Coffee", 50, true)),
+            new Cuisine("Chinese, Asian", 0.12, new Dish("Hakka Noodles", 220, true), new Dish("Chilli Chicken", 280, false),
+                    new Dish("Veg Manchurian", 210, true), new Dish("Fried Rice", 200, true), new Dish("Spring Rolls", 160, true),
+                    new Dish("Dim Sums", 240, false)),
+            new Cuisine("Italian, Pizza", 0.12, new Dish("Margherita Pizza", 250, true), new Dish("Pepperoni Pizza", 350, false),
+                    new Dish("Garlic Bread", 120, true), new Dish("Pasta Alfredo", 300, true), new Dish("Chicken BBQ Pizza", 380, false),
+                    new Dish("Tiramisu", 220, true)),
+            new Cuisine("Fast Food, Burgers", 0.12, new Dish("Chicken Burger", 180, false), new Dish("Veg Burger", 140, true),
+                    new Dish("French Fries", 100, true), new Dish("Chicken Wings", 240, false), new Dish("Milkshake", 150, true),
+                    new Dish("Wrap", 170, false)),
+            new Cuisine("Desserts, Ice Cream", 0.05, new Dish("Gulab Jamun", 90, true), new Dish("Brownie Sundae", 180, true),
+                    new Dish("Rasmalai", 120, true), new Dish("Chocolate Cake", 160, true), new Dish("Kulfi", 80, true)),
+            new Cuisine("Healthy, Salads", 0.05, new Dish("Greek Salad", 260, true), new Dish("Quinoa Bowl", 320, true),
+                    new Dish("Grilled Chicken Salad", 340, false), new Dish("Fruit Bowl", 180, true), new Dish("Smoothie", 160, true)),
+    };
+
+    // A menu repeats its cuisine's dishes under these variants once the plain ones run out
+    private static final String[] VARIANTS = { "", " Combo", " Family Pack", " Special", " Mini" };
+    private static final double[] VARIANT_PRICES = { 1.0, 1.3, 2.2, 1.2, 0.7 };
+
+    private static final String[] FIRST_NAMES = { "Aarav", "Vivaan", "Aditya", "Arjun", "Sai", "Rohan", "Ishaan",
+            "Kabir", "Ananya", "Diya", "Saanvi", "Aadhya", "Isha", "Meera", "Priya", "Riya", "Neha", "Kavya",
+            "Rahul", "Vikram", "Zoya", "Farhan", "Sneha", "Pooja" };
+    private static final String[] LAST_NAMES = { "Sharma", "Verma", "Iyer", "Reddy", "Nair", "Patel", "Gupta",
+            "Khan", "Singh", "Mehta", "Rao", "Das", "Joshi", "Kulkarni", "Menon", "Bose", "Chopra", "Pillai" };
+    private static final String[] STREETS = { "MG Road", "Park Street", "Station Road", "Church Street",
+            "Ring Road", "Lake View Road", "Temple Street", "Market Road", "Hill Road", "Gandhi Nagar",
+            "Nehru Street", "Main Road" };
+    private static final String[] NAME_PREFIXES = { "Royal", "Spicy", "Golden", "Urban", "Classic", "Green",
+            "Tasty", "Desi", "Happy", "Grand", "Little", "Famous" };
+    private static final String[] NAME_SUFFIXES = { "House", "Kitchen", "Express", "Corner", "Cafe", "Dhaba",
+            "Bistro", "Point" };
+    private static final String[] VEHICLES = { "Bike", "Scooter", "Bicycle", "Car" };
+    private static final double[] VEHICLE_WEIGHTS = { 0.5, 0.35, 0.1, 0.05 };
+    private static final String[] VEHICLE_MODELS = { "Honda Activa", "Hero Splendor", "TVS Jupiter",
+            "Bajaj Pulsar", "Ather 450X", "Hero Cycle", "Maruti Alto" };
+    private static final String[] DELIVERY_FEES = { "Free", "Free", "₹15", "₹20", "₹25", "₹30", "₹40" };
+    private static final String[] DISCOUNTS = { "20% OFF", "30% OFF", "40% OFF", "50% OFF", "Buy 1 Get 1" };
+
+    // Relative order volume by hour of day: lunch and dinner peaks, a quiet night
+    private static final double[] HOUR_WEIGHTS = { 2, 1, 1, 0.5, 0.5, 0.5, 1, 3, 5, 6, 6, 8,
+            18, 20, 12, 6, 5, 7, 12, 20, 22, 16, 8, 4 };
+    private static final double WEEKEND_BOOST = 1.3;
+    // Order volume at the end of the period relative to its start
+    private static final double GROWTH = 2.0;
+
+    // Distinct dishes per order, from one to five: mostly one or two
+    private static final double[] ITEM_COUNT_WEIGHTS = { 0.4, 0.3, 0.15, 0.1, 0.05 };
+
+    private static final double CANCELLED_SHARE = 0.06;
+    private static final double COORDINATE_SPREAD = 0.08;
+
+    public record PhaseStats(String name, long rows, long nanos) {
+
+        public double rowsPerSecond() {
+            return nanos == 0 ? 0 : rows * 1e9 / nanos;
+        }
+    }
+
+    // First id given to each table and what every phase inserted.
+    public record Report(Map<String, Long> firstIds, List<PhaseStats> phases, long nanos) {
+
+        public long rows() {
+            return phases.stream().mapToLong(PhaseStats::rows).sum();
+        }
+
+        public double rowsPerSecond() {
+            return nanos == 0 ? 0 : rows() * 1e9 / nanos;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(Connection connection, int chunk, SplittableRandom random) throws SQLException;
+    }
+
+    private final DataSource dataSource;
+    private final IdRangeReserver idRangeReserver;
+    private final PasswordEncoder passwordEncoder;
+
+    public DatasetGenerator(DataSource dataSource, IdRangeReserver idRangeReserver, PasswordEncoder passwordEncoder) {
+        this.dataSource = dataSource;
+        this.idRangeReserver = idRangeReserver;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public Report generate(DatasetSpec spec) {
+        long started = System.nanoTime();
+        Plan plan = new Plan(spec);
+        logger.info("Generating {} users ({} riders), {} restaurants, {} menu items, {} orders ({} lines) with seed {}",
+                spec.users(), spec.riders(), spec.restaurants(), plan.menuItems(), spec.orders(), plan.orderItems(),
+                spec.seed());
+
+        Map<String, Long> firstIds = new LinkedHashMap<>();
+        long userBase = reserve(firstIds, "users", spec.users());
+        long riderInfoBase = reserve(firstIds, "delivery_info", spec.riders());
+        long restaurantBase = reserve(firstIds, "restaurants", spec.restaurants());
+        long menuItemBase = reserve(firstIds, "menu_items", plan.menuItems());
+        long orderBase = reserve(firstIds, "orders", spec.orders());
+        long orderItemBase = reserve(firstIds, "order_items", plan.orderItems());
+        Ids ids = new Ids(userBase, riderInfoBase, restaurantBase, menuItemBase, orderBase, orderItemBase);
+
+        // Every generated user signs in with the same password, so it is hashed once
+        String passwordHash = passwordEncoder.encode(spec.password());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(spec.threads(), runnable -> {
+            Thread thread = new Thread(runnable, "datagen-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<PhaseStats> phases = new ArrayList<>();
+            phases.add(runPhase(pool, "users + delivery_info", USER_STREAM, spec,
+                    chunks(spec.users(), CHUNK_ROWS), spec.users() + (long) spec.riders(),
+                    (connection, chunk, random) -> writeUsers(connection, chunk, random, spec, plan, ids, passwordHash)));
+            phases.add(runPhase(pool, "restaurants", RESTAURANT_STREAM, spec,
+                    chunks(spec.restaurants(), CHUNK_ROWS), spec.restaurants(),
+                    (connection, chunk, random) -> writeRestaurants(connection, chunk, random, spec, plan, ids)));
+            phases.add(runPhase(pool, "menu_items", MENU_STREAM, spec,
+                    chunks(spec.restaurants(), plan.menuChunkRestaurants), plan.menuItems(),
+                    (connection, chunk, random) -> writeMenuItems(connection, chunk, random, spec, plan, ids)));
+            phases.add(runPhase(pool, "orders + order_items", ORDER_STREAM, spec,
+                    chunks(spec.orders(), CHUNK_ROWS), spec.orders() + plan.orderItems(),
+                    (connection, chunk, random) -> writeOrders(connection, chunk, random, spec, plan, ids)));
+
+            Report report = new Report(firstIds, phases, System.nanoTime() - started);
+            for (PhaseStats phase : phases) {
+                logger.info("{}: {} rows in {} ms ({} rows/s)", phase.name(), phase.rows(),
+                        phase.nanos() / 1_000_000, Math.round(phase.rowsPerSecond()));
+            }
+            logger.info("Dataset generated: {} rows in {} ms ({} rows/s)", report.rows(), report.nanos() / 1_000_000,
+                    Math.round(report.rowsPerSecond()));
+            return report;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long reserve(Map<String, Long> firstIds, String table, long count) {
+        long first = count == 0 ? 0 : idRangeReserver.reserve(table, count);
+        firstIds.put(table, first);
+        return first;
+    }
+
+    private static int chunks(int rows, int chunkRows) {
+        return (rows + chunkRows - 1) / chunkRows;
+    }
+
+    private PhaseStats runPhase(ExecutorService pool, String name, int stream, DatasetSpec spec, int chunks,
+                                long rows, ChunkWriter writer) {
+        long started = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int current = chunk;
+            futures.add(pool.submit(() -> {
+                try (Connection connection = dataSource.getConnection()) {
+                    connection.setAutoCommit(false);
+                    try {
+                        writer.write(connection, current, random(spec.seed(), stream, current));
+                        connection.commit();
+                    } catch (SQLException | RuntimeException e) {
+                        connection.rollback();
+                        throw e;
+                    }
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Error: Generating " + name + " failed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Error: Dataset generation interrupted.", e);
+        }
+        return new PhaseStats(name, rows, System.nanoTime() - started);
+    }
+
+    // Users [0, restaurants) own the restaurant with the same index, the next riders() are
+    // riders, and the rest are customers.
+    private static void writeUsers(Connection connection, int chunk, SplittableRandom random, DatasetSpec spec,
+                                   Plan plan, Ids ids, String passwordHash) throws SQLException {
+        int from = chunk * CHUNK_ROWS;
+        int to = Math.min(spec.users(), from + CHUNK_ROWS);
+        int firstRider = spec.restaurants();
+        int firstCustomer = firstRider + spec.riders();
+        try (Batch users = new Batch(connection, USER_INSERT, spec.batchSize());
+             Batch riders = new Batch(connection, DELIVERY_INFO_INSERT, spec.batchSize())) {
+            for (int i = from; i < to; i++) {
+                long id = ids.user(i);
+                ERole role = i < firstRider ? ERole.ROLE_RESTAURANT
+                        : i < firstCustomer ? ERole.ROLE_DELIVERY : ERole.ROLE_CUSTOMER;
+                City city = i < firstRider ? CITIES[plan.restaurantCities[i]] : CITIES[pickCity(random)];
+
+                PreparedStatement user = users.statement;
+                user.setLong(1, id);
+                user.setString(2, pick(FIRST_NAMES, random) + " " + pick(LAST_NAMES, random));
+                user.setString(3, "user" + id + "@datagen.quickbite.test");
+                user.setString(4, passwordHash);
+                user.setString(5, role.name());
+                user.setString(6, Long.toString(9_000_000_000L + random.nextLong(1_000_000_000L)));
+                user.setString(7, streetAddress(random, city));
+                user.setDouble(8, scatter(city.latitude(), random));
+                user.setDouble(9, scatter(city.longitude(), random));
+                users.add();
+
+                if (role == ERole.ROLE_DELIVERY) {
+                    PreparedStatement rider = riders.statement;
+                    rider.setLong(1, ids.riderInfo + (i - firstRider));
+                    rider.setLong(2, id);
+                    rider.setString(3, VEHICLES[pickWeighted(VEHICLE_WEIGHTS, random)]);
+                    rider.setString(4, pick(VEHICLE_MODELS, random));
+                    rider.setString(5, "DL" + (1_000_000_000L + random.nextLong(9_000_000_000L)));
+                    rider.setString(6, city.plateCode() + (char) ('A' + random.nextInt(26))
+                            + (char) ('A' + random.nextInt(26)) + (1000 + random.nextInt(9000)));
+                    rider.setString(7, city.name());
+                    riders.add();
+                }
+                // delivery_info rows reference their user, so both batches go out together
+                if (users.full()) {
+                    users.flush();
+                    riders.flush();
+                }
+            }
+            users.flush();
+            riders.flush();
+        }
+    }
+
+    private static void writeRestaurants(Connection connection, int chunk, SplittableRandom random,
+                                         DatasetSpec spec, Plan plan, Ids ids) throws SQLException {
+        int from = chunk * CHUNK_ROWS;
+        int to = Math.min(spec.restaurants(), from + CHUNK_ROWS);
+        try (Batch restaurants = new Batch(connection, RESTAURANT_INSERT, spec.batchSize())) {
+            PreparedStatement statement = restaurants.statement;
+            for (int r = from; r < to; r++) {
+                City city = CITIES[plan.restaurantCities[r]];
+                Cuisine cuisine = CUISINES[plan.restaurantCuisines[r]];
+                String category = cuisine.category();
+                statement.setLong(1, ids.restaurant + r);
+                statement.setString(2, pick(NAME_PREFIXES, random) + " " + category.split(",")[0] + " "
+                        + pick(NAME_SUFFIXES, random));
+                // Ratings bunch up between 4 and 5, as they do on real listings
+                statement.setDouble(3, Math.round((3.2 + 1.8 * Math.sqrt(random.nextDouble())) * 10) / 10.0);
+                statement.setInt(4, plan.deliveryMinutes[r]);
+                statement.setString(5, category);
+                statement.setString(6, pick(DELIVERY_FEES, random));
+                if (random.nextDouble() < 0.4) {
+                    statement.setString(7, pick(DISCOUNTS, random));
+                } else {
+                    statement.setNull(7, Types.VARCHAR);
+                }
+                statement.setString(8, category + " favourites, delivered across " + city.name() + ".");
+                statement.setString(9, streetAddress(random, city));
+                statement.setDouble(10, scatter(city.latitude(), random));
+                statement.setDouble(11, scatter(city.longitude(), random));
+                statement.setString(12, city.name());
+                statement.setLong(13, ids.user(r));
+                restaurants.add();
+                if (restaurants.full()) {
+                    restaurants.flush();
+                }
+            }
+            restaurants.flush();
+        }
+    }
+
+    private static void writeMenuItems(Connection connection, int chunk, SplittableRandom random,
+                                       DatasetSpec spec, Plan plan, Ids ids) throws SQLException {
+        int from = chunk * plan.menuChunkRestaurants;
+        int to = Math.min(spec.restaurants(), from + plan.menuChunkRestaurants);
+        try (Batch items = new Batch(connection, MENU_ITEM_INSERT, spec.batchSize())) {
+            PreparedStatement statement = items.statement;
+            for (int r = from; r < to; r++) {
+                for (int item = plan.menuOffsets[r]; item < plan.menuOffsets[r + 1]; item++) {
+                    Dish dish = plan.dish(r, item - plan.menuOffsets[r]);
+                    String name = plan.dishName(r, item - plan.menuOffsets[r]);
+                    statement.setLong(1, ids.menuItem + item);
+                    statement.setString(2, name);
+                    statement.setDouble(3, plan.prices[item]);
+                    statement.setString(4, "Freshly made " + name.toLowerCase() + ".");
+                    statement.setBoolean(5, dish.vegetarian());
+                    statement.setLong(6, ids.restaurant + r);
+                    items.add();
+                    if (items.full()) {
+                        items.flush();
+                    }
+                }
+            }
+            items.flush();
+        }
+    }
+
+    private static void writeOrders(Connection connection, int chunk, SplittableRandom random, DatasetSpec spec,
+                                    Plan plan, Ids ids) throws SQLException {
+        int from = chunk * CHUNK_ROWS;
+        int to = Math.min(spec.orders(), from + CHUNK_ROWS);
+        long orderItem = ids.orderItem + plan.orderItemOffsets[chunk];
+        LocalDateTime periodStart = plan.start.atStartOfDay();
+        try (Batch orders = new Batch(connection, ORDER_INSERT, spec.batchSize());
+             Batch items = new Batch(connection, ORDER_ITEM_INSERT, spec.batchSize())) {
+            PreparedStatement order = orders.statement;
+            PreparedStatement line = items.statement;
+            for (int k = from; k < to; k++) {
+                long orderId = ids.order + k;
+                int r = plan.restaurants.sample(random);
+                long customer = ids.user(spec.restaurants() + spec.riders() + plan.customers.sample(random));
+                int menuStart = plan.menuOffsets[r];
+                int menuSize = plan.menuOffsets[r + 1] - menuStart;
+
+                double total = 0;
+                for (int n = 0; n < plan.itemCounts[k]; n++) {
+                    // The first dishes on a menu sell the most
+                    double u = random.nextDouble();
+                    int item = menuStart + (int) (menuSize * u * u);
+                    double q = random.nextDouble();
+                    int quantity = q < 0.75 ? 1 : q < 0.95 ? 2 : 3;
+                    double price = plan.prices[item];
+                    total += price * quantity;
+                    line.setLong(1, orderItem++);
+                    line.setLong(2, orderId);
+                    line.setLong(3, ids.menuItem + item);
+                    line.setInt(4, quantity);
+                    line.setDouble(5, price);
+                    items.add();
+                }
+
+                LocalDateTime createdAt = periodStart.plusSeconds(plan.orderSecond(k, random));
+                boolean cancelled = random.nextDouble() < CANCELLED_SHARE;
+                order.setLong(1, orderId);
+                order.setLong(2, customer);
+                order.setLong(3, ids.restaurant + r);
+                if (cancelled || spec.riders() == 0) {
+                    order.setNull(4, Types.BIGINT);
+                    order.setNull(5, Types.TIMESTAMP);
+                } else {
+                    order.setLong(4, ids.user(spec.restaurants() + random.nextInt(spec.riders())));
+                    order.setTimestamp(5, Timestamp.valueOf(createdAt.plusSeconds(120 + random.nextInt(480))));
+                }
+                order.setDouble(6, Math.round(total * 100) / 100.0);
+                order.setString(7, (cancelled ? EOrderStatus.CANCELLED : EOrderStatus.DELIVERED).name());
+                order.setTimestamp(8, Timestamp.valueOf(createdAt));
+                order.setTimestamp(9, Timestamp.valueOf(createdAt.plusMinutes(plan.deliveryMinutes[r])));
+                order.setString(10, streetAddress(random, CITIES[plan.restaurantCities[r]]));
+                orders.add();
+
+                // Lines reference their order, so both batches go out together
+                if (orders.full()) {
+                    orders.flush();
+                    items.flush();
+                }
+            }
+            orders.flush();
+            items.flush();
+        }
+    }
+
+    // Distinct, well-mixed seeds per (table, chunk) from one run seed (SplitMix64 finalizer).
+    static SplittableRandom random(long seed, int stream, long chunk) {
+        long z = seed + 0x9E3779B97F4A7C15L * (stream * 0x100000000L + chunk + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+
+    private static int pickCity(SplittableRandom random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < CITIES.length - 1; i++) {
+            u -= CITIES[i].weight();
+            if (u < 0) {
+                return i;
+            }
+        }
+        return CITIES.length - 1;
+    }
+
+    private static int pickWeighted(double[] weights, SplittableRandom random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            u -= weights[i];
+            if (u < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static int pickCuisine(SplittableRandom random) {
+        double u = random.nextDouble();
+        for (int i = 0; i < CUISINES.length - 1; i++) {
+            u -= CUISINES[i].weight();
+            if (u < 0) {
+                return i;
+            }
+        }
+        return CUISINES.length - 1;
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String streetAddress(SplittableRandom random, City city) {
+        return (1 + random.nextInt(400)) + " " + pick(STREETS, random) + ", " + city.name();
+    }
+
+    private static double scatter(double degrees, SplittableRandom random) {
+        return Math.round((degrees + random.nextGaussian() * COORDINATE_SPREAD) * 1e6) / 1e6;
+    }
+
+    private record Ids(long user, long riderInfo, long restaurant, long menuItem, long order, long orderItem) {
+
+        long user(int index) {
+            return user + index;
+        }
+    }
+
+    // Everything more than one phase needs, drawn from a single stream in a fixed order.
+    private static final class Plan {
+        final byte[] restaurantCities;
+        final byte[] restaurantCuisines;
+        final short[] deliveryMinutes;
+        // Restaurant r's menu items are [menuOffsets[r], menuOffsets[r + 1])
+        final int[] menuOffsets;
+        final double[] prices;
+        final int menuChunkRestaurants;
+        final byte[] itemCounts;
+        // First order line of each order chunk, relative to the reserved range
+        final long[] orderItemOffsets;
+        final ZipfSampler restaurants;
+        final ZipfSampler customers;
+        final LocalDate start;
+        final double[] dayCdf;
+        final double[] hourCdf;
+        final long seed;
+
+        Plan(DatasetSpec spec) {
+            if (spec.orders() > 0 && spec.customers() < 1) {
+                throw new IllegalArgumentException("Error: Orders need at least one customer.");
+            }
+            seed = spec.seed();
+            SplittableRandom random = random(spec.seed(), PLAN_STREAM, 0);
+            int restaurantCount = spec.restaurants();
+
+            restaurantCities = new byte[restaurantCount];
+            restaurantCuisines = new byte[restaurantCount];
+            deliveryMinutes = new short[restaurantCount];
+            menuOffsets = new int[restaurantCount + 1];
+            long items = 0;
+            for (int r = 0; r < restaurantCount; r++) {
+                restaurantCities[r] = (byte) pickCity(random);
+                restaurantCuisines[r] = (byte) pickCuisine(random);
+                deliveryMinutes[r] = (short) (15 + 5 * random.nextInt(10));
+                // Log-normal menu sizes with the configured mean
+                double size = spec.menuItemsPerRestaurant() * Math.exp(0.5 * random.nextGaussian() - 0.125);
+                items += Math.max(3, Math.round(size));
+                if (items > Integer.MAX_VALUE - 8) {
+                    throw new IllegalArgumentException("Error: Too many menu items.");
+                }
+                menuOffsets[r + 1] = (int) items;
+            }
+            prices = new double[(int) items];
+            for (int r = 0; r < restaurantCount; r++) {
+                for (int item = menuOffsets[r]; item < menuOffsets[r + 1]; item++) {
+                    int index = item - menuOffsets[r];
+                    double price = dish(r, index).price() * VARIANT_PRICES[(index / dishes(r).length) % VARIANTS.length]
+                            * (0.8 + 0.5 * random.nextDouble());
+                    prices[item] = Math.max(10, Math.round(price / 5) * 5);
+                }
+            }
+            menuChunkRestaurants = Math.max(1, CHUNK_ROWS / spec.menuItemsPerRestaurant());
+
+            itemCounts = new byte[spec.orders()];
+            orderItemOffsets = new long[chunks(spec.orders(), CHUNK_ROWS) + 1];
+            long lines = 0;
+            for (int k = 0; k < itemCounts.length; k++) {
+                if (k % CHUNK_ROWS == 0) {
+                    orderItemOffsets[k / CHUNK_ROWS] = lines;
+                }
+                itemCounts[k] = (byte) (1 + pickWeighted(ITEM_COUNT_WEIGHTS, random));
+                lines += itemCounts[k];
+            }
+            orderItemOffsets[orderItemOffsets.length - 1] = lines;
+
+            this.restaurants = new ZipfSampler(restaurantCount, 1.0);
+            this.customers = spec.orders() > 0 ? new ZipfSampler(spec.customers(), 0.8) : null;
+
+            start = spec.endDate().minusMonths(spec.orderMonths());
+            int days = (int) ChronoUnit.DAYS.between(start, spec.endDate());
+            dayCdf = new double[days];
+            double sum = 0;
+            for (int d = 0; d < days; d++) {
+                DayOfWeek day = start.plusDays(d).getDayOfWeek();
+                double weekend = day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY ? WEEKEND_BOOST : 1;
+                sum += (1 + (GROWTH - 1) * d / days) * weekend;
+                dayCdf[d] = sum;
+            }
+            hourCdf = new double[HOUR_WEIGHTS.length];
+            double hours = 0;
+            for (int h = 0; h < HOUR_WEIGHTS.length; h++) {
+                hours += HOUR_WEIGHTS[h];
+                hourCdf[h] = hours;
+            }
+        }
+
+        int menuItems() {
+            return menuOffsets[menuOffsets.length - 1];
+        }
+
+        long orderItems() {
+            return orderItemOffsets[orderItemOffsets.length - 1];
+        }
+
+        Dish[] dishes(int restaurant) {
+            return CUISINES[restaurantCuisines[restaurant]].dishes();
+        }
+
+        // Each menu starts at its own dish and walks its cuisine's list, then the variants
+        Dish dish(int restaurant, int index) {
+            Dish[] dishes = dishes(restaurant);
+            return dishes[(dishStart(restaurant, dishes.length) + index) % dishes.length];
+        }
+
+        String dishName(int restaurant, int index) {
+            int count = dishes(restaurant).length;
+            int round = index / count;
+            String name = dish(restaurant, index).name() + VARIANTS[round % VARIANTS.length];
+            return round < VARIANTS.length ? name : name + " " + (round / VARIANTS.length + 1);
+        }
+
+        private int dishStart(int restaurant, int count) {
+            return random(seed, DISH_STREAM, restaurant).nextInt(count);
+        }
+
+        // Order k's day comes from its position in the run, so ids follow time; the time of
+        // day is drawn from the hourly profile.
+        long orderSecond(int k, SplittableRandom random) {
+            double position = (k + 0.5) / itemCounts.length * dayCdf[dayCdf.length - 1];
+            int day = lowerBound(dayCdf, position);
+            int hour = lowerBound(hourCdf, random.nextDouble() * hourCdf[hourCdf.length - 1]);
+            return day * 86_400L + hour * 3_600L + random.nextInt(3_600);
+        }
+
+        private static int lowerBound(double[] cdf, double value) {
+            int low = 0;
+            int high = cdf.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cdf[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    // A prepared statement collecting rows for one executeBatch; callers flush once it is full().
+    private static final class Batch implements AutoCloseable {
+        final PreparedStatement statement;
+        private final int batchSize;
+        private int pending;
+
+        Batch(Connection connection, String sql, int batchSize) throws SQLException {
+            this.statement = connection.prepareStatement(sql);
+            this.batchSize = batchSize;
+        }
+
+        void add() throws SQLException {
+            statement.addBatch();
+            pending++;
+        }
+
+        boolean full() {
+            return pending >= batchSize;
+        }
+
+        void flush() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            statement.close();
+        }
+    }
+}
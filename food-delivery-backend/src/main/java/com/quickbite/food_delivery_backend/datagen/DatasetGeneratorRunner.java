@@ -0,0 +1,78 @@
+package com.quickbite.food_delivery_backend.datagen;
+
+import com.quickbite.food_delivery_backend.config.IdRangeReserver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+// Generates the synthetic dataset when the "datagen" profile is active and exits instead of
+// serving requests, e.g.
+//   java -jar food-delivery-backend.jar --spring.profiles.active=datagen --app.datagenUsers=200000
+// Sizes, seed and parallelism come from the app.datagen* properties.
+@Component
+@Profile("datagen")
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private IdRangeReserver idRangeReserver;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${app.datagenUsers}")
+    private int users;
+
+    @Value("${app.datagenRestaurants}")
+    private int restaurants;
+
+    @Value("${app.datagenMenuItemsPerRestaurant}")
+    private int menuItemsPerRestaurant;
+
+    @Value("${app.datagenOrders}")
+    private int orders;
+
+    @Value("${app.datagenOrderMonths}")
+    private int orderMonths;
+
+    @Value("${app.datagenEndDate}")
+    private String endDate;
+
+    @Value("${app.datagenRiderShare}")
+    private double riderShare;
+
+    @Value("${app.datagenPassword}")
+    private String password;
+
+    @Value("${app.datagenSeed}")
+    private long seed;
+
+    @Value("${app.datagenThreads}")
+    private int threads;
+
+    @Value("${app.datagenBatchSize}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        DatasetSpec spec = new DatasetSpec(users, restaurants, menuItemsPerRestaurant, orders, orderMonths,
+                LocalDate.parse(endDate), riderShare, password, seed,
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), batchSize);
+        new DatasetGenerator(dataSource, idRangeReserver, passwordEncoder).generate(spec);
+        System.exit(SpringApplication.exit(applicationContext, () -> 0));
+    }
+}
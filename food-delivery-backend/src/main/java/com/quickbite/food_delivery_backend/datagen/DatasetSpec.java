@@ -0,0 +1,31 @@
+package com.quickbite.food_delivery_backend.datagen;
+
+import java.time.LocalDate;
+
+// What to generate. Users include one owner per restaurant and riderShare of the rest as
+// riders; menu sizes vary around menuItemsPerRestaurant; orders spread over the orderMonths
+// before endDate. The same spec (seed and endDate included) always produces the same rows.
+public record DatasetSpec(int users, int restaurants, int menuItemsPerRestaurant, int orders, int orderMonths,
+                          LocalDate endDate, double riderShare, String password, long seed,
+                          int threads, int batchSize) {
+
+    public DatasetSpec {
+        if (restaurants < 1 || users <= restaurants) {
+            throw new IllegalArgumentException("Error: Need at least one restaurant and more users than restaurants.");
+        }
+        if (menuItemsPerRestaurant < 1 || orders < 0 || orderMonths < 1 || threads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Error: Invalid dataset size settings.");
+        }
+        if (riderShare < 0 || riderShare >= 1) {
+            throw new IllegalArgumentException("Error: Rider share must be in [0, 1).");
+        }
+    }
+
+    int riders() {
+        return (int) Math.round((users - restaurants) * riderShare);
+    }
+
+    int customers() {
+        return users - restaurants - riders();
+    }
+}
@@ -0,0 +1,44 @@
+package com.quickbite.food_delivery_backend.datagen;
+
+import java.util.SplittableRandom;
+
+// Draws indexes 0..n-1 where the rank-k entity is picked with weight 1/(k+1)^exponent, by binary
+// search over the cumulative weights. Ranks map to indexes through a fixed stride coprime with
+// n, so the popular entities are spread over the id range instead of being the lowest ids.
+final class ZipfSampler {
+
+    private static final long STRIDE = 1_000_003L;
+    private static final long FALLBACK_STRIDE = 999_983L;
+
+    private final double[] cdf;
+    private final long stride;
+
+    ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Error: Zipf sampler needs at least one entity.");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += Math.pow(k + 1, -exponent);
+            cdf[k] = sum;
+        }
+        // Both strides are prime, so either is coprime with n unless n is a multiple of it
+        stride = n % STRIDE != 0 ? STRIDE : FALLBACK_STRIDE;
+    }
+
+    int sample(SplittableRandom random) {
+        double target = random.nextDouble() * cdf[cdf.length - 1];
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] <= target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (int) (low * stride % cdf.length);
+    }
+}
@@ -0,0 +1,41 @@
+package com.quickbite.food_delivery_backend.dispatch;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Persists a batch of assignments as one JDBC batch in one transaction. Each row only updates
+// an order that has no rider and is still CONFIRMED or PREPARING, so an order can never end up
+// with two riders, whichever instance or thread gets there first.
+@Component
+public class AssignmentWriter {
+
+    private static final String ASSIGN = "update orders set rider_id = ?, assigned_at = ?, version = version + 1 "
+            + "where id = ? and rider_id is null and status in ('CONFIRMED', 'PREPARING')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Returns, per entry in orderIds, whether that order was assigned to the paired rider.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean[] assign(List<Long> orderIds, List<Long> riderIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(orderIds.size());
+        for (int i = 0; i < orderIds.size(); i++) {
+            rows.add(new Object[] { riderIds.get(i), now, orderIds.get(i) });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(ASSIGN, rows);
+        boolean[] assigned = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            assigned[i] = counts[i] == 1;
+        }
+        return assigned;
+    }
+}
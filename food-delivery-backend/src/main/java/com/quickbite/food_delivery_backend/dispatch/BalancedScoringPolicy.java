@@ -0,0 +1,44 @@
+package com.quickbite.food_delivery_backend.dispatch;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+// Prefers riders with fewer orders in hand, then riders who have been waiting longest, with a
+// nudge towards cars for large orders and two-wheelers for small ones.
+@Component
+public class BalancedScoringPolicy implements DispatchScoringPolicy {
+
+    private static final double MAX_IDLE_MILLIS = 30 * 60 * 1000;
+
+    @Value("${app.dispatchLoadWeight:1.0}")
+    private double loadWeight = 1.0;
+
+    @Value("${app.dispatchIdleWeight:0.5}")
+    private double idleWeight = 0.5;
+
+    @Value("${app.dispatchVehicleWeight:0.25}")
+    private double vehicleWeight = 0.25;
+
+    @Value("${app.dispatchLargeOrderAmount:1500}")
+    private double largeOrderAmount = 1500;
+
+    @Override
+    public double score(RiderState rider, DispatchRequest request, int riderCapacity, long nowMillis) {
+        double load = (double) rider.getActiveOrders() / riderCapacity;
+        double idle = rider.getActiveOrders() == 0
+                ? Math.min(nowMillis - rider.getIdleSinceMillis(), MAX_IDLE_MILLIS) / MAX_IDLE_MILLIS
+                : 0;
+        return idleWeight * idle - loadWeight * load + vehicleWeight * vehicleFit(rider.getVehicleType(), request);
+    }
+
+    private double vehicleFit(String vehicleType, DispatchRequest request) {
+        if (vehicleType == null) {
+            return 0;
+        }
+        String vehicle = vehicleType.toLowerCase(Locale.ROOT);
+        boolean car = vehicle.contains("car") || vehicle.contains("van");
+        return (request.totalAmount() >= largeOrderAmount) == car ? 1 : 0;
+    }
+}
@@ -0,0 +1,339 @@
+package com.quickbite.food_delivery_backend.dispatch;
+
+import com.quickbite.food_delivery_backend.catalog.CatalogService;
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+import com.quickbite.food_delivery_backend.events.OrderEvent;
+import com.quickbite.food_delivery_backend.events.OrderEventConsumer;
+import com.quickbite.food_delivery_backend.models.DeliveryInfo;
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+import com.quickbite.food_delivery_backend.repository.DeliveryInfoRepository;
+import com.quickbite.food_delivery_backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Assigns riders to orders as they reach CONFIRMED or PREPARING and frees them when an order
+// is DELIVERED or CANCELLED. Events arrive on the order event bus; all bookkeeping happens on
+// one dispatcher thread, which plans a batch in memory against the RiderPool and persists it
+// with one JDBC batch. Orders nobody can take wait until a rider frees up or comes online,
+// and a periodic sweep picks up anything the best-effort bus dropped or a restart lost.
+@Service
+public class DispatchEngine implements OrderEventConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchEngine.class);
+
+    static final Set<EOrderStatus> DISPATCHABLE = EnumSet.of(EOrderStatus.CONFIRMED, EOrderStatus.PREPARING);
+    private static final Set<EOrderStatus> ACTIVE = EnumSet.of(EOrderStatus.CONFIRMED, EOrderStatus.PREPARING,
+            EOrderStatus.OUT_FOR_DELIVERY);
+
+    @Autowired
+    private AssignmentWriter assignmentWriter;
+
+    @Autowired
+    private DispatchScoringPolicy scoringPolicy;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DeliveryInfoRepository deliveryInfoRepository;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.dispatchEnabled:true}")
+    private boolean enabled;
+
+    @Value("${app.dispatchRiderCapacity:2}")
+    private int riderCapacity;
+
+    @Value("${app.dispatchBatchSize:500}")
+    private int batchSize;
+
+    @Value("${app.dispatchSweepIntervalMs:30000}")
+    private long sweepIntervalMs;
+
+    private RiderPool riders;
+
+    // Handed over from the event bus and request threads
+    private final Queue<DispatchRequest> incoming = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> finished = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private volatile boolean retryWaiting;
+
+    // Dispatcher thread only
+    private final Set<Long> queued = new HashSet<>();
+    private final Map<Long, DispatchRequest> waiting = new LinkedHashMap<>();
+    private final Map<Long, Long> riderByOrder = new HashMap<>();
+    private volatile int queuedCount;
+
+    private ScheduledExecutorService dispatcher;
+    private Counter assignments;
+    private Counter conflicts;
+    private Counter failures;
+    private Timer latency;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void start() {
+        riders = new RiderPool(riderCapacity);
+        if (!enabled) {
+            return;
+        }
+        assignments = Counter.builder("dispatch.assignments").register(meterRegistry);
+        conflicts = Counter.builder("dispatch.conflicts").register(meterRegistry);
+        failures = Counter.builder("dispatch.failures").register(meterRegistry);
+        latency = Timer.builder("dispatch.latency").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        batchTimer = Timer.builder("dispatch.batch.duration").register(meterRegistry);
+        Gauge.builder("dispatch.waiting", this, engine -> engine.queuedCount).register(meterRegistry);
+        Gauge.builder("dispatch.riders.online", riders, RiderPool::onlineRiders).register(meterRegistry);
+
+        loadRiders();
+
+        dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::sweepQuietly, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    // Riders start offline, since whether they are on shift is not stored, with whatever load the
+    // database says they carry. Each is offered orders again once they go online.
+    private void loadRiders() {
+        Map<Long, Integer> load = new HashMap<>();
+        for (Object[] row : orderRepository.findRiderAssignments(ACTIVE)) {
+            riderByOrder.put((Long) row[0], (Long) row[1]);
+            load.merge((Long) row[1], 1, Integer::sum);
+        }
+        long now = System.currentTimeMillis();
+        for (Object[] row : deliveryInfoRepository.findRiderProfiles()) {
+            Long riderId = (Long) row[0];
+            riders.register(riderId, (String) row[1], (String) row[2], load.getOrDefault(riderId, 0), false, now);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "dispatch";
+    }
+
+    @Override
+    public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+        if (!enabled) {
+            return;
+        }
+        EOrderStatus status = event.getStatus();
+        if (event.getType() == OrderEvent.Type.STATUS_CHANGED) {
+            if (DISPATCHABLE.contains(status)) {
+                incoming.add(request(event.getOrderId(), event.getRestaurantId(), event.getTotalAmount()));
+            } else if (status == EOrderStatus.DELIVERED || status == EOrderStatus.CANCELLED) {
+                finished.add(event.getOrderId());
+            }
+        }
+        if (endOfBatch) {
+            scheduleDrain();
+        }
+    }
+
+    // Returns false when the user is not a registered rider.
+    public boolean setRiderOnline(Long riderId, boolean online) {
+        long now = System.currentTimeMillis();
+        if (!riders.contains(riderId)) {
+            Optional<DeliveryInfo> profile = deliveryInfoRepository.findByUserId(riderId);
+            if (profile.isEmpty()) {
+                return false;
+            }
+            // Signed up after startup, so carries no orders yet
+            riders.register(riderId, profile.get().getDeliveryZone(), profile.get().getVehicleType(), 0, online, now);
+        } else {
+            riders.setOnline(riderId, online, now);
+        }
+        if (online) {
+            retryWaiting = true;
+            scheduleDrain();
+        }
+        return true;
+    }
+
+    // Queues every unassigned order the database knows about. Runs periodically; public so
+    // operators and tests can force one.
+    public void sweep() {
+        if (enabled) {
+            dispatcher.execute(this::sweepQuietly);
+        }
+    }
+
+    public int waitingOrders() {
+        return queuedCount;
+    }
+
+    public int onlineRiders() {
+        return riders.onlineRiders();
+    }
+
+    RiderPool riders() {
+        return riders;
+    }
+
+    private void scheduleDrain() {
+        if (dispatcher != null && drainScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    private void sweepQuietly() {
+        try {
+            sweepOnDispatcher();
+        } catch (RuntimeException e) {
+            logger.error("Dispatch sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private void sweepOnDispatcher() {
+        List<Object[]> unassigned = orderRepository.findUnassigned(DISPATCHABLE, PageRequest.of(0, batchSize * 10));
+        for (Object[] row : unassigned) {
+            Long orderId = (Long) row[0];
+            if (!queued.contains(orderId)) {
+                incoming.add(request(orderId, (Long) row[1], row[2] != null ? (Double) row[2] : 0));
+            }
+        }
+        retryWaiting = true;
+        drain();
+    }
+
+    private DispatchRequest request(long orderId, long restaurantId, double totalAmount) {
+        String zone = catalogService.snapshot().restaurant(restaurantId)
+                .map(RestaurantView::deliveryZone)
+                .filter(value -> !value.isBlank())
+                .orElse(null);
+        return new DispatchRequest(orderId, restaurantId, zone, totalAmount, System.nanoTime());
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        try {
+            Long orderId;
+            while ((orderId = finished.poll()) != null) {
+                if (waiting.remove(orderId) != null) {
+                    queued.remove(orderId);
+                }
+                Long riderId = riderByOrder.remove(orderId);
+                if (riderId != null) {
+                    riders.release(riderId, System.currentTimeMillis());
+                    retryWaiting = true;
+                }
+            }
+
+            List<DispatchRequest> batch = new ArrayList<>();
+            if (retryWaiting) {
+                retryWaiting = false;
+                batch.addAll(waiting.values());
+                waiting.clear();
+            }
+            DispatchRequest request;
+            while ((request = incoming.poll()) != null) {
+                if (!riderByOrder.containsKey(request.orderId()) && queued.add(request.orderId())) {
+                    batch.add(request);
+                }
+                if (batch.size() >= batchSize) {
+                    dispatch(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            if (!batch.isEmpty()) {
+                dispatch(batch);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Dispatch failed: {}", e.getMessage());
+        } finally {
+            queuedCount = queued.size();
+        }
+    }
+
+    private void dispatch(List<DispatchRequest> batch) {
+        long now = System.currentTimeMillis();
+        List<DispatchRequest> planned = new ArrayList<>(batch.size());
+        List<Long> orderIds = new ArrayList<>(batch.size());
+        List<Long> riderIds = new ArrayList<>(batch.size());
+        for (DispatchRequest request : batch) {
+            RiderState rider = riders.reserve(request, scoringPolicy, now);
+            if (rider == null) {
+                waiting.put(request.orderId(), request);
+            } else {
+                planned.add(request);
+                orderIds.add(request.orderId());
+                riderIds.add(rider.getRiderId());
+            }
+        }
+        if (planned.isEmpty()) {
+            return;
+        }
+
+        boolean[] assigned;
+        long started = System.nanoTime();
+        try {
+            assigned = assignmentWriter.assign(orderIds, riderIds);
+        } catch (RuntimeException e) {
+            // Nothing was written; hand the slots back and try these orders again later
+            failures.increment();
+            for (int i = 0; i < planned.size(); i++) {
+                riders.release(riderIds.get(i), now);
+                waiting.put(orderIds.get(i), planned.get(i));
+            }
+            throw e;
+        } finally {
+            batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+
+        long finishedAt = System.nanoTime();
+        for (int i = 0; i < planned.size(); i++) {
+            Long orderId = orderIds.get(i);
+            queued.remove(orderId);
+            if (assigned[i]) {
+                riderByOrder.put(orderId, riderIds.get(i));
+                assignments.increment();
+                latency.record(finishedAt - planned.get(i).enqueuedNanos(), TimeUnit.NANOSECONDS);
+            } else {
+                // Already assigned elsewhere, or no longer waiting for a rider
+                riders.release(riderIds.get(i), now);
+                conflicts.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.quickbite.food_delivery_backend.dispatch;
+
+// An order waiting for a rider. zone is the restaurant's delivery zone, or null for any zone.
+public record DispatchRequest(long orderId, long restaurantId, String zone, double totalAmount, long enqueuedNanos) {
+}
@@ -0,0 +1,9 @@
+package com.quickbite.food_delivery_backend.dispatch;
+
+// Ranks riders for an order; the highest score wins. Only online riders with spare capacity
+// are offered. Declare another bean as @Primary to replace the default BalancedScoringPolicy.
+public interface DispatchScoringPolicy {
+
+    // Return Double.NEGATIVE_INFINITY to rule the rider out for this order.
+    double score(RiderState rider, DispatchRequest request, int riderCapacity, long nowMillis);
+}
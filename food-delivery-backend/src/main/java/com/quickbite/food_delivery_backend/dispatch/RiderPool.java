@@ -0,0 +1,190 @@
+package com.quickbite.food_delivery_backend.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-memory index of riders by delivery zone. Choosing a rider and taking one of their slots
+// happen under the zone's lock, so two dispatchers can never hand the same slot out twice, and
+// dispatching in different zones never contends. Plain class so the simulation harness can
+// drive it without Spring or a database.
+public final class RiderPool {
+
+    private static final int MAX_ANY_ZONE_ATTEMPTS = 3;
+
+    private final int capacity;
+    private final Map<Long, RiderState> riders = new ConcurrentHashMap<>();
+    private final Map<String, Zone> zones = new ConcurrentHashMap<>();
+
+    public RiderPool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Adds a rider, or updates the load of one already known. activeOrders is what the
+    // database says the rider currently holds.
+    public void register(long riderId, String zone, String vehicleType, int activeOrders, boolean online, long nowMillis) {
+        Zone home = zone(zone);
+        home.lock.lock();
+        try {
+            RiderState rider = riders.get(riderId);
+            if (rider == null) {
+                rider = new RiderState(riderId, key(zone), vehicleType);
+                rider.idleSinceMillis = nowMillis;
+                riders.put(riderId, rider);
+                home.riders.add(rider);
+            }
+            rider.activeOrders = activeOrders;
+            rider.online = online;
+        } finally {
+            home.lock.unlock();
+        }
+    }
+
+    public boolean contains(long riderId) {
+        return riders.containsKey(riderId);
+    }
+
+    // Returns false for an unknown rider.
+    public boolean setOnline(long riderId, boolean online, long nowMillis) {
+        RiderState rider = riders.get(riderId);
+        if (rider == null) {
+            return false;
+        }
+        Zone home = zones.get(rider.getZone());
+        home.lock.lock();
+        try {
+            if (online && !rider.online && rider.activeOrders == 0) {
+                rider.idleSinceMillis = nowMillis;
+            }
+            rider.online = online;
+        } finally {
+            home.lock.unlock();
+        }
+        return true;
+    }
+
+    // Picks the best rider for the request and takes one of their slots, or returns null when
+    // nobody suitable is free. Requests without a zone may go to any zone.
+    public RiderState reserve(DispatchRequest request, DispatchScoringPolicy policy, long nowMillis) {
+        if (request.zone() != null) {
+            Zone zone = zones.get(key(request.zone()));
+            return zone != null ? reserveIn(zone, request, policy, nowMillis) : null;
+        }
+
+        for (int attempt = 0; attempt < MAX_ANY_ZONE_ATTEMPTS; attempt++) {
+            Zone bestZone = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (Zone zone : zones.values()) {
+                zone.lock.lock();
+                try {
+                    RiderState candidate = best(zone, request, policy, nowMillis);
+                    if (candidate != null) {
+                        double score = policy.score(candidate, request, capacity, nowMillis);
+                        if (bestZone == null || score > bestScore) {
+                            bestZone = zone;
+                            bestScore = score;
+                        }
+                    }
+                } finally {
+                    zone.lock.unlock();
+                }
+            }
+            if (bestZone == null) {
+                return null;
+            }
+            // The zone may have changed since it was scanned; reserving re-checks under its lock
+            RiderState rider = reserveIn(bestZone, request, policy, nowMillis);
+            if (rider != null) {
+                return rider;
+            }
+        }
+        return null;
+    }
+
+    public void release(long riderId, long nowMillis) {
+        RiderState rider = riders.get(riderId);
+        if (rider == null) {
+            return;
+        }
+        Zone home = zones.get(rider.getZone());
+        home.lock.lock();
+        try {
+            if (rider.activeOrders > 0 && --rider.activeOrders == 0) {
+                rider.idleSinceMillis = nowMillis;
+            }
+        } finally {
+            home.lock.unlock();
+        }
+    }
+
+    public int onlineRiders() {
+        int online = 0;
+        for (RiderState rider : riders.values()) {
+            if (rider.online) {
+                online++;
+            }
+        }
+        return online;
+    }
+
+    // Reads a rider's load without taking the zone lock; for metrics and tests only.
+    public int activeOrders(long riderId) {
+        RiderState rider = riders.get(riderId);
+        return rider != null ? rider.activeOrders : 0;
+    }
+
+    private RiderState reserveIn(Zone zone, DispatchRequest request, DispatchScoringPolicy policy, long nowMillis) {
+        zone.lock.lock();
+        try {
+            RiderState rider = best(zone, request, policy, nowMillis);
+            if (rider != null) {
+                rider.activeOrders++;
+            }
+            return rider;
+        } finally {
+            zone.lock.unlock();
+        }
+    }
+
+    // Caller holds the zone lock.
+    private RiderState best(Zone zone, DispatchRequest request, DispatchScoringPolicy policy, long nowMillis) {
+        RiderState best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0, n = zone.riders.size(); i < n; i++) {
+            RiderState rider = zone.riders.get(i);
+            if (!rider.online || rider.activeOrders >= capacity) {
+                continue;
+            }
+            double score = policy.score(rider, request, capacity, nowMillis);
+            if (score == Double.NEGATIVE_INFINITY) {
+                continue;
+            }
+            if (best == null || score > bestScore) {
+                best = rider;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private Zone zone(String name) {
+        return zones.computeIfAbsent(key(name), key -> new Zone());
+    }
+
+    // Zones are free text from signup forms
+    private static String key(String zone) {
+        return zone == null ? "" : zone.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Zone {
+        final ReentrantLock lock = new ReentrantLock();
+        final List<RiderState> riders = new ArrayList<>();
+    }
+}
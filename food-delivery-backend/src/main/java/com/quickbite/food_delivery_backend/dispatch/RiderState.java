@@ -0,0 +1,32 @@
+package com.quickbite.food_delivery_backend.dispatch;
+
+// A rider as the dispatcher sees it. Mutated only by RiderPool under the lock of the rider's
+// zone; scoring policies read it while that lock is held.
+public final class RiderState {
+
+    private final long riderId;
+    private final String zone;
+    private final String vehicleType;
+    int activeOrders;
+    long idleSinceMillis;
+    boolean online;
+
+    RiderState(long riderId, String zone, String vehicleType) {
+        this.riderId = riderId;
+        this.zone = zone;
+        this.vehicleType = vehicleType;
+    }
+
+    public long getRiderId() { return riderId; }
+
+    public String getZone() { return zone; }
+
+    public String getVehicleType() { return vehicleType; }
+
+    public int getActiveOrders() { return activeOrders; }
+
+    // When the rider last became free; only meaningful while activeOrders is 0.
+    public long getIdleSinceMillis() { return idleSinceMillis; }
+
+    public boolean isOnline() { return online; }
+}
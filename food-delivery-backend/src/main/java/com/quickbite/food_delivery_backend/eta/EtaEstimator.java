@@ -0,0 +1,152 @@
+package com.quickbite.food_delivery_backend.eta;
+
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Delivery time estimates from what restaurants are actually doing. Every order's lifecycle
+// is split into three stages: waiting for the kitchen (placed until PREPARING), preparing
+// (until OUT_FOR_DELIVERY) and on the road (until DELIVERED). Each restaurant keeps a sliding
+// window of how long each stage took plus the number of orders in its kitchen right now. The
+// record methods must be called from a single thread; estimates are lock-free and may be read
+// from any thread. Plain class so tests can drive it without the event bus.
+public final class EtaEstimator {
+
+    static final Set<EOrderStatus> IN_KITCHEN = EnumSet.of(EOrderStatus.PENDING, EOrderStatus.CONFIRMED,
+            EOrderStatus.PREPARING);
+
+    // How a restaurant's static delivery time splits across stages until it has samples
+    private static final double DEFAULT_WAIT_SHARE = 0.15;
+    private static final double DEFAULT_PREP_SHARE = 0.45;
+    private static final double DEFAULT_ROAD_SHARE = 0.40;
+
+    private static final int WAIT = 0;
+    private static final int PREP = 1;
+    private static final int ROAD = 2;
+
+    private final long windowMillis;
+    private final int buckets;
+    private final int minSamples;
+    private final int kitchenParallelism;
+    private final Map<Long, RestaurantLoad> restaurants = new ConcurrentHashMap<>();
+
+    // Writer thread only: when each tracked order entered each stage, indexed by stage. Orders
+    // that never finish fall out once they are older than a few windows.
+    private final Map<Long, long[]> tracked;
+    private long latestMillis;
+
+    public EtaEstimator(long windowMillis, int buckets, int minSamples, int kitchenParallelism) {
+        this.windowMillis = windowMillis;
+        this.buckets = buckets;
+        this.minSamples = minSamples;
+        this.kitchenParallelism = Math.max(1, kitchenParallelism);
+        this.tracked = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+                return eldest.getValue()[WAIT] < latestMillis - 4 * windowMillis;
+            }
+        };
+    }
+
+    // Seeds kitchen queues at startup from the orders already in flight.
+    public void setQueueDepth(long restaurantId, int depth) {
+        load(restaurantId).queueDepth.set(depth);
+    }
+
+    public void orderCreated(long orderId, long restaurantId, long timestampMillis) {
+        latestMillis = Math.max(latestMillis, timestampMillis);
+        tracked.put(orderId, new long[] { timestampMillis, 0, 0 });
+        load(restaurantId).queueDepth.incrementAndGet();
+    }
+
+    public void statusChanged(long orderId, long restaurantId, EOrderStatus previous, EOrderStatus status,
+                              long timestampMillis) {
+        latestMillis = Math.max(latestMillis, timestampMillis);
+        RestaurantLoad load = load(restaurantId);
+        if (IN_KITCHEN.contains(previous) && !IN_KITCHEN.contains(status)) {
+            load.queueDepth.updateAndGet(depth -> Math.max(0, depth - 1));
+        }
+
+        // Orders placed before a restart are not tracked; they only move the queue depth
+        long[] enteredAt = tracked.get(orderId);
+        switch (status) {
+            case PREPARING -> finishStage(load, enteredAt, WAIT, timestampMillis);
+            case OUT_FOR_DELIVERY -> finishStage(load, enteredAt, PREP, timestampMillis);
+            case DELIVERED -> {
+                finishStage(load, enteredAt, ROAD, timestampMillis);
+                tracked.remove(orderId);
+            }
+            case CANCELLED -> tracked.remove(orderId);
+            default -> {
+            }
+        }
+    }
+
+    // staticMinutes is the restaurant's listed delivery time, used for stages without enough
+    // samples. riderBacklog is waiting orders per online rider across the fleet.
+    public int estimateMinutes(long restaurantId, Integer staticMinutes, double riderBacklog, long nowMillis) {
+        double fallback = (staticMinutes != null && staticMinutes > 0 ? staticMinutes : 30) * 60_000.0;
+        RestaurantLoad load = restaurants.get(restaurantId);
+        double wait = mean(load, WAIT, nowMillis, fallback * DEFAULT_WAIT_SHARE);
+        double prep = mean(load, PREP, nowMillis, fallback * DEFAULT_PREP_SHARE);
+        double road = mean(load, ROAD, nowMillis, fallback * DEFAULT_ROAD_SHARE);
+
+        // A new order waits behind everything the kitchen cannot already work on in parallel
+        int depth = load != null ? load.queueDepth.get() : 0;
+        double queueDelay = (double) Math.max(0, depth - kitchenParallelism + 1) / kitchenParallelism * prep;
+        // With riders saturated, each order ahead of ours needs a rider to come back first
+        double riderDelay = Math.min(riderBacklog, 2.0) * road;
+
+        return (int) Math.ceil((wait + prep + road + queueDelay + riderDelay) / 60_000.0);
+    }
+
+    public int queueDepth(long restaurantId) {
+        RestaurantLoad load = restaurants.get(restaurantId);
+        return load != null ? load.queueDepth.get() : 0;
+    }
+
+    public int trackedOrders() {
+        return tracked.size();
+    }
+
+    private static void finishStage(RestaurantLoad load, long[] enteredAt, int stage, long timestampMillis) {
+        if (enteredAt == null) {
+            return;
+        }
+        long started = enteredAt[stage];
+        if (started > 0 && timestampMillis >= started) {
+            load.stages[stage].record(timestampMillis - started, timestampMillis);
+        }
+        if (stage < ROAD) {
+            enteredAt[stage + 1] = timestampMillis;
+        }
+    }
+
+    private double mean(RestaurantLoad load, int stage, long nowMillis, double fallback) {
+        if (load == null) {
+            return fallback;
+        }
+        double mean = load.stages[stage].meanMillis(nowMillis, minSamples);
+        return Double.isNaN(mean) ? fallback : mean;
+    }
+
+    private RestaurantLoad load(long restaurantId) {
+        return restaurants.computeIfAbsent(restaurantId, id -> new RestaurantLoad(windowMillis, buckets));
+    }
+
+    private static final class RestaurantLoad {
+        final StageWindow[] stages = new StageWindow[3];
+        final AtomicInteger queueDepth = new AtomicInteger();
+
+        RestaurantLoad(long windowMillis, int buckets) {
+            for (int i = 0; i < stages.length; i++) {
+                stages[i] = new StageWindow(windowMillis, buckets);
+            }
+        }
+    }
+}
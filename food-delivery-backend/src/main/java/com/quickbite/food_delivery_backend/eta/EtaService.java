@@ -0,0 +1,93 @@
+package com.quickbite.food_delivery_backend.eta;
+
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+import com.quickbite.food_delivery_backend.dispatch.DispatchEngine;
+import com.quickbite.food_delivery_backend.events.OrderEvent;
+import com.quickbite.food_delivery_backend.events.OrderEventConsumer;
+import com.quickbite.food_delivery_backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Live delivery estimates. Stage timings are fed from the order event bus on its consumer
+// thread; listings and checkout read the estimate from memory without touching the database.
+@Service
+public class EtaService implements OrderEventConsumer {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DispatchEngine dispatchEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.etaWindowMs:3600000}")
+    private long windowMs;
+
+    @Value("${app.etaBucketCount:12}")
+    private int bucketCount;
+
+    @Value("${app.etaMinSamples:3}")
+    private int minSamples;
+
+    @Value("${app.etaKitchenParallelism:4}")
+    private int kitchenParallelism;
+
+    private EtaEstimator estimator;
+
+    @PostConstruct
+    void start() {
+        estimator = new EtaEstimator(windowMs, bucketCount, minSamples, kitchenParallelism);
+        for (Object[] row : orderRepository.countByRestaurant(EtaEstimator.IN_KITCHEN)) {
+            estimator.setQueueDepth((Long) row[0], ((Long) row[1]).intValue());
+        }
+        Gauge.builder("eta.tracked.orders", estimator, EtaEstimator::trackedOrders).register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "eta";
+    }
+
+    @Override
+    public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+        switch (event.getType()) {
+            case CREATED -> estimator.orderCreated(event.getOrderId(), event.getRestaurantId(), event.getTimestampMillis());
+            case STATUS_CHANGED -> estimator.statusChanged(event.getOrderId(), event.getRestaurantId(),
+                    event.getPreviousStatus(), event.getStatus(), event.getTimestampMillis());
+        }
+    }
+
+    public int estimateMinutes(Long restaurantId, Integer listedMinutes) {
+        return estimator.estimateMinutes(restaurantId, listedMinutes, riderBacklog(), System.currentTimeMillis());
+    }
+
+    // The listed deliveryTime is replaced with the live estimate.
+    public RestaurantView withEstimate(RestaurantView restaurant) {
+        return withEstimate(restaurant, riderBacklog(), System.currentTimeMillis());
+    }
+
+    public List<RestaurantView> withEstimates(List<RestaurantView> restaurants) {
+        double riderBacklog = riderBacklog();
+        long now = System.currentTimeMillis();
+        return restaurants.stream().map(restaurant -> withEstimate(restaurant, riderBacklog, now)).toList();
+    }
+
+    private RestaurantView withEstimate(RestaurantView restaurant, double riderBacklog, long nowMillis) {
+        return restaurant.withDeliveryTime(
+                estimator.estimateMinutes(restaurant.id(), restaurant.deliveryTime(), riderBacklog, nowMillis));
+    }
+
+    // Waiting orders per online rider; counting riders walks the pool, so once per request.
+    private double riderBacklog() {
+        int waiting = dispatchEngine.waitingOrders();
+        return waiting == 0 ? 0 : (double) waiting / Math.max(1, dispatchEngine.onlineRiders());
+    }
+}
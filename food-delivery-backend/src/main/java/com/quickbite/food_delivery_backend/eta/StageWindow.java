@@ -0,0 +1,55 @@
+package com.quickbite.food_delivery_backend.eta;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Sliding window of durations for one stage at one restaurant, kept as a ring of time buckets
+// (count and sum per bucket). Only the ETA consumer thread writes; request threads read without
+// locking and may catch a bucket while it is being recycled, which costs an estimate at most
+// one stale bucket.
+final class StageWindow {
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final AtomicLongArray epochs;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray sums;
+
+    StageWindow(long windowMillis, int buckets) {
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+        this.buckets = buckets;
+        this.epochs = new AtomicLongArray(buckets);
+        this.counts = new AtomicLongArray(buckets);
+        this.sums = new AtomicLongArray(buckets);
+        for (int i = 0; i < buckets; i++) {
+            epochs.set(i, -1);
+        }
+    }
+
+    // Single writer, so plain get-then-set is enough.
+    void record(long durationMillis, long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int slot = (int) (epoch % buckets);
+        if (epochs.get(slot) != epoch) {
+            counts.set(slot, 0);
+            sums.set(slot, 0);
+            epochs.set(slot, epoch);
+        }
+        sums.set(slot, sums.get(slot) + durationMillis);
+        counts.set(slot, counts.get(slot) + 1);
+    }
+
+    // Mean over the buckets still inside the window, or NaN with fewer than minSamples.
+    double meanMillis(long nowMillis, int minSamples) {
+        long current = nowMillis / bucketMillis;
+        long count = 0;
+        long sum = 0;
+        for (int slot = 0; slot < buckets; slot++) {
+            long epoch = epochs.get(slot);
+            if (epoch > current - buckets && epoch <= current) {
+                count += counts.get(slot);
+                sum += sums.get(slot);
+            }
+        }
+        return count >= Math.max(1, minSamples) ? (double) sum / count : Double.NaN;
+    }
+}
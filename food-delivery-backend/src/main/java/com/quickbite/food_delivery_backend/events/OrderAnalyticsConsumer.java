@@ -0,0 +1,45 @@
+package com.quickbite.food_delivery_backend.events;
+
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Business counters for orders, fed from the event bus instead of the request path.
+@Component
+public class OrderAnalyticsConsumer implements OrderEventConsumer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter placed;
+    private Counter revenue;
+    private final Map<EOrderStatus, Counter> transitions = new EnumMap<>(EOrderStatus.class);
+
+    @PostConstruct
+    void start() {
+        placed = Counter.builder("orders.placed").register(meterRegistry);
+        revenue = Counter.builder("orders.revenue").register(meterRegistry);
+        for (EOrderStatus status : EOrderStatus.values()) {
+            transitions.put(status, Counter.builder("orders.transitions")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+        switch (event.getType()) {
+            case CREATED -> {
+                placed.increment();
+                revenue.increment(event.getTotalAmount());
+            }
+            case STATUS_CHANGED -> transitions.get(event.getStatus()).increment();
+        }
+    }
+}
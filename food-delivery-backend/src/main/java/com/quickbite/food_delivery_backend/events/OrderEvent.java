@@ -0,0 +1,52 @@
+package com.quickbite.food_delivery_backend.events;
+
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+
+// A slot in the order event ring. Slots are allocated once and overwritten as the ring
+// wraps, so consumers must copy out anything they keep beyond onEvent.
+public final class OrderEvent {
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED
+    }
+
+    private Type type;
+    private long orderId;
+    private long restaurantId;
+    private long userId;
+    private EOrderStatus previousStatus;
+    private EOrderStatus status;
+    private double totalAmount;
+    private long timestampMillis;
+
+    void set(Type type, long orderId, long restaurantId, long userId,
+             EOrderStatus previousStatus, EOrderStatus status, double totalAmount) {
+        this.type = type;
+        this.orderId = orderId;
+        this.restaurantId = restaurantId;
+        this.userId = userId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.timestampMillis = System.currentTimeMillis();
+    }
+
+    public Type getType() { return type; }
+
+    public long getOrderId() { return orderId; }
+
+    public long getRestaurantId() { return restaurantId; }
+
+    // Only set for CREATED events; 0 otherwise.
+    public long getUserId() { return userId; }
+
+    // Null for CREATED events.
+    public EOrderStatus getPreviousStatus() { return previousStatus; }
+
+    public EOrderStatus getStatus() { return status; }
+
+    public double getTotalAmount() { return totalAmount; }
+
+    public long getTimestampMillis() { return timestampMillis; }
+}
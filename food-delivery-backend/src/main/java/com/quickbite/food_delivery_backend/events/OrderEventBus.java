@@ -0,0 +1,116 @@
+package com.quickbite.food_delivery_backend.events;
+
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+import com.quickbite.food_delivery_backend.models.Order;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+// In-process bus for order side effects (notifications, analytics, dispatch). Publishing copies
+// a few fields into a preallocated ring slot and returns; every OrderEventConsumer bean runs on
+// its own thread. Events are best-effort and lost on shutdown or when a consumer falls a whole
+// ring behind; anything that must survive a crash belongs in the outbox.
+@Service
+public class OrderEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventBus.class);
+
+    @Autowired(required = false)
+    private List<OrderEventConsumer> consumers = List.of();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.orderEventBusSize:1024}")
+    private int ringSize;
+
+    @Value("${app.orderEventBusWaitStrategy:blocking}")
+    private String waitStrategy;
+
+    private OrderEventRing ring;
+    private Counter published;
+    private Counter dropped;
+
+    @PostConstruct
+    void start() {
+        ring = new OrderEventRing(ringSize, WaitStrategy.named(waitStrategy), consumers);
+
+        published = Counter.builder("order.events.published").register(meterRegistry);
+        dropped = Counter.builder("order.events.dropped").register(meterRegistry);
+        for (OrderEventRing.Processor processor : ring.processors()) {
+            Gauge.builder("order.events.lag", processor, OrderEventRing.Processor::lag)
+                    .tag("consumer", processor.name())
+                    .register(meterRegistry);
+            FunctionCounter.builder("order.events.consumed", processor, OrderEventRing.Processor::consumed)
+                    .tag("consumer", processor.name())
+                    .register(meterRegistry);
+            FunctionCounter.builder("order.events.batches", processor, OrderEventRing.Processor::batches)
+                    .tag("consumer", processor.name())
+                    .register(meterRegistry);
+            FunctionCounter.builder("order.events.failures", processor, OrderEventRing.Processor::failures)
+                    .tag("consumer", processor.name())
+                    .register(meterRegistry);
+        }
+
+        ring.start("order-events-");
+    }
+
+    @PreDestroy
+    void stop() {
+        ring.halt();
+    }
+
+    // Deferred to after commit when called inside a transaction, so consumers never see an
+    // order that was rolled back.
+    public void orderCreated(Order order) {
+        long orderId = order.getId();
+        long restaurantId = order.getRestaurant().getId();
+        long userId = order.getUser().getId();
+        EOrderStatus status = order.getStatus();
+        double total = order.getTotalAmount() != null ? order.getTotalAmount() : 0;
+        afterCommit(() -> publish(OrderEvent.Type.CREATED, orderId, restaurantId, userId, null, status, total));
+    }
+
+    public void statusChanged(Order order, EOrderStatus previousStatus) {
+        long orderId = order.getId();
+        long restaurantId = order.getRestaurant().getId();
+        EOrderStatus status = order.getStatus();
+        double total = order.getTotalAmount() != null ? order.getTotalAmount() : 0;
+        afterCommit(() -> publish(OrderEvent.Type.STATUS_CHANGED, orderId, restaurantId, 0, previousStatus, status, total));
+    }
+
+    private void publish(OrderEvent.Type type, long orderId, long restaurantId, long userId,
+                         EOrderStatus previousStatus, EOrderStatus status, double totalAmount) {
+        if (ring.tryPublish(type, orderId, restaurantId, userId, previousStatus, status, totalAmount)) {
+            published.increment();
+        } else {
+            dropped.increment();
+            logger.warn("Order event bus is full; dropped {} event for order {}", type, orderId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
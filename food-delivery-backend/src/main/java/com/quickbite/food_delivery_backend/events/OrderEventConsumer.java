@@ -0,0 +1,14 @@
+package com.quickbite.food_delivery_backend.events;
+
+// A side effect of order placement or status changes. Every consumer bean gets its own thread
+// and sees every event in order; endOfBatch marks the last event currently available, which is
+// the place to flush anything buffered across the batch.
+public interface OrderEventConsumer {
+
+    void onEvent(OrderEvent event, long sequence, boolean endOfBatch) throws Exception;
+
+    // Used for the consumer's thread name and metric tags.
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
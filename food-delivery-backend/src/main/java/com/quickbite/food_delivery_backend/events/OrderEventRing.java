@@ -0,0 +1,143 @@
+package com.quickbite.food_delivery_backend.events;
+
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A preallocated ring of order events with one writer at a time and a processor thread per
+// consumer. Publishing fills the next slot in place and advances the cursor; each consumer
+// follows with its own sequence and handles everything that became available in one batch.
+// The publisher never waits: if the slowest consumer is a full ring behind, the event is
+// refused and the caller counts it as dropped.
+final class OrderEventRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventRing.class);
+
+    private final OrderEvent[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final Sequence cursor = new Sequence(-1);
+    private final List<Processor> processors = new ArrayList<>();
+
+    // Publisher-side cache of the slowest consumer, so most publishes skip reading every sequence
+    private long cachedGatingSequence = -1;
+    private volatile boolean halted;
+
+    OrderEventRing(int size, WaitStrategy waitStrategy, List<? extends OrderEventConsumer> consumers) {
+        if (size < 1 || Integer.bitCount(size) != 1) {
+            throw new RuntimeException("Error: Event ring size must be a power of two, got " + size + ".");
+        }
+        this.slots = new OrderEvent[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new OrderEvent();
+        }
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+        for (OrderEventConsumer consumer : consumers) {
+            processors.add(new Processor(consumer));
+        }
+    }
+
+    void start(String threadNamePrefix) {
+        for (Processor processor : processors) {
+            Thread thread = new Thread(processor, threadNamePrefix + processor.name());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    // Lets consumers finish what is already published, then stops them.
+    void halt() {
+        halted = true;
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    List<Processor> processors() {
+        return processors;
+    }
+
+    long cursor() {
+        return cursor.get();
+    }
+
+    boolean tryPublish(OrderEvent.Type type, long orderId, long restaurantId, long userId,
+                       EOrderStatus previousStatus, EOrderStatus status, double totalAmount) {
+        synchronized (this) {
+            long next = cursor.get() + 1;
+            long wrapPoint = next - slots.length;
+            if (wrapPoint > cachedGatingSequence) {
+                cachedGatingSequence = minimumConsumerSequence(next - 1);
+                if (wrapPoint > cachedGatingSequence) {
+                    return false;
+                }
+            }
+            slots[(int) (next & mask)].set(type, orderId, restaurantId, userId, previousStatus, status, totalAmount);
+            cursor.set(next);
+        }
+        waitStrategy.signalAllWhenBlocking();
+        return true;
+    }
+
+    private long minimumConsumerSequence(long fallback) {
+        long minimum = fallback;
+        for (Processor processor : processors) {
+            minimum = Math.min(minimum, processor.sequence.get());
+        }
+        return minimum;
+    }
+
+    // Runs one consumer. Only its own thread writes its sequence and counters.
+    final class Processor implements Runnable {
+        private final OrderEventConsumer consumer;
+        private final Sequence sequence = new Sequence(-1);
+        private volatile long consumed;
+        private volatile long batches;
+        private volatile long failures;
+
+        Processor(OrderEventConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        String name() {
+            return consumer.name();
+        }
+
+        // How many published events this consumer has not handled yet.
+        long lag() {
+            return cursor.get() - sequence.get();
+        }
+
+        long consumed() { return consumed; }
+
+        long batches() { return batches; }
+
+        long failures() { return failures; }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            while (true) {
+                long available = waitStrategy.waitFor(next, cursor, () -> halted);
+                if (available < next) {
+                    // Halted with nothing left to drain
+                    return;
+                }
+                for (long current = next; current <= available; current++) {
+                    try {
+                        consumer.onEvent(slots[(int) (current & mask)], current, current == available);
+                    } catch (Exception e) {
+                        failures++;
+                        logger.error("Order event consumer {} failed on sequence {}: {}", name(), current, e.getMessage());
+                    }
+                }
+                consumed += available - next + 1;
+                batches++;
+                sequence.set(available);
+                next = available + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.quickbite.food_delivery_backend.events;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// The padding classes keep each sequence on its own cache line, so the publisher's cursor
+// and the consumers' positions do not invalidate each other on every write. Superclass
+// fields are laid out first, which is what makes the padding stick.
+abstract class SequenceLeftPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends SequenceLeftPadding {
+    protected volatile long value;
+}
+
+abstract class SequenceRightPadding extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
+
+// A position in the ring. Written by one thread only, read by any.
+final class Sequence extends SequenceRightPadding {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    Sequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    long get() {
+        return value;
+    }
+
+    // Release is enough for a single writer: everything written before it (the event
+    // slot) is visible to a reader that sees the new value.
+    void set(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+}
@@ -0,0 +1,124 @@
+package com.quickbite.food_delivery_backend.events;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+// How a consumer waits for the publisher. Trades latency for CPU: "blocking" parks on a
+// lock and costs nothing when idle, "sleeping" spins briefly then parks in short naps,
+// "yielding" and "busy-spin" keep a core busy for the lowest hand-off latency.
+interface WaitStrategy {
+
+    // Waits until the cursor reaches the sequence and returns the cursor, which may be
+    // further ahead. Returns early with a smaller value once halted says so.
+    long waitFor(long sequence, Sequence cursor, BooleanSupplier halted);
+
+    // Called by the publisher after advancing the cursor, and on halt.
+    default void signalAllWhenBlocking() {
+    }
+
+    static WaitStrategy named(String name) {
+        return switch (name) {
+            case "blocking" -> new Blocking();
+            case "sleeping" -> new Sleeping();
+            case "yielding" -> new Yielding();
+            case "busy-spin" -> new BusySpin();
+            default -> throw new RuntimeException("Error: Unknown event bus wait strategy '" + name
+                    + "' (expected blocking, sleeping, yielding or busy-spin).");
+        };
+    }
+
+    final class Blocking implements WaitStrategy {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+        // Publishers only take the lock when a consumer is actually parked
+        private final AtomicBoolean signalNeeded = new AtomicBoolean();
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) {
+            long available = cursor.get();
+            if (available >= sequence) {
+                return available;
+            }
+            lock.lock();
+            try {
+                while (true) {
+                    signalNeeded.set(true);
+                    available = cursor.get();
+                    if (available >= sequence || halted.getAsBoolean()) {
+                        return available;
+                    }
+                    published.awaitUninterruptibly();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            if (signalNeeded.getAndSet(false)) {
+                lock.lock();
+                try {
+                    published.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    final class Sleeping implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 100;
+        private static final long SLEEP_NANOS = 100_000;
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) {
+            int tries = 0;
+            long available;
+            while ((available = cursor.get()) < sequence && !halted.getAsBoolean()) {
+                if (tries < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(SLEEP_NANOS);
+                }
+                tries++;
+            }
+            return available;
+        }
+    }
+
+    final class Yielding implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) {
+            int tries = 0;
+            long available;
+            while ((available = cursor.get()) < sequence && !halted.getAsBoolean()) {
+                if (tries++ < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return available;
+        }
+    }
+
+    final class BusySpin implements WaitStrategy {
+        @Override
+        public long waitFor(long sequence, Sequence cursor, BooleanSupplier halted) {
+            long available;
+            while ((available = cursor.get()) < sequence && !halted.getAsBoolean()) {
+                Thread.onSpinWait();
+            }
+            return available;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.quickbite.food_delivery_backend.geo;
+
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// Immutable grid index over restaurant coordinates. Points are bucketed into square lat/lon
+// cells and sorted row-major by cell, so the cells a query box covers in one latitude row are
+// a single contiguous run found with one binary search. Coordinates live in primitive arrays
+// and a query only touches the rows its box overlaps. Rebuilt, never modified.
+public final class GeoIndex {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final double cellDegrees;
+    private final long columns;
+    private final long[] cells;
+    private final long[] ids;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] cosLatitudes;
+
+    public record Hit(long restaurantId, double distanceKm) {
+    }
+
+    private GeoIndex(double cellDegrees, long[] cells, long[] ids, double[] latitudes, double[] longitudes) {
+        this.cellDegrees = cellDegrees;
+        this.columns = (long) Math.ceil(360 / cellDegrees) + 1;
+        this.cells = cells;
+        this.ids = ids;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.cosLatitudes = new double[latitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            cosLatitudes[i] = Math.cos(Math.toRadians(latitudes[i]));
+        }
+    }
+
+    // Restaurants without valid coordinates are skipped.
+    public static GeoIndex build(Collection<RestaurantView> restaurants, double cellDegrees) {
+        List<RestaurantView> located = new ArrayList<>(restaurants.size());
+        for (RestaurantView restaurant : restaurants) {
+            if (isValid(restaurant.latitude(), restaurant.longitude())) {
+                located.add(restaurant);
+            }
+        }
+
+        GeoIndex empty = new GeoIndex(cellDegrees, new long[0], new long[0], new double[0], new double[0]);
+        long[] keys = new long[located.size()];
+        Integer[] order = new Integer[located.size()];
+        for (int i = 0; i < keys.length; i++) {
+            RestaurantView restaurant = located.get(i);
+            keys[i] = empty.cell(empty.row(restaurant.latitude()), empty.column(restaurant.longitude()));
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> keys[i]));
+
+        long[] cells = new long[keys.length];
+        long[] ids = new long[keys.length];
+        double[] latitudes = new double[keys.length];
+        double[] longitudes = new double[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            RestaurantView restaurant = located.get(order[i]);
+            cells[i] = keys[order[i]];
+            ids[i] = restaurant.id();
+            latitudes[i] = restaurant.latitude();
+            longitudes[i] = restaurant.longitude();
+        }
+        return new GeoIndex(cellDegrees, cells, ids, latitudes, longitudes);
+    }
+
+    public static boolean isValid(Double latitude, Double longitude) {
+        return latitude != null && longitude != null
+                && latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // Restaurants within radiusKm, nearest first, at most limit of them.
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        Collector nearest = new Collector(latitude, radiusKm, limit);
+        collect(latitude, longitude, radiusKm, nearest);
+        return nearest.sorted();
+    }
+
+    // The k nearest restaurants within maxRadiusKm. Searches a growing radius: once k hits lie
+    // inside it, nothing outside can be nearer, so the answer is exact.
+    public List<Hit> nearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        double radiusKm = Math.min(cellDegrees * KM_PER_DEGREE, maxRadiusKm);
+        while (true) {
+            Collector nearest = new Collector(latitude, radiusKm, k);
+            collect(latitude, longitude, radiusKm, nearest);
+            if (nearest.size() >= k || radiusKm >= maxRadiusKm) {
+                return nearest.sorted();
+            }
+            radiusKm = Math.min(radiusKm * 2, maxRadiusKm);
+        }
+    }
+
+    private void collect(double latitude, double longitude, double radiusKm, Collector nearest) {
+        if (nearest.limit <= 0 || ids.length == 0) {
+            return;
+        }
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double minLat = Math.max(-90, latitude - latDelta);
+        double maxLat = Math.min(90, latitude + latDelta);
+        // Degrees of longitude shrink towards the poles; size the box for the widest row
+        double widest = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        double cos = Math.cos(Math.toRadians(widest));
+        double lonDelta = cos < 1e-9 ? 180 : radiusKm / (KM_PER_DEGREE * cos);
+
+        long firstRow = row(minLat);
+        long lastRow = row(maxLat);
+        if (lonDelta >= 180) {
+            for (long row = firstRow; row <= lastRow; row++) {
+                scan(row, 0, columns - 1, latitude, longitude, nearest);
+            }
+            return;
+        }
+        // A box crossing the antimeridian becomes two column ranges
+        double west = longitude - lonDelta;
+        double east = longitude + lonDelta;
+        for (long row = firstRow; row <= lastRow; row++) {
+            if (west < -180) {
+                scan(row, column(west + 360), columns - 1, latitude, longitude, nearest);
+                scan(row, 0, column(east), latitude, longitude, nearest);
+            } else if (east > 180) {
+                scan(row, column(west), columns - 1, latitude, longitude, nearest);
+                scan(row, 0, column(east - 360), latitude, longitude, nearest);
+            } else {
+                scan(row, column(west), column(east), latitude, longitude, nearest);
+            }
+        }
+    }
+
+    private void scan(long row, long fromColumn, long toColumn, double latitude, double longitude, Collector nearest) {
+        long last = cell(row, toColumn);
+        for (int i = lowerBound(cell(row, fromColumn)); i < cells.length && cells[i] <= last; i++) {
+            // The haversine term grows with distance, so candidates are compared on it and
+            // only the ones kept pay for the square root and arcsine
+            double sinLat = Math.sin(Math.toRadians(latitudes[i] - latitude) / 2);
+            double sinLon = Math.sin(Math.toRadians(longitudes[i] - longitude) / 2);
+            double a = sinLat * sinLat + nearest.cosOrigin * cosLatitudes[i] * sinLon * sinLon;
+            if (a <= nearest.threshold) {
+                nearest.add(ids[i], a);
+            }
+        }
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = cells.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cells[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private long column(double longitude) {
+        return (long) Math.floor((longitude + 180) / cellDegrees);
+    }
+
+    private long cell(long row, long column) {
+        return row * columns + column;
+    }
+
+    private record Candidate(long id, double a) {
+    }
+
+    // Keeps the nearest `limit` candidates in a max-heap on the haversine term. The admission
+    // threshold starts at the radius and tightens to the farthest kept once the heap is full.
+    private static final class Collector {
+        final double cosOrigin;
+        final int limit;
+        final double radiusThreshold;
+        final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingDouble(Candidate::a).reversed());
+        double threshold;
+
+        Collector(double latitude, double radiusKm, int limit) {
+            this.cosOrigin = Math.cos(Math.toRadians(latitude));
+            this.limit = limit;
+            double sinHalf = Math.sin(Math.min(radiusKm / EARTH_RADIUS_KM, Math.PI) / 2);
+            this.radiusThreshold = sinHalf * sinHalf;
+            this.threshold = radiusThreshold;
+        }
+
+        void add(long id, double a) {
+            if (heap.size() == limit) {
+                if (a >= heap.peek().a()) {
+                    return;
+                }
+                heap.poll();
+            }
+            heap.add(new Candidate(id, a));
+            if (heap.size() == limit) {
+                threshold = Math.min(radiusThreshold, heap.peek().a());
+            }
+        }
+
+        int size() {
+            return heap.size();
+        }
+
+        List<Hit> sorted() {
+            List<Hit> hits = new ArrayList<>(heap.size());
+            for (Candidate candidate : heap) {
+                hits.add(new Hit(candidate.id(), 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(candidate.a())))));
+            }
+            hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+            return hits;
+        }
+    }
+
+    // Haversine great-circle distance.
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
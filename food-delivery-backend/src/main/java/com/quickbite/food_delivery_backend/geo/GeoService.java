@@ -0,0 +1,106 @@
+package com.quickbite.food_delivery_backend.geo;
+
+import com.quickbite.food_delivery_backend.catalog.CatalogListener;
+import com.quickbite.food_delivery_backend.catalog.CatalogService;
+import com.quickbite.food_delivery_backend.catalog.CatalogSnapshot;
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Keeps the geo index in step with the catalog snapshot and answers "near me" queries.
+// The index is rebuilt whole, but only when a restaurant's position actually changes.
+@Service
+public class GeoService implements CatalogListener {
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.geoCellDegrees:0.01}")
+    private double cellDegrees;
+
+    @Value("${app.geoMaxRadiusKm:50}")
+    private double maxRadiusKm;
+
+    private volatile GeoIndex index;
+
+    private Timer queryTimer;
+    private Counter rebuilds;
+
+    @PostConstruct
+    void registerMetrics() {
+        index = GeoIndex.build(List.of(), cellDegrees);
+        queryTimer = Timer.builder("geo.query.duration")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        rebuilds = Counter.builder("geo.index.rebuilds").register(meterRegistry);
+        Gauge.builder("geo.index.restaurants", this, service -> service.index.size())
+                .register(meterRegistry);
+    }
+
+    public double maxRadiusKm() {
+        return maxRadiusKm;
+    }
+
+    // With a radius, everything inside it nearest first; without, the limit nearest within
+    // the configured maximum radius.
+    public List<NearbyRestaurant> nearby(double latitude, double longitude, Double radiusKm, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<GeoIndex.Hit> hits = radiusKm != null
+                    ? index.withinRadius(latitude, longitude, radiusKm, limit)
+                    : index.nearest(latitude, longitude, limit, maxRadiusKm);
+            CatalogSnapshot snapshot = catalogService.snapshot();
+            List<NearbyRestaurant> nearby = new ArrayList<>(hits.size());
+            for (GeoIndex.Hit hit : hits) {
+                snapshot.restaurant(hit.restaurantId())
+                        .ifPresent(restaurant -> nearby.add(new NearbyRestaurant(restaurant, hit.distanceKm())));
+            }
+            return nearby;
+        } finally {
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void onCatalogRebuilt(CatalogSnapshot snapshot) {
+        rebuild(snapshot);
+    }
+
+    @Override
+    public void onCatalogUpdated(CatalogSnapshot previous, CatalogSnapshot current, Set<Long> restaurantIds) {
+        for (Long restaurantId : restaurantIds) {
+            RestaurantView before = previous.restaurant(restaurantId).orElse(null);
+            RestaurantView after = current.restaurant(restaurantId).orElse(null);
+            if (moved(before, after)) {
+                rebuild(current);
+                return;
+            }
+        }
+    }
+
+    private void rebuild(CatalogSnapshot snapshot) {
+        index = GeoIndex.build(snapshot.restaurants(), cellDegrees);
+        rebuilds.increment();
+    }
+
+    // Menu edits, renames and restaurants without coordinates leave the index alone
+    private static boolean moved(RestaurantView before, RestaurantView after) {
+        return !Objects.equals(before != null ? before.latitude() : null, after != null ? after.latitude() : null)
+                || !Objects.equals(before != null ? before.longitude() : null, after != null ? after.longitude() : null);
+    }
+}
@@ -0,0 +1,6 @@
+package com.quickbite.food_delivery_backend.geo;
+
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+
+public record NearbyRestaurant(RestaurantView restaurant, double distanceKm) {
+}
@@ -0,0 +1,421 @@
+package com.quickbite.food_delivery_backend.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickbite.food_delivery_backend.models.IdempotencyRecord;
+import com.quickbite.food_delivery_backend.payload.response.MessageResponse;
+import com.quickbite.food_delivery_backend.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Replays the first response to requests that repeat an Idempotency-Key, so a client retrying
+// over a flaky network cannot place the same order twice. Keys are scoped per caller and
+// operation and bound to a fingerprint of the request body; reusing one for a different request
+// is rejected. A duplicate that arrives while the first is still running waits for its result
+// instead of running too. Entries live in a bounded in-memory map with a TTL. With
+// app.idempotencyPersistent they are also claimed in the idempotency_keys table, which
+// collapses duplicates across instances and survives restarts. The instance running a claimed
+// request renews its lease until the response is stored, retrying the store if the database
+// refuses it. Only a claim whose lease ran out (app.idempotencyLeaseMs) is taken to be from an
+// instance that died mid-request, and a retry with the same body takes it over.
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.idempotencyTtlMs:86400000}")
+    private long ttlMs;
+
+    @Value("${app.idempotencyMaxEntries:100000}")
+    private int maxEntries;
+
+    @Value("${app.idempotencyWaitMs:10000}")
+    private long waitMs;
+
+    @Value("${app.idempotencyPersistent:false}")
+    private boolean persistent;
+
+    @Value("${app.idempotencyPurgeIntervalMs:600000}")
+    private long purgeIntervalMs;
+
+    @Value("${app.idempotencyLeaseMs:30000}")
+    private long leaseMs;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // Creation order, so the oldest entries are evicted first
+    private final Queue<Entry> created = new ConcurrentLinkedQueue<>();
+    // Database claims held by this instance, from the claim until their response is stored
+    private final ConcurrentHashMap<String, Claim> claims = new ConcurrentHashMap<>();
+
+    private TransactionTemplate ownTransaction;
+    private ScheduledExecutorService maintenance;
+    private Counter executed;
+    private Counter replayed;
+    private Counter conflicts;
+    private Counter inProgress;
+
+    record StoredResponse(int status, String body) {
+    }
+
+    private static final class Entry {
+        final String key;
+        final String fingerprint;
+        final long createdMillis;
+        final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+
+        Entry(String key, String fingerprint, long createdMillis) {
+            this.key = key;
+            this.fingerprint = fingerprint;
+            this.createdMillis = createdMillis;
+        }
+    }
+
+    private static final class Claim {
+        final Instant createdAt;
+        // Set when storing the response failed; the maintenance thread retries it
+        volatile StoredResponse unstored;
+
+        Claim(Instant createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        executed = Counter.builder("idempotency.requests").tag("result", "executed").register(meterRegistry);
+        replayed = Counter.builder("idempotency.requests").tag("result", "replayed").register(meterRegistry);
+        conflicts = Counter.builder("idempotency.requests").tag("result", "conflict").register(meterRegistry);
+        inProgress = Counter.builder("idempotency.requests").tag("result", "in_progress").register(meterRegistry);
+        Gauge.builder("idempotency.entries", entries, ConcurrentHashMap::size).register(meterRegistry);
+
+        if (persistent) {
+            maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "idempotency-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            });
+            maintenance.scheduleWithFixedDelay(this::purgeExpired, purgeIntervalMs, purgeIntervalMs, TimeUnit.MILLISECONDS);
+            long renewMs = Math.max(1, leaseMs / 3);
+            maintenance.scheduleWithFixedDelay(this::renewClaims, renewMs, renewMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (maintenance != null) {
+            maintenance.shutdown();
+        }
+    }
+
+    // Runs action once per (scope, key). Without a key the action simply runs. The action must
+    // commit its own work before returning, so a replayed response never describes a rollback.
+    public ResponseEntity<?> execute(String idempotencyKey, String scope, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Idempotency-Key is too long."));
+        }
+
+        String key = scope + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs);
+        while (true) {
+            long now = System.currentTimeMillis();
+            Entry fresh = new Entry(key, fingerprint, now);
+            Entry existing = entries.putIfAbsent(key, fresh);
+            if (existing != null && existing.createdMillis < now - ttlMs) {
+                if (!entries.replace(key, existing, fresh)) {
+                    continue;
+                }
+                existing = null;
+            }
+            if (existing == null) {
+                created.add(fresh);
+                evict(now);
+                return runFirst(fresh, action);
+            }
+
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return conflict();
+            }
+            try {
+                StoredResponse stored = existing.response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                return replay(stored);
+            } catch (ExecutionException e) {
+                // The first attempt failed without a response worth keeping; try it ourselves
+            } catch (TimeoutException e) {
+                return stillRunning();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return stillRunning();
+            }
+        }
+    }
+
+    private ResponseEntity<?> runFirst(Entry entry, Supplier<ResponseEntity<?>> action) {
+        if (persistent) {
+            Optional<IdempotencyRecord> claimed = claim(entry);
+            if (claimed.isPresent()) {
+                IdempotencyRecord record = claimed.get();
+                if (!record.getFingerprint().equals(entry.fingerprint)) {
+                    abandon(entry, false);
+                    return conflict();
+                }
+                if (record.getStatus() == null) {
+                    // Running on another instance; nothing to wait on here
+                    abandon(entry, false);
+                    return stillRunning();
+                }
+                StoredResponse stored = new StoredResponse(record.getStatus(), record.getResponseBody());
+                entry.response.complete(stored);
+                return replay(stored);
+            }
+            claims.put(entry.key, new Claim(Instant.ofEpochMilli(entry.createdMillis)));
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            abandon(entry, persistent);
+            throw e;
+        }
+        // Server errors are worth retrying, so they are not remembered
+        if (response.getStatusCode().is5xxServerError()) {
+            abandon(entry, persistent);
+            return response;
+        }
+
+        // The action has committed, so from here on the key must end up with a response
+        StoredResponse stored;
+        try {
+            stored = new StoredResponse(response.getStatusCode().value(), toJson(response.getBody()));
+        } catch (RuntimeException e) {
+            logger.error("Could not serialize idempotent response for {}, replaying its status only: {}",
+                    entry.key, e.getMessage());
+            stored = new StoredResponse(response.getStatusCode().value(), null);
+        }
+        entry.response.complete(stored);
+        if (persistent) {
+            store(entry.key, stored);
+        }
+        executed.increment();
+        return response;
+    }
+
+    // Inserts the in-progress row. Returns the row already there when another request got
+    // the key first; an expired one, or an abandoned claim for the same request, is taken over.
+    private Optional<IdempotencyRecord> claim(Entry entry) {
+        Instant createdAt = Instant.ofEpochMilli(entry.createdMillis);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                ownTransaction.executeWithoutResult(status -> recordRepository.saveAndFlush(
+                        new IdempotencyRecord(entry.key, entry.fingerprint, createdAt)));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                Optional<IdempotencyRecord> existing = recordRepository.findById(entry.key);
+                if (existing.isEmpty()) {
+                    continue;
+                }
+                IdempotencyRecord record = existing.get();
+                long age = entry.createdMillis - record.getCreatedAt().toEpochMilli();
+                Instant renewedAt = record.getRenewedAt() != null ? record.getRenewedAt() : record.getCreatedAt();
+                boolean abandoned = record.getStatus() == null
+                        && entry.createdMillis - renewedAt.toEpochMilli() > leaseMs
+                        && record.getFingerprint().equals(entry.fingerprint);
+                if (age <= ttlMs && !abandoned) {
+                    return existing;
+                }
+                if (recordRepository.takeOver(entry.key, record.getCreatedAt(), entry.fingerprint, createdAt) == 1) {
+                    if (abandoned) {
+                        logger.warn("Took over idempotency key {}, claimed {} ms ago and last renewed {}", entry.key, age, renewedAt);
+                    }
+                    return Optional.empty();
+                }
+                // Someone else took it over first; read it again
+            }
+        }
+        throw new RuntimeException("Error: Could not claim idempotency key.");
+    }
+
+    // A claim whose response could not be stored stays held, and renewed, until a retry from
+    // renewClaims() gets it in, so other instances keep answering "still running" rather than
+    // running the request again.
+    private void store(String key, StoredResponse stored) {
+        Claim claim = claims.get(key);
+        if (claim == null) {
+            return;
+        }
+        if (complete(key, claim, stored)) {
+            claims.remove(key, claim);
+        } else {
+            claim.unstored = stored;
+        }
+    }
+
+    private boolean complete(String key, Claim claim, StoredResponse stored) {
+        try {
+            int updated = ownTransaction.execute(status ->
+                    recordRepository.complete(key, claim.createdAt, stored.status(), stored.body()));
+            if (updated == 0) {
+                logger.warn("Idempotency key {} was taken over before its response was stored", key);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            logger.error("Could not store idempotent response for {}, will retry: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    // Runs on the maintenance thread: keeps the lease on every claim this instance holds, and
+    // retries responses that could not be stored
+    private void renewClaims() {
+        Instant now = Instant.now();
+        claims.forEach((key, claim) -> {
+            StoredResponse unstored = claim.unstored;
+            if (unstored != null && complete(key, claim, unstored)) {
+                claims.remove(key, claim);
+                return;
+            }
+            try {
+                if (ownTransaction.execute(status -> recordRepository.renew(key, claim.createdAt, now)) == 0) {
+                    // Purged or taken over; there is nothing left to hold
+                    claims.remove(key, claim);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not renew idempotency key {}: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    private void abandon(Entry entry, boolean deleteRecord) {
+        entries.remove(entry.key, entry);
+        entry.response.completeExceptionally(new IllegalStateException("Error: Request did not complete."));
+        if (deleteRecord) {
+            claims.remove(entry.key);
+            try {
+                recordRepository.deleteById(entry.key);
+            } catch (DataAccessException e) {
+                logger.error("Could not release idempotency key {}: {}", entry.key, e.getMessage());
+            }
+        }
+    }
+
+    // Oldest first: anything past the TTL, then whatever keeps the map over its bound.
+    private void evict(long now) {
+        Entry oldest;
+        while ((oldest = created.peek()) != null
+                && (oldest.createdMillis < now - ttlMs || entries.size() > maxEntries)) {
+            Entry polled = created.poll();
+            if (polled != null) {
+                entries.remove(polled.key, polled);
+            }
+        }
+    }
+
+    private void purgeExpired() {
+        try {
+            int purged = recordRepository.deleteCreatedBefore(Instant.now().minusMillis(ttlMs));
+            if (purged > 0) {
+                logger.info("Purged {} expired idempotency keys", purged);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Idempotency key purge failed: {}", e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored) {
+        replayed.increment();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true");
+        if (stored.body() == null) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(stored.body());
+    }
+
+    private ResponseEntity<?> conflict() {
+        conflicts.increment();
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(new MessageResponse("Error: Idempotency-Key was already used for a different request."));
+    }
+
+    private ResponseEntity<?> stillRunning() {
+        inProgress.increment();
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new MessageResponse("Error: A request with this Idempotency-Key is still in progress."));
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Error: Could not fingerprint request.", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error: Could not store response.", e);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.quickbite.food_delivery_backend.menuimport;
+
+// One menu line as read from the file, before validation. All values are raw text.
+record MenuImportRow(long line, String name, String price, String description, String vegetarian, String image) {
+}
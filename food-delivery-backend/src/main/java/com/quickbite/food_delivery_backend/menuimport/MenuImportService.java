@@ -0,0 +1,345 @@
+package com.quickbite.food_delivery_backend.menuimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickbite.food_delivery_backend.catalog.CatalogService;
+import com.quickbite.food_delivery_backend.config.IdRangeReserver;
+import com.quickbite.food_delivery_backend.payload.response.MenuImportResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Bulk menu upload. The file is read one record at a time and never held in memory; valid
+// rows are upserted in JDBC batches of app.menuImportBatchSize, one transaction per batch, so
+// a failure part way through keeps what was already saved. Items are matched to the existing
+// menu by name. The catalog snapshot is refreshed once at the end.
+@Service
+public class MenuImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuImportService.class);
+
+    public static final String CSV = "text/csv";
+    public static final String NDJSON = "application/x-ndjson";
+
+    public enum Format { CSV, NDJSON }
+
+    // Same generator row as MenuItem's @TableGenerator, so imported and JPA-saved items never
+    // share an id
+    private static final String ID_SEGMENT = "menu_items";
+
+    private static final String INSERT_SQL = "insert into menu_items "
+            + "(id, name, price, description, vegetarian, image, restaurant_id) values (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "update menu_items "
+            + "set price = ?, description = ?, vegetarian = ?, image = ? where id = ? and restaurant_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private IdRangeReserver idRangeReserver;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.menuImportBatchSize:1000}")
+    private int batchSize;
+
+    @Value("${app.menuImportMaxErrors:100}")
+    private int maxErrors;
+
+    private final Set<Long> importing = ConcurrentHashMap.newKeySet();
+
+    private Counter insertedRows;
+    private Counter updatedRows;
+    private Counter rejectedRows;
+    private Timer importTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        insertedRows = Counter.builder("menu.import.rows").tag("result", "inserted").register(meterRegistry);
+        updatedRows = Counter.builder("menu.import.rows").tag("result", "updated").register(meterRegistry);
+        rejectedRows = Counter.builder("menu.import.rows").tag("result", "rejected").register(meterRegistry);
+        importTimer = Timer.builder("menu.import.duration").register(meterRegistry);
+    }
+
+    // Throws IllegalArgumentException for a file that cannot be read at all (bad CSV header)
+    // and IllegalStateException while another import for the same restaurant is running.
+    public MenuImportResponse importMenu(Long restaurantId, Format format, Reader reader) throws IOException {
+        if (!importing.add(restaurantId)) {
+            throw new IllegalStateException("Error: An import for this restaurant is already running.");
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Import run = new Import(restaurantId);
+        try {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+        } finally {
+            importing.remove(restaurantId);
+            if (run.inserted + run.updated > 0) {
+                catalogService.refreshRestaurant(restaurantId);
+            }
+            sample.stop(importTimer);
+        }
+        return run.response();
+    }
+
+    private void readCsv(Reader reader, Import run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(i == 0 && column.startsWith("\uFEFF") ? column.substring(1) : column, i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new IllegalArgumentException("Error: The CSV header must include name and price columns.");
+        }
+        int name = columns.get("name");
+        int price = columns.get("price");
+        int description = columns.getOrDefault("description", -1);
+        int vegetarian = columns.getOrDefault("vegetarian", -1);
+        int image = columns.getOrDefault("image", -1);
+
+        for (List<String> fields = csv.next(); fields != null; fields = csv.next()) {
+            if (csv.unterminatedQuote()) {
+                run.reject(csv.recordLine(), "unterminated quoted field");
+                continue;
+            }
+            run.add(new MenuImportRow(csv.recordLine(), field(fields, name), field(fields, price),
+                    field(fields, description), field(fields, vegetarian), field(fields, image)));
+        }
+    }
+
+    private void readNdjson(Reader reader, Import run) throws IOException {
+        BufferedReader lines = new BufferedReader(reader, 64 * 1024);
+        long line = 0;
+        for (String text = lines.readLine(); text != null; text = lines.readLine()) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                run.reject(line, "invalid JSON");
+                continue;
+            }
+            if (!node.isObject()) {
+                run.reject(line, "expected a JSON object");
+                continue;
+            }
+            run.add(new MenuImportRow(line, text(node, "name"), text(node, "price"), text(node, "description"),
+                    text(node, "vegetarian"), text(node, "image")));
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private record Item(long line, String name, double price, String description, Boolean vegetarian, String image) {
+    }
+
+    // Validates a raw row; returns the item, or the reason it was rejected.
+    private static Object validate(MenuImportRow row) {
+        String name = row.name() == null ? "" : row.name().trim();
+        if (name.isEmpty()) {
+            return "name is required";
+        }
+        if (name.length() > 255) {
+            return "name is longer than 255 characters";
+        }
+        if (row.price() == null || row.price().isBlank()) {
+            return "price is required";
+        }
+        double price;
+        try {
+            price = Double.parseDouble(row.price().trim());
+        } catch (NumberFormatException e) {
+            return "price is not a number";
+        }
+        if (!Double.isFinite(price) || price < 0) {
+            return "price must be zero or more";
+        }
+        String description = blankToNull(row.description());
+        if (description != null && description.length() > 1000) {
+            return "description is longer than 1000 characters";
+        }
+        String image = blankToNull(row.image());
+        if (image != null && image.length() > 255) {
+            return "image is longer than 255 characters";
+        }
+        Boolean vegetarian = null;
+        String flag = blankToNull(row.vegetarian());
+        if (flag != null) {
+            switch (flag.toLowerCase(Locale.ROOT)) {
+                case "true", "yes", "y", "1" -> vegetarian = true;
+                case "false", "no", "n", "0" -> vegetarian = false;
+                default -> {
+                    return "vegetarian must be true or false";
+                }
+            }
+        }
+        return new Item(row.line(), name, price, description, vegetarian, image);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // State of one running import.
+    private final class Import {
+        final Long restaurantId;
+        final Map<String, Long> menuIds = new HashMap<>();
+        final List<MenuImportResponse.RowError> errors = new ArrayList<>();
+        List<Item> batch = new ArrayList<>();
+        long rowsRead;
+        long inserted;
+        long updated;
+        long rejected;
+
+        Import(Long restaurantId) {
+            this.restaurantId = restaurantId;
+            jdbcTemplate.query("select id, name from menu_items where restaurant_id = ?",
+                    rs -> { menuIds.put(rs.getString(2), rs.getLong(1)); }, restaurantId);
+        }
+
+        void add(MenuImportRow row) {
+            rowsRead++;
+            Object result = validate(row);
+            if (result instanceof Item item) {
+                batch.add(item);
+                if (batch.size() >= batchSize) {
+                    flush();
+                }
+            } else {
+                fail(row.line(), (String) result);
+            }
+        }
+
+        // A record that could not even be read as a row.
+        void reject(long line, String message) {
+            rowsRead++;
+            fail(line, message);
+        }
+
+        private void fail(long line, String message) {
+            rejectedRows.increment();
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new MenuImportResponse.RowError(line, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Item> items = batch;
+            batch = new ArrayList<>();
+
+            // Names new to this menu get ids from one reserved block; a name repeated in the
+            // batch is inserted once and then updated, so the last row wins
+            Set<String> newNames = new LinkedHashSet<>();
+            for (Item item : items) {
+                if (!menuIds.containsKey(item.name())) {
+                    newNames.add(item.name());
+                }
+            }
+            Map<String, Long> newIds = new HashMap<>();
+            if (!newNames.isEmpty()) {
+                long next = idRangeReserver.reserve(ID_SEGMENT, newNames.size());
+                for (String name : newNames) {
+                    newIds.put(name, next++);
+                }
+            }
+
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> updates = new ArrayList<>();
+            Set<String> insertedNames = new LinkedHashSet<>();
+            for (Item item : items) {
+                Long id = menuIds.get(item.name());
+                if (id == null && insertedNames.add(item.name())) {
+                    inserts.add(new Object[] { newIds.get(item.name()), item.name(), item.price(), item.description(),
+                            item.vegetarian(), item.image(), restaurantId });
+                } else {
+                    updates.add(new Object[] { item.price(), item.description(), item.vegetarian(), item.image(),
+                            id != null ? id : newIds.get(item.name()), restaurantId });
+                }
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!inserts.isEmpty()) {
+                        jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+                    }
+                    if (!updates.isEmpty()) {
+                        jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                    }
+                });
+            } catch (DataAccessException e) {
+                // The driver's message names tables and constraints; the uploader only learns
+                // that the batch failed
+                logger.warn("Menu import batch for restaurant {} not saved (lines {}-{}): {}", restaurantId,
+                        items.get(0).line(), items.get(items.size() - 1).line(), e.getMostSpecificCause().getMessage());
+                for (Item item : items) {
+                    fail(item.line(), "not saved: database error");
+                }
+                return;
+            }
+            menuIds.putAll(newIds);
+            inserted += inserts.size();
+            updated += updates.size();
+            insertedRows.increment(inserts.size());
+            updatedRows.increment(updates.size());
+        }
+
+        MenuImportResponse response() {
+            return new MenuImportResponse(rowsRead, inserted, updated, rejected, errors, rejected > errors.size());
+        }
+    }
+}
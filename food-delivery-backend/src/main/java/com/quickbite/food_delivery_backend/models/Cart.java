@@ -8,7 +8,9 @@ import java.util.List;
 @Table(name = "carts")
 public class Cart {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "carts_ids")
+    @TableGenerator(name = "carts_ids", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "carts", allocationSize = 50)
     private Long id;
 
     @OneToOne
@@ -10,7 +10,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class DeliveryInfo {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "delivery_info_ids")
+    @TableGenerator(name = "delivery_info_ids", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "delivery_info", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
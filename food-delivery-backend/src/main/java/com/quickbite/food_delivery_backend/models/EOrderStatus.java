@@ -6,5 +6,17 @@ public enum EOrderStatus {
     PREPARING,
     OUT_FOR_DELIVERY,
     DELIVERED,
-    CANCELLED
+    CANCELLED;
+
+    // Orders only move forward; they can be cancelled until they leave the kitchen, and
+    // DELIVERED and CANCELLED are final.
+    public boolean canTransitionTo(EOrderStatus next) {
+        return switch (this) {
+            case PENDING -> next == CONFIRMED || next == CANCELLED;
+            case CONFIRMED -> next == PREPARING || next == CANCELLED;
+            case PREPARING -> next == OUT_FOR_DELIVERY || next == CANCELLED;
+            case OUT_FOR_DELIVERY -> next == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
 }
@@ -0,0 +1,66 @@
+package com.quickbite.food_delivery_backend.models;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+// A request made with an Idempotency-Key and, once it finished, the response to replay.
+// Rows without a status belong to a request still being executed; the instance running it
+// keeps renewedAt current until the response is stored. The key is assigned, so
+// Persistable makes save() insert (and fail on a duplicate) instead of merging.
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord implements Persistable<String> {
+    @Id
+    @Column(length = 320)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private Integer status;
+
+    @Lob
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Null on rows claimed before leases were renewed; createdAt stands in for them
+    private Instant renewedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord() {}
+
+    public IdempotencyRecord(String id, String fingerprint, Instant createdAt) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.createdAt = createdAt;
+        this.renewedAt = createdAt;
+    }
+
+    @Override
+    public String getId() { return id; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { this.isNew = false; }
+
+    public String getFingerprint() { return fingerprint; }
+
+    public Integer getStatus() { return status; }
+    public void setStatus(Integer status) { this.status = status; }
+
+    public String getResponseBody() { return responseBody; }
+    public void setResponseBody(String responseBody) { this.responseBody = responseBody; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public Instant getRenewedAt() { return renewedAt; }
+}
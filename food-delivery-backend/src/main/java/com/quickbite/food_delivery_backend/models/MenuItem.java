@@ -1,13 +1,17 @@
 package com.quickbite.food_delivery_backend.models;
 
+import com.quickbite.food_delivery_backend.catalog.CatalogEntityListener;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
 @Table(name = "menu_items")
+@EntityListeners(CatalogEntityListener.class)
 public class MenuItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "menu_items_ids")
+    @TableGenerator(name = "menu_items_ids", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "menu_items", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
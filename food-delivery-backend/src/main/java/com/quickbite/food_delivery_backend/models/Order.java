@@ -1,15 +1,26 @@
 package com.quickbite.food_delivery_backend.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+       indexes = {
+           // Order history is read per user, newest first; InnoDB appends the primary key,
+           // which covers the id tie-breaker of the keyset cursor
+           @Index(name = "idx_orders_user_created", columnList = "user_id, created_at")
+       })
 public class Order {
+    // Ids come from id_generators in blocks of 50 (see IdGeneratorAligner); unlike IDENTITY
+    // this lets Hibernate batch an order's inserts into one round trip per table
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "orders_ids")
+    @TableGenerator(name = "orders_ids", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "orders", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -20,15 +31,31 @@ public class Order {
     @JoinColumn(name = "restaurant_id", nullable = false)
     private Restaurant restaurant;
 
+    // Set once by the dispatch engine, only while the order is CONFIRMED or PREPARING
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "rider_id")
+    private User rider;
+
+    private LocalDateTime assignedAt;
+
     private Double totalAmount;
 
     @Enumerated(EnumType.STRING)
     private EOrderStatus status;
 
     private LocalDateTime createdAt;
+
+    // Live estimate at checkout, from kitchen and rider load at the time
+    private LocalDateTime estimatedDeliveryAt;
     
     private String deliveryAddress;
 
+    // Restaurant and rider updates race on status; the loser retries against the new state
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
@@ -52,6 +79,12 @@ public class Order {
     public Restaurant getRestaurant() { return restaurant; }
     public void setRestaurant(Restaurant restaurant) { this.restaurant = restaurant; }
 
+    public User getRider() { return rider; }
+    public void setRider(User rider) { this.rider = rider; }
+
+    public LocalDateTime getAssignedAt() { return assignedAt; }
+    public void setAssignedAt(LocalDateTime assignedAt) { this.assignedAt = assignedAt; }
+
     public Double getTotalAmount() { return totalAmount; }
     public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
 
@@ -61,9 +94,14 @@ public class Order {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public LocalDateTime getEstimatedDeliveryAt() { return estimatedDeliveryAt; }
+    public void setEstimatedDeliveryAt(LocalDateTime estimatedDeliveryAt) { this.estimatedDeliveryAt = estimatedDeliveryAt; }
+
     public String getDeliveryAddress() { return deliveryAddress; }
     public void setDeliveryAddress(String deliveryAddress) { this.deliveryAddress = deliveryAddress; }
 
+    public Long getVersion() { return version; }
+
     public List<OrderItem> getItems() { return items; }
     public void setItems(List<OrderItem> items) { this.items = items; }
     
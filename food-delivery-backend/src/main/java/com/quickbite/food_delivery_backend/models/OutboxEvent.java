@@ -0,0 +1,52 @@
+package com.quickbite.food_delivery_backend.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// An event written in the same transaction as the change it describes. The relay publishes
+// rows in id order and deletes them once they are out.
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long restaurantId;
+
+    @Column(nullable = false, length = 50)
+    private String eventType;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(Long orderId, Long restaurantId, String eventType, String payload) {
+        this.orderId = orderId;
+        this.restaurantId = restaurantId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+
+    public Long getOrderId() { return orderId; }
+
+    public Long getRestaurantId() { return restaurantId; }
+
+    public String getEventType() { return eventType; }
+
+    public String getPayload() { return payload; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
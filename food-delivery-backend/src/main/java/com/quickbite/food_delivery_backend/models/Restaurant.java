@@ -1,14 +1,18 @@
 package com.quickbite.food_delivery_backend.models;
 
+import com.quickbite.food_delivery_backend.catalog.CatalogEntityListener;
 import jakarta.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "restaurants")
+@EntityListeners(CatalogEntityListener.class)
 public class Restaurant {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "restaurants_ids")
+    @TableGenerator(name = "restaurants_ids", table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = "restaurants", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -21,6 +25,18 @@ public class Restaurant {
     private String deliveryFee;
     private String discount;
 
+    @Column(length = 1000)
+    private String description;
+
+    private String address;
+
+    // WGS84 degrees; restaurants without them are left out of "near me" queries
+    private Double latitude;
+    private Double longitude;
+
+    // Matched against riders' DeliveryInfo.deliveryZone when dispatching; null means any zone
+    private String deliveryZone;
+
     @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<MenuItem> menu = new ArrayList<>();
 
@@ -66,6 +82,21 @@ public class Restaurant {
     public String getDiscount() { return discount; }
     public void setDiscount(String discount) { this.discount = discount; }
 
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public String getDeliveryZone() { return deliveryZone; }
+    public void setDeliveryZone(String deliveryZone) { this.deliveryZone = deliveryZone; }
+
     public List<MenuItem> getMenu() { return menu; }
     public void setMenu(List<MenuItem> menu) { this.menu = menu; }
 
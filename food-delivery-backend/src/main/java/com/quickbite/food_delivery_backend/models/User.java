@@ -1,6 +1,8 @@
 package com.quickbite.food_delivery_backend.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import java.time.Instant;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,13 +11,19 @@ import lombok.NoArgsConstructor;
 @Table(name = "users", 
        uniqueConstraints = { 
            @UniqueConstraint(columnNames = "email") 
+       },
+       indexes = {
+           // CredentialsEpochService reloads recent changes by this column
+           @Index(name = "idx_users_credentials_changed_at", columnList = "credentials_changed_at")
        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_ids")
+  @TableGenerator(name = "users_ids", table = "id_generators", pkColumnName = "name",
+          valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false)
@@ -35,8 +43,13 @@ public class User {
     private String avatarUrl;
     private String address;
 
-    public User() {
-    }
+    // Delivery address position in WGS84 degrees, when the client supplied one
+    private Double latitude;
+    private Double longitude;
+
+    // Tokens issued before this instant are rejected; null means no change since signup.
+    @JsonIgnore
+    private Instant credentialsChangedAt;
 
     public User(String fullName, String email, String password, ERole role) {
         this.fullName = fullName;
@@ -69,4 +82,13 @@ public class User {
 
     public String getAddress() { return address; }
     public void setAddress(String address) { this.address = address; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public Instant getCredentialsChangedAt() { return credentialsChangedAt; }
+    public void setCredentialsChangedAt(Instant credentialsChangedAt) { this.credentialsChangedAt = credentialsChangedAt; }
 }
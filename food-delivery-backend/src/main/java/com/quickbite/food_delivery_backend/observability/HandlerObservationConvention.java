@@ -0,0 +1,33 @@
+package com.quickbite.food_delivery_backend.observability;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Tags http.server.requests with the controller method that handled the request, e.g.
+// "OrderController#createOrder", so each endpoint has its own timer and histogram. Requests no
+// handler method served (404s, static resources) are tagged "none"; every timer carries the tag.
+@Component
+public class HandlerObservationConvention extends DefaultServerRequestObservationConvention {
+
+    static final String NO_HANDLER = "none";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        String handler = context.getCarrier() != null ? handlerName(context.getCarrier()) : NO_HANDLER;
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("handler", handler));
+    }
+
+    // Only known once the dispatcher has picked a handler, i.e. after the filter chain ran
+    static String handlerName(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        }
+        return NO_HANDLER;
+    }
+}
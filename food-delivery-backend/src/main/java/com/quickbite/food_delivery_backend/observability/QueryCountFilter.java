@@ -0,0 +1,101 @@
+package com.quickbite.food_delivery_backend.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Counts the statements each request runs, including those of the security chain it wraps.
+// Every total lands in sql.statements.per.request; a request that ran one statement
+// app.queryRepeatThreshold times or more is logged as a suspected N+1 with its endpoint and
+// counted in sql.requests.repeated. Both are tagged with the handler, as http.server.requests is.
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Query-Count";
+
+    // The request's tally, for assertions on the statements it ran
+    public static final String TALLY_ATTRIBUTE = QueryCountFilter.class.getName() + ".TALLY";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    @Autowired
+    private QueryCounter queryCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.queryRepeatThreshold}")
+    private int repeatThreshold;
+
+    // Debug aid; the count tells callers something about how each endpoint is implemented
+    @Value("${app.queryCountHeader}")
+    private boolean addHeader;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        QueryCounter.Tally tally = queryCounter.open();
+        request.setAttribute(TALLY_ATTRIBUTE, tally);
+        HttpServletResponse target = addHeader ? new CountingResponse(response, tally) : response;
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            tally.close();
+            if (addHeader && !response.isCommitted()) {
+                response.setIntHeader(HEADER, tally.total());
+            }
+            report(request, tally);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryCounter.Tally tally) {
+        String handler = HandlerObservationConvention.handlerName(request);
+        DistributionSummary.builder("sql.statements.per.request")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(tally.total());
+
+        Map<String, Integer> repeated = tally.repeated(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            Counter.builder("sql.requests.repeated").tag("handler", handler).register(meterRegistry).increment();
+            Map.Entry<String, Integer> worst = repeated.entrySet().iterator().next();
+            logger.warn("Suspected N+1 in {} ({} {}): {} statements, {} ran {} times",
+                    handler, request.getMethod(), request.getRequestURI(), tally.total(),
+                    worst.getKey(), worst.getValue());
+        }
+    }
+
+    // Sets the header just before the body starts going out, which is the last moment headers can change
+    private static final class CountingResponse extends OnCommittedResponseWrapper {
+
+        private final QueryCounter.Tally tally;
+
+        CountingResponse(HttpServletResponse response, QueryCounter.Tally tally) {
+            super(response);
+            this.tally = tally;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setIntHeader(HEADER, tally.total());
+        }
+    }
+}
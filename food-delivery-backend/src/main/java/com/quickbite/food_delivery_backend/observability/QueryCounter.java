@@ -0,0 +1,84 @@
+package com.quickbite.food_delivery_backend.observability;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Counts the SQL statements Hibernate prepares on the current thread while a Tally is open,
+// keeping how often each distinct statement ran so repeats (the N+1 shape: one query per row of
+// an earlier result) stand out. QueryCountFilter opens a tally per HTTP request; tallies nest, so
+// code that opens its own inside a request is counted by both. Work handed to other threads is
+// not attributed to the tally.
+@Component
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<Tally> current = new ThreadLocal<>();
+
+    public Tally open() {
+        Tally tally = new Tally(current.get());
+        current.set(tally);
+        return tally;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        for (Tally tally = current.get(); tally != null; tally = tally.parent) {
+            tally.record(sql);
+        }
+        return sql;
+    }
+
+    public static final class Tally implements AutoCloseable {
+
+        private final Tally parent;
+        // Bind parameters are placeholders here, so the same query for different rows is one key
+        private final Map<String, Integer> counts = new HashMap<>();
+        private int total;
+        private boolean closed;
+
+        private Tally(Tally parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            if (!closed) {
+                total++;
+                counts.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        public int total() {
+            return total;
+        }
+
+        // Statements that ran at least minTimes, most repeated first
+        public Map<String, Integer> repeated(int minTimes) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            counts.entrySet().stream()
+                    .filter(entry -> entry.getValue() >= minTimes)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            if (current.get() == this) {
+                // Skip ancestors closed out of order so a pooled thread does not keep them
+                Tally open = parent;
+                while (open != null && open.closed) {
+                    open = open.parent;
+                }
+                if (open == null) {
+                    current.remove();
+                } else {
+                    current.set(open);
+                }
+            }
+        }
+    }
+}
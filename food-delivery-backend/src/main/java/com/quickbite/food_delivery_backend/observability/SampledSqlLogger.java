@@ -0,0 +1,81 @@
+package com.quickbite.food_delivery_backend.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Replaces spring.jpa.show-sql: logs a sample of the SQL Hibernate prepares without writing on
+// the request thread. A sampled statement is offered to a bounded queue that a daemon thread
+// drains into this class's logger; when the queue is full the statement is dropped and counted.
+@Component
+public class SampledSqlLogger implements StatementInspector {
+
+    private static final Logger logger = LoggerFactory.getLogger(SampledSqlLogger.class);
+
+    @Value("${app.sqlLogSampleRate}")
+    private double sampleRate;
+
+    @Value("${app.sqlLogQueueSize}")
+    private int queueSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<String> queue;
+    private Thread writer;
+    private Counter sampled;
+    private Counter dropped;
+
+    @PostConstruct
+    void start() {
+        sampled = Counter.builder("sql.log.statements").tag("result", "sampled").register(meterRegistry);
+        dropped = Counter.builder("sql.log.statements").tag("result", "dropped").register(meterRegistry);
+        if (sampleRate <= 0) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        writer = new Thread(this::drain, "sql-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (queue != null && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            if (queue.offer(sql)) {
+                sampled.increment();
+            } else {
+                dropped.increment();
+            }
+        }
+        return sql;
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                logger.info("{}", queue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
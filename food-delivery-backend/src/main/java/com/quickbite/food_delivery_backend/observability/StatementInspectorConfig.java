@@ -0,0 +1,25 @@
+package com.quickbite.food_delivery_backend.observability;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+// Hibernate takes a single statement inspector; this chains every StatementInspector bean into it.
+@Configuration
+public class StatementInspectorConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectors(List<StatementInspector> inspectors) {
+        StatementInspector chain = sql -> {
+            for (StatementInspector inspector : inspectors) {
+                sql = inspector.inspect(sql);
+            }
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, chain);
+    }
+}
@@ -0,0 +1,13 @@
+package com.quickbite.food_delivery_backend.orderfeed;
+
+// One event on a restaurant's feed. The id is "<hub epoch>-<sequence>": sequences are per
+// restaurant and gap-free, and the epoch changes on restart, so a Last-Event-ID from an
+// earlier process is recognised instead of being matched against unrelated events.
+record OrderFeedEvent(String id, long sequence, String name, Object data) {
+
+    // Queued to subscribers that must reload their order list instead of replaying
+    static final OrderFeedEvent RESYNC = new OrderFeedEvent(null, -1, "resync", "{}");
+
+    // Sent as an SSE comment; keeps proxies from closing idle connections and surfaces dead ones
+    static final OrderFeedEvent HEARTBEAT = new OrderFeedEvent(null, -1, null, null);
+}
@@ -0,0 +1,396 @@
+package com.quickbite.food_delivery_backend.orderfeed;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-process fan-out of order events to restaurant SSE subscribers. Publishing never blocks
+// on a client: each subscriber has a bounded queue drained by a small dispatch pool, and a
+// subscriber whose queue overflows is disconnected rather than allowed to hold events back.
+// A send that blocks longer than orderFeedSendTimeoutMs (a client that stopped reading) gets
+// its subscriber evicted, and the pool borrows a thread until that write returns, so a few
+// stalled sockets cannot starve everyone else's queue.
+// Every restaurant keeps a window of recent events so a reconnecting client that sends
+// Last-Event-ID catches up; if it fell out of the window it is told to resync instead.
+@Service
+public class OrderFeedHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderFeedHub.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.orderFeedBufferSize:64}")
+    private int bufferSize;
+
+    @Value("${app.orderFeedReplaySize:256}")
+    private int replaySize;
+
+    @Value("${app.orderFeedTimeoutMs:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.orderFeedHeartbeatMs:15000}")
+    private long heartbeatMs;
+
+    @Value("${app.orderFeedDispatchThreads:2}")
+    private int dispatchThreads;
+
+    @Value("${app.orderFeedSendTimeoutMs:5000}")
+    private long sendTimeoutMs;
+
+    private final Map<Long, Topic> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    // Distinguishes this process's event ids from those handed out before a restart
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private ThreadPoolExecutor dispatcher;
+    private ScheduledExecutorService heartbeats;
+    private Counter published;
+    private Counter dropped;
+    private Counter evicted;
+    private Counter replayed;
+    private Counter resyncs;
+
+    @PostConstruct
+    void start() {
+        published = Counter.builder("order.feed.published").register(meterRegistry);
+        dropped = Counter.builder("order.feed.dropped").register(meterRegistry);
+        evicted = Counter.builder("order.feed.evicted").register(meterRegistry);
+        replayed = Counter.builder("order.feed.replayed").register(meterRegistry);
+        resyncs = Counter.builder("order.feed.resyncs").register(meterRegistry);
+        Gauge.builder("order.feed.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        dispatcher = new ThreadPoolExecutor(dispatchThreads, dispatchThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "order-feed-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long stallCheckMs = Math.max(1, sendTimeoutMs / 2);
+        heartbeats.scheduleWithFixedDelay(this::evictStalled, stallCheckMs, stallCheckMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        heartbeats.shutdownNow();
+        for (Topic topic : topics.values()) {
+            List<Subscriber> subscribers;
+            synchronized (topic) {
+                subscribers = new ArrayList<>(topic.subscribers);
+            }
+            subscribers.forEach(subscriber -> close(subscriber, false));
+        }
+        dispatcher.shutdown();
+    }
+
+    // lastEventId is the client's Last-Event-ID, or null on a first connection.
+    public SseEmitter subscribe(Long restaurantId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Topic topic = topics.computeIfAbsent(restaurantId, id -> new Topic());
+        Subscriber subscriber = new Subscriber(topic, emitter, bufferSize);
+
+        emitter.onCompletion(() -> close(subscriber, false));
+        emitter.onTimeout(() -> close(subscriber, false));
+        emitter.onError(error -> close(subscriber, false));
+
+        // Replay and registration happen under the topic lock, so no event published in
+        // between can be missed or delivered twice
+        synchronized (topic) {
+            List<OrderFeedEvent> missed = topic.since(epoch, lastEventId);
+            if (missed == null || missed.size() > bufferSize) {
+                subscriber.queue.offer(OrderFeedEvent.RESYNC);
+                resyncs.increment();
+            } else {
+                subscriber.queue.addAll(missed);
+                replayed.increment(missed.size());
+            }
+            // Commits the response headers even when there is nothing to send yet
+            subscriber.queue.offer(OrderFeedEvent.HEARTBEAT);
+            topic.subscribers.add(subscriber);
+        }
+        subscriberCount.incrementAndGet();
+        schedule(subscriber);
+        return emitter;
+    }
+
+    // Inside a transaction the event is held back until commit, so subscribers never see an
+    // order that was rolled back.
+    public void publish(Long restaurantId, String name, Object data) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishNow(restaurantId, name, data);
+                }
+            });
+        } else {
+            publishNow(restaurantId, name, data);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void publishNow(Long restaurantId, String name, Object data) {
+        Topic topic = topics.computeIfAbsent(restaurantId, id -> new Topic());
+        List<Subscriber> ready;
+        List<Subscriber> overflowing = new ArrayList<>();
+        synchronized (topic) {
+            long sequence = ++topic.lastSequence;
+            OrderFeedEvent event = new OrderFeedEvent(epoch + "-" + sequence, sequence, name, data);
+            topic.recent.addLast(event);
+            if (topic.recent.size() > replaySize) {
+                topic.recent.removeFirst();
+            }
+            ready = new ArrayList<>(topic.subscribers.size());
+            for (Subscriber subscriber : topic.subscribers) {
+                if (subscriber.queue.offer(event)) {
+                    ready.add(subscriber);
+                } else {
+                    overflowing.add(subscriber);
+                }
+            }
+        }
+        published.increment();
+        overflowing.forEach(this::evict);
+        ready.forEach(this::schedule);
+    }
+
+    private void sendHeartbeats() {
+        for (Topic topic : topics.values()) {
+            List<Subscriber> ready = new ArrayList<>();
+            List<Subscriber> overflowing = new ArrayList<>();
+            synchronized (topic) {
+                for (Subscriber subscriber : topic.subscribers) {
+                    if (subscriber.queue.offer(OrderFeedEvent.HEARTBEAT)) {
+                        ready.add(subscriber);
+                    } else {
+                        overflowing.add(subscriber);
+                    }
+                }
+            }
+            overflowing.forEach(this::evict);
+            ready.forEach(this::schedule);
+        }
+    }
+
+    private void evictStalled() {
+        long now = System.nanoTime();
+        for (Topic topic : topics.values()) {
+            List<Subscriber> stalled = new ArrayList<>();
+            synchronized (topic) {
+                for (Subscriber subscriber : topic.subscribers) {
+                    if (isStalled(subscriber, now)) {
+                        stalled.add(subscriber);
+                    }
+                }
+            }
+            stalled.forEach(this::evictStalled);
+        }
+    }
+
+    private boolean isStalled(Subscriber subscriber, long now) {
+        long started = subscriber.sendStartedAt;
+        return started != 0 && now - started > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+    }
+
+    // The emitter cannot be completed from here while the send is blocked: completion waits
+    // for the emitter's lock. Whichever of this thread and the draining thread sees the send
+    // finish completes it; until then the pool runs one thread more so other subscribers keep
+    // moving.
+    private void evictStalled(Subscriber subscriber) {
+        if (!subscriber.stalled.compareAndSet(false, true)) {
+            return;
+        }
+        int queued = subscriber.queue.size();
+        dropped.increment(queued);
+        evicted.increment();
+        logger.warn("Disconnecting order feed subscriber whose send has been blocked for over {} ms", sendTimeoutMs);
+        close(subscriber, false);
+        resizeDispatcher(1);
+        subscriber.borrowedThread.set(true);
+        if (subscriber.sendStartedAt == 0) {
+            finishStalled(subscriber);
+        }
+    }
+
+    private void finishStalled(Subscriber subscriber) {
+        if (subscriber.borrowedThread.compareAndSet(true, false)) {
+            resizeDispatcher(-1);
+            subscriber.emitter.complete();
+        }
+    }
+
+    private synchronized void resizeDispatcher(int delta) {
+        int size = dispatcher.getCorePoolSize() + delta;
+        if (delta > 0) {
+            dispatcher.setMaximumPoolSize(size);
+            dispatcher.setCorePoolSize(size);
+        } else {
+            dispatcher.setCorePoolSize(size);
+            dispatcher.setMaximumPoolSize(size);
+        }
+    }
+
+    // The client reconnects on its own and picks up what it missed from the replay window.
+    private void evict(Subscriber subscriber) {
+        int queued = subscriber.queue.size();
+        dropped.increment(queued + 1);
+        evicted.increment();
+        logger.warn("Disconnecting slow order feed subscriber with {} undelivered events", queued);
+        close(subscriber, true);
+    }
+
+    private void close(Subscriber subscriber, boolean complete) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (subscriber.topic) {
+            subscriber.topic.subscribers.remove(subscriber);
+        }
+        subscriber.queue.clear();
+        subscriberCount.decrementAndGet();
+        if (complete) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (isStalled(subscriber, System.nanoTime())) {
+            evictStalled(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // At most one drain per subscriber runs at a time, which keeps its events in order.
+    private void drain(Subscriber subscriber) {
+        do {
+            OrderFeedEvent event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                subscriber.sendStartedAt = System.nanoTime();
+                try {
+                    subscriber.emitter.send(toSse(event));
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; the completion callback may not fire for a broken socket
+                    close(subscriber, false);
+                    return;
+                } finally {
+                    subscriber.sendStartedAt = 0;
+                    if (subscriber.stalled.get()) {
+                        finishStalled(subscriber);
+                    }
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.closed.get() && !subscriber.queue.isEmpty()
+                && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(OrderFeedEvent event) {
+        if (event == OrderFeedEvent.HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name()).data(event.data(), MediaType.APPLICATION_JSON);
+        if (event.id() != null) {
+            builder.id(event.id());
+        }
+        return builder;
+    }
+
+    // Guarded by its own monitor.
+    private static final class Topic {
+        long lastSequence;
+        final ArrayDeque<OrderFeedEvent> recent = new ArrayDeque<>();
+        final List<Subscriber> subscribers = new ArrayList<>();
+
+        // Events after the given id; empty for a first connection, null when the id cannot
+        // be resumed from (another epoch, malformed, or older than the window).
+        List<OrderFeedEvent> since(String epoch, String lastEventId) {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return List.of();
+            }
+            int dash = lastEventId.lastIndexOf('-');
+            if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+                return null;
+            }
+            long sequence;
+            try {
+                sequence = Long.parseLong(lastEventId.substring(dash + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            long oldest = recent.isEmpty() ? lastSequence + 1 : recent.peekFirst().sequence();
+            if (sequence < oldest - 1 || sequence > lastSequence) {
+                return null;
+            }
+            List<OrderFeedEvent> missed = new ArrayList<>();
+            for (OrderFeedEvent event : recent) {
+                if (event.sequence() > sequence) {
+                    missed.add(event);
+                }
+            }
+            return missed;
+        }
+    }
+
+    private static final class Subscriber {
+        final Topic topic;
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<OrderFeedEvent> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final AtomicBoolean stalled = new AtomicBoolean();
+        final AtomicBoolean borrowedThread = new AtomicBoolean();
+        // System.nanoTime() when the send in progress started, 0 between sends
+        volatile long sendStartedAt;
+
+        Subscriber(Topic topic, SseEmitter emitter, int bufferSize) {
+            this.topic = topic;
+            this.emitter = emitter;
+            // Room for the heartbeat queued alongside a full replay
+            this.queue = new ArrayBlockingQueue<>(bufferSize + 1);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.quickbite.food_delivery_backend.orders;
+
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Order status changes. Each attempt is its own transaction (see OrderStatusWriter); when a
+// concurrent update wins the version check, the change is retried against the fresh state,
+// where it is either still legal, already done, or rejected as an illegal transition.
+@Service
+public class OrderLifecycleService {
+
+    @Autowired
+    private OrderStatusWriter writer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.orderTransitionMaxAttempts:4}")
+    private int maxAttempts;
+
+    @Value("${app.orderTransitionBackoffMs:10}")
+    private long backoffMs;
+
+    private Counter conflicts;
+
+    @PostConstruct
+    void start() {
+        conflicts = Counter.builder("order.transition.conflicts").register(meterRegistry);
+    }
+
+    // Returns false when the order already had the requested status. Throws
+    // OrderTransitionException for an illegal transition and OptimisticLockingFailureException
+    // when every attempt lost to a concurrent update.
+    public boolean transition(Long orderId, EOrderStatus next) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return writer.apply(orderId, next);
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Jittered so that racing writers do not collide again on the retry
+    private void backOff(int attempt) {
+        if (backoffMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMs * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
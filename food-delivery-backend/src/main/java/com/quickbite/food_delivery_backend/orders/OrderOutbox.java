@@ -0,0 +1,32 @@
+package com.quickbite.food_delivery_backend.orders;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickbite.food_delivery_backend.models.OutboxEvent;
+import com.quickbite.food_delivery_backend.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Appends order events to the outbox. Must run inside the transaction that makes the change,
+// so the event exists exactly when the change does.
+@Component
+public class OrderOutbox {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long orderId, Long restaurantId, String eventType, Object payload) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(orderId, restaurantId, eventType,
+                    objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error: Could not serialize " + eventType + " event.", e);
+        }
+    }
+}
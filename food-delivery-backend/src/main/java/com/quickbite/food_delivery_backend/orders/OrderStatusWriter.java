@@ -0,0 +1,49 @@
+package com.quickbite.food_delivery_backend.orders;
+
+import com.quickbite.food_delivery_backend.events.OrderEventBus;
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+import com.quickbite.food_delivery_backend.models.Order;
+import com.quickbite.food_delivery_backend.payload.response.OrderStatusUpdate;
+import com.quickbite.food_delivery_backend.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// One attempt at a status change: a short transaction that reads the order, checks the
+// transition, and writes the new status and its outbox row together. No row lock is held
+// between the read and the write; the version check at flush time catches a concurrent change.
+@Component
+public class OrderStatusWriter {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderOutbox orderOutbox;
+
+    @Autowired
+    private OrderEventBus orderEventBus;
+
+    // Returns false when the order already has the requested status.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean apply(Long orderId, EOrderStatus next) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new RuntimeException("Error: Order not found."));
+
+        EOrderStatus current = order.getStatus();
+        if (current == next) {
+            return false;
+        }
+        if (current == null || !current.canTransitionTo(next)) {
+            throw new OrderTransitionException(current, next);
+        }
+
+        order.setStatus(next);
+        orderRepository.saveAndFlush(order);
+        orderOutbox.append(order.getId(), order.getRestaurant().getId(), "order-status",
+                new OrderStatusUpdate(order.getId(), next));
+        orderEventBus.statusChanged(order, current);
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.quickbite.food_delivery_backend.orders;
+
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+
+// The requested status is not reachable from the order's current status.
+public class OrderTransitionException extends RuntimeException {
+
+    private final EOrderStatus from;
+    private final EOrderStatus to;
+
+    public OrderTransitionException(EOrderStatus from, EOrderStatus to) {
+        super("Error: Cannot change order status from " + from + " to " + to + ".");
+        this.from = from;
+        this.to = to;
+    }
+
+    public EOrderStatus getFrom() { return from; }
+
+    public EOrderStatus getTo() { return to; }
+}
@@ -0,0 +1,113 @@
+package com.quickbite.food_delivery_backend.orders;
+
+import com.quickbite.food_delivery_backend.models.OutboxEvent;
+import com.quickbite.food_delivery_backend.orderfeed.OrderFeedHub;
+import com.quickbite.food_delivery_backend.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Moves outbox rows to the order feed in batches: one select and one delete per batch. Events
+// are handed to the feed only after the delete commits, so a failed batch is retried in full
+// and nothing is published twice by this process. Rows are locked with SKIP LOCKED, so with
+// several instances each row is relayed by exactly one of them.
+//
+// Single-instance limit: an event reaches only the local OrderFeedHub of the instance that
+// relayed it. Restaurant tablets connected to another instance miss it. Running the live feed
+// on more than one instance needs cross-instance fan-out (e.g. a shared broker), which is not
+// built.
+@Service
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderFeedHub orderFeedHub;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.outboxRelayIntervalMs:200}")
+    private long intervalMs;
+
+    @Value("${app.outboxRelayBatchSize:100}")
+    private int batchSize;
+
+    private ScheduledExecutorService relay;
+    private Counter relayed;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void start() {
+        relayed = Counter.builder("order.outbox.relayed").register(meterRegistry);
+        batchTimer = Timer.builder("order.outbox.batch.duration").register(meterRegistry);
+
+        relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relay.scheduleWithFixedDelay(this::relayQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        relay.shutdown();
+    }
+
+    // Drains the outbox, a batch at a time. Returns the number of events relayed.
+    public int relayPending() {
+        int total = 0;
+        int relayedNow;
+        do {
+            relayedNow = batchTimer.record(this::relayBatch);
+            total += relayedNow;
+        } while (relayedNow == batchSize);
+        return total;
+    }
+
+    private int relayBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.findOldest(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            // Deferred by the hub until this transaction commits
+            for (OutboxEvent event : batch) {
+                orderFeedHub.publish(event.getRestaurantId(), event.getEventType(), event.getPayload());
+            }
+            outboxEventRepository.deleteAllInBatch(batch);
+            return batch.size();
+        });
+        relayed.increment(count);
+        return count;
+    }
+
+    private void relayQuietly() {
+        try {
+            relayPending();
+        } catch (RuntimeException e) {
+            logger.error("Outbox relay failed: {}", e.getMessage());
+        }
+    }
+}
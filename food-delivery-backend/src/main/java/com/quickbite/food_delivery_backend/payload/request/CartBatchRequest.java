@@ -0,0 +1,14 @@
+package com.quickbite.food_delivery_backend.payload.request;
+
+import java.util.List;
+
+public class CartBatchRequest {
+    private Long userId;
+    private List<CartOperationRequest> operations;
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public List<CartOperationRequest> getOperations() { return operations; }
+    public void setOperations(List<CartOperationRequest> operations) { this.operations = operations; }
+}
@@ -0,0 +1,19 @@
+package com.quickbite.food_delivery_backend.payload.request;
+
+public class CartOperationRequest {
+    public enum Type { ADD, SET_QUANTITY, REMOVE }
+
+    private Type type;
+    private Long menuItemId;
+    // ADD: how many to add (at least 1). SET_QUANTITY: the new quantity, 0 removes the line.
+    private Integer quantity;
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Long getMenuItemId() { return menuItemId; }
+    public void setMenuItemId(Long menuItemId) { this.menuItemId = menuItemId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
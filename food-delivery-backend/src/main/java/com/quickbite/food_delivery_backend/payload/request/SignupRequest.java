@@ -30,6 +30,8 @@ public class SignupRequest {
     private String state;
     private String postalCode;
     private String country;
+    private Double latitude;
+    private Double longitude;
     
     // Restaurant Details
     private String businessName;
@@ -0,0 +1,11 @@
+package com.quickbite.food_delivery_backend.payload.response;
+
+import java.util.List;
+
+// Outcome of a menu import. Only the first errors are listed; rejected counts them all.
+public record MenuImportResponse(long rowsRead, long inserted, long updated, long rejected,
+                                 List<RowError> errors, boolean errorsTruncated) {
+
+    public record RowError(long line, String message) {
+    }
+}
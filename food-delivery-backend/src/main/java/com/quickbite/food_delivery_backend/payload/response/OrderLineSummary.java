@@ -0,0 +1,21 @@
+package com.quickbite.food_delivery_backend.payload.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public record OrderLineSummary(@JsonIgnore Long orderId,
+                               Long id,
+                               MenuItemSummary menuItem,
+                               Integer quantity,
+                               Double price,
+                               Double lineTotal) {
+
+    public record MenuItemSummary(Long id, String name, String image) {
+    }
+
+    // Used by the JPQL constructor expression.
+    public OrderLineSummary(Long orderId, Long id, Long menuItemId, String name, String image,
+                            Integer quantity, Double price) {
+        this(orderId, id, new MenuItemSummary(menuItemId, name, image), quantity, price,
+                price != null && quantity != null ? price * quantity : null);
+    }
+}
@@ -0,0 +1,6 @@
+package com.quickbite.food_delivery_backend.payload.response;
+
+import java.time.LocalDateTime;
+
+public record OrderPlacedResponse(String message, Long orderId, int estimatedMinutes, LocalDateTime estimatedDeliveryAt) {
+}
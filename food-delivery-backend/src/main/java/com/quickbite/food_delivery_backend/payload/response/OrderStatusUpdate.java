@@ -0,0 +1,6 @@
+package com.quickbite.food_delivery_backend.payload.response;
+
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+
+public record OrderStatusUpdate(Long orderId, EOrderStatus status) {
+}
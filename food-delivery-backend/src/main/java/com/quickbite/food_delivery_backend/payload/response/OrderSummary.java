@@ -0,0 +1,26 @@
+package com.quickbite.food_delivery_backend.payload.response;
+
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Lean order-history row: no User, no Restaurant menu, no MenuItem entities.
+public record OrderSummary(Long id,
+                           LocalDateTime createdAt,
+                           EOrderStatus status,
+                           Double totalAmount,
+                           Long restaurantId,
+                           String restaurantName,
+                           List<OrderLineSummary> items) {
+
+    // Used by the JPQL constructor expression; lines are attached afterwards.
+    public OrderSummary(Long id, LocalDateTime createdAt, EOrderStatus status, Double totalAmount,
+                        Long restaurantId, String restaurantName) {
+        this(id, createdAt, status, totalAmount, restaurantId, restaurantName, List.of());
+    }
+
+    public OrderSummary withItems(List<OrderLineSummary> items) {
+        return new OrderSummary(id, createdAt, status, totalAmount, restaurantId, restaurantName, List.copyOf(items));
+    }
+}
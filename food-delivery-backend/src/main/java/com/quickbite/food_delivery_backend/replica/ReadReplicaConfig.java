@@ -0,0 +1,96 @@
+package com.quickbite.food_delivery_backend.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replaces the auto-configured datasource when app.replicaUrls is set: work run through
+// ReplicaReads reads from the replicas, everything else uses spring.datasource.*. Replica reads
+// may trail the primary's latest commits by up to app.replicaMaxLagSeconds, so only reads that
+// can tolerate that opt in.
+@Configuration
+@ConditionalOnExpression("!'${app.replicaUrls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Value("${app.replicaUrls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.replicaUsername}")
+    private String replicaUsername;
+
+    @Value("${app.replicaPassword}")
+    private String replicaPassword;
+
+    @Value("${app.replicaPoolSize}")
+    private int replicaPoolSize;
+
+    @Value("${app.replicaMaxLagSeconds}")
+    private long maxLagSeconds;
+
+    @Value("${app.replicaHealthCheckMs}")
+    private long healthCheckMs;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaLagProbe replicaLagProbe() {
+        return ReplicaLagProbe.MYSQL;
+    }
+
+    @Bean
+    public ReplicaRouter replicaRouter(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                       ReplicaLagProbe replicaLagProbe, MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            // A replica that cannot hand out a connection within a second is treated as down
+            replica.setConnectionTimeout(1000);
+            // Opened on first use, so an unreachable replica does not stop the application starting
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        return new ReplicaRouter(primaryDataSource, replicas, replicaLagProbe, maxLagSeconds, healthCheckMs,
+                meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        return new LazyConnectionDataSourceProxy(replicaRouter);
+    }
+
+    // Hibernate otherwise keeps a request's connection across transactions under open-in-view,
+    // and a replica connection taken for a read-only transaction would serve later writes
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -0,0 +1,29 @@
+package com.quickbite.food_delivery_backend.replica;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Asks a replica how far it is behind the primary. Throwing takes the replica out of rotation
+// until a later check succeeds.
+@FunctionalInterface
+public interface ReplicaLagProbe {
+
+    long secondsBehind(Connection replica) throws SQLException;
+
+    // MySQL 8.0.22+; the replica user needs the REPLICATION CLIENT privilege
+    ReplicaLagProbe MYSQL = replica -> {
+        try (Statement statement = replica.createStatement();
+             ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!status.next()) {
+                throw new SQLException("Error: Not configured as a replica.");
+            }
+            long seconds = status.getLong("Seconds_Behind_Source");
+            if (status.wasNull()) {
+                throw new SQLException("Error: Replication is not running.");
+            }
+            return seconds;
+        }
+    };
+}
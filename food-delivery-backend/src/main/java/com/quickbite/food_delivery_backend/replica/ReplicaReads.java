@@ -0,0 +1,42 @@
+package com.quickbite.food_delivery_backend.replica;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+// The only way onto a replica: work passed to execute() runs in a read-only transaction that
+// ReplicaRouter may serve from a replica, so it can trail the primary by up to
+// app.replicaMaxLagSeconds. Every other read, including Spring Data's default read-only
+// repository transactions, goes to the primary and sees the latest commits. Without replicas
+// configured this is just a read-only transaction.
+@Component
+public class ReplicaReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private final TransactionTemplate readOnly;
+
+    public ReplicaReads(PlatformTransactionManager transactionManager) {
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    // Joins a transaction already in progress, whose connection (primary or not) it keeps.
+    public <T> T execute(Supplier<T> work) {
+        if (ACTIVE.get() != null) {
+            return readOnly.execute(status -> work.get());
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return readOnly.execute(status -> work.get());
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
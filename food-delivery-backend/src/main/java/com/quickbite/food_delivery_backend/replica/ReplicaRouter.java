@@ -0,0 +1,146 @@
+package com.quickbite.food_delivery_backend.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hands out primary connections, except for read-only transactions opened through ReplicaReads,
+// which take turns across the replicas. A replica is only used after a health check found it reachable and no more than
+// maxLagSeconds behind; one that fails to hand out a connection is ejected on the spot. When no
+// replica qualifies the read goes to the primary. Must sit behind a LazyConnectionDataSourceProxy,
+// which defers the choice until the transaction's read-only flag is known.
+public class ReplicaRouter extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaLagProbe lagProbe;
+    private final long maxLagSeconds;
+    private final long healthCheckMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+    private ScheduledExecutorService healthChecker;
+
+    public ReplicaRouter(HikariDataSource primary, List<HikariDataSource> replicas, ReplicaLagProbe lagProbe,
+                         long maxLagSeconds, long healthCheckMs, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(dataSource -> new Replica(dataSource, meterRegistry)).toList();
+        this.lagProbe = lagProbe;
+        this.maxLagSeconds = maxLagSeconds;
+        this.healthCheckMs = healthCheckMs;
+        this.replicaReads = Counter.builder("datasource.reads").tag("target", "replica").register(meterRegistry);
+        this.primaryReads = Counter.builder("datasource.reads").tag("target", "primary").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        healthChecker.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReplicaReads.isActive() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.usable(maxLagSeconds)) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                replica.eject(e);
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    // Explicit credentials are for administrative connections, which belong on the primary
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // Runs on the health thread; public so tests can force a check
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                replica.admit(lagProbe.secondsBehind(connection));
+            } catch (SQLException | RuntimeException e) {
+                replica.eject(e);
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource dataSource;
+        private final Counter ejections;
+        private volatile boolean healthy;
+        private volatile long lagSeconds = -1;
+
+        Replica(HikariDataSource dataSource, MeterRegistry meterRegistry) {
+            this.dataSource = dataSource;
+            this.ejections = Counter.builder("datasource.replica.ejections")
+                    .tag("replica", dataSource.getPoolName()).register(meterRegistry);
+            Gauge.builder("datasource.replica.lag", this, replica -> replica.healthy ? replica.lagSeconds : Double.NaN)
+                    .tag("replica", dataSource.getPoolName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+
+        boolean usable(long maxLagSeconds) {
+            return healthy && lagSeconds <= maxLagSeconds;
+        }
+
+        void admit(long lagSeconds) {
+            this.lagSeconds = lagSeconds;
+            if (!healthy) {
+                logger.info("Replica {} in rotation, {}s behind", dataSource.getPoolName(), lagSeconds);
+                healthy = true;
+            }
+        }
+
+        void eject(Exception cause) {
+            if (healthy) {
+                logger.warn("Replica {} out of rotation: {}", dataSource.getPoolName(), cause.getMessage());
+                ejections.increment();
+                healthy = false;
+            }
+        }
+    }
+}
@@ -2,11 +2,18 @@ package com.quickbite.food_delivery_backend.repository;
 
 import com.quickbite.food_delivery_backend.models.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
+
+    @Query("select distinct c from Cart c join fetch c.user u left join fetch c.items i left join fetch i.menuItem where u.id in :userIds")
+    List<Cart> findAllWithItemsByUserIdIn(@Param("userIds") Collection<Long> userIds);
 }
@@ -2,11 +2,17 @@ package com.quickbite.food_delivery_backend.repository;
 
 import com.quickbite.food_delivery_backend.models.DeliveryInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DeliveryInfoRepository extends JpaRepository<DeliveryInfo, Long> {
     Optional<DeliveryInfo> findByUserId(Long userId);
+
+    // [userId, deliveryZone, vehicleType] for every rider, without loading the users.
+    @Query("select d.user.id, d.deliveryZone, d.vehicleType from DeliveryInfo d")
+    List<Object[]> findRiderProfiles();
 }
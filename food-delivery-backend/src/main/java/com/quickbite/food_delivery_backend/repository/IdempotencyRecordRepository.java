@@ -0,0 +1,43 @@
+package com.quickbite.food_delivery_backend.repository;
+
+import com.quickbite.food_delivery_backend.models.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+
+    // Replaces the row only while it is still the one the caller read, so two requests taking
+    // over the same expired or abandoned claim cannot both win
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.fingerprint = :fingerprint, r.createdAt = :createdAt, "
+            + "r.renewedAt = :createdAt, r.status = null, r.responseBody = null "
+            + "where r.id = :id and r.createdAt = :previous")
+    int takeOver(@Param("id") String id, @Param("previous") Instant previous,
+                 @Param("fingerprint") String fingerprint, @Param("createdAt") Instant createdAt);
+
+    // Both match on createdAt, so an owner whose claim was taken over cannot touch the new one
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.renewedAt = :renewedAt where r.id = :id and r.createdAt = :createdAt")
+    int renew(@Param("id") String id, @Param("createdAt") Instant createdAt, @Param("renewedAt") Instant renewedAt);
+
+    @Modifying
+    @Transactional
+    @Query("update IdempotencyRecord r set r.status = :status, r.responseBody = :responseBody "
+            + "where r.id = :id and r.createdAt = :createdAt")
+    int complete(@Param("id") String id, @Param("createdAt") Instant createdAt,
+                 @Param("status") Integer status, @Param("responseBody") String responseBody);
+}
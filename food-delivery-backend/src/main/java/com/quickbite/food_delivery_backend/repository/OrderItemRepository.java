@@ -1,9 +1,20 @@
 package com.quickbite.food_delivery_backend.repository;
 
 import com.quickbite.food_delivery_backend.models.OrderItem;
+import com.quickbite.food_delivery_backend.payload.response.OrderLineSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    @Query("select new com.quickbite.food_delivery_backend.payload.response.OrderLineSummary("
+            + "i.order.id, i.id, m.id, m.name, m.image, i.quantity, i.price) "
+            + "from OrderItem i join i.menuItem m where i.order.id in :orderIds order by i.id")
+    List<OrderLineSummary> findLineSummariesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
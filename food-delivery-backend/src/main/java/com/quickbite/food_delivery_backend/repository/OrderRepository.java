@@ -1,13 +1,50 @@
 package com.quickbite.food_delivery_backend.repository;
 
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
 import com.quickbite.food_delivery_backend.models.Order;
+import com.quickbite.food_delivery_backend.payload.response.OrderSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserIdOrderByCreatedAtDesc(Long userId);
     List<Order> findByRestaurantIdOrderByCreatedAtDesc(Long restaurantId);
+
+    // Keyset pages over (createdAt, id), newest first; served by idx_orders_user_created.
+    @Query("select new com.quickbite.food_delivery_backend.payload.response.OrderSummary("
+            + "o.id, o.createdAt, o.status, o.totalAmount, r.id, r.name) "
+            + "from Order o join o.restaurant r where o.user.id = :userId "
+            + "order by o.createdAt desc, o.id desc")
+    List<OrderSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select new com.quickbite.food_delivery_backend.payload.response.OrderSummary("
+            + "o.id, o.createdAt, o.status, o.totalAmount, r.id, r.name) "
+            + "from Order o join o.restaurant r where o.user.id = :userId "
+            + "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id)) "
+            + "order by o.createdAt desc, o.id desc")
+    List<OrderSummary> findSummariesByUserIdBefore(@Param("userId") Long userId,
+                                                   @Param("createdAt") LocalDateTime createdAt,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+
+    // [orderId, riderId] for orders a rider is still working on.
+    @Query("select o.id, o.rider.id from Order o where o.rider is not null and o.status in :statuses")
+    List<Object[]> findRiderAssignments(@Param("statuses") Collection<EOrderStatus> statuses);
+
+    // [orderId, restaurantId, totalAmount] for orders still waiting for a rider, oldest first.
+    @Query("select o.id, o.restaurant.id, o.totalAmount from Order o "
+            + "where o.rider is null and o.status in :statuses order by o.id")
+    List<Object[]> findUnassigned(@Param("statuses") Collection<EOrderStatus> statuses, Pageable pageable);
+
+    // [restaurantId, count] of orders in the given statuses, per restaurant.
+    @Query("select o.restaurant.id, count(o) from Order o where o.status in :statuses group by o.restaurant.id")
+    List<Object[]> countByRestaurant(@Param("statuses") Collection<EOrderStatus> statuses);
 }
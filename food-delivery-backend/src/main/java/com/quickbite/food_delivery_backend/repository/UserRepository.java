@@ -1,8 +1,12 @@
 package com.quickbite.food_delivery_backend.repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.quickbite.food_delivery_backend.models.User;
@@ -12,4 +16,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByEmail(String email);
 
   Boolean existsByEmail(String email);
+
+  @Query("select u.id, u.credentialsChangedAt from User u where u.credentialsChangedAt is not null")
+  List<Object[]> findCredentialsChangedAt();
+
+  @Query("select u.id, u.credentialsChangedAt from User u where u.credentialsChangedAt >= :since")
+  List<Object[]> findCredentialsChangedSince(@Param("since") Instant since);
 }
@@ -0,0 +1,98 @@
+package com.quickbite.food_delivery_backend.search;
+
+import java.util.Arrays;
+
+// Immutable posting list for one term: document ordinals sorted ascending, with the term
+// weight and a bitmask of the fields the term occurs in. Updates return a new instance.
+final class Postings {
+
+    final int[] ordinals;
+    final float[] weights;
+    final byte[] fields;
+
+    // Positions by weight descending, then ordinal; built on first use. Racing threads build
+    // identical arrays, so the unsynchronized cache is benign.
+    private int[] byImpact;
+
+    Postings(int[] ordinals, float[] weights, byte[] fields) {
+        this.ordinals = ordinals;
+        this.weights = weights;
+        this.fields = fields;
+    }
+
+    static Postings of(int ordinal, float weight, byte field) {
+        return new Postings(new int[] { ordinal }, new float[] { weight }, new byte[] { field });
+    }
+
+    int size() {
+        return ordinals.length;
+    }
+
+    int[] byImpact() {
+        int[] order = byImpact;
+        if (order == null) {
+            // Weights are positive, so their bit patterns sort like the floats themselves
+            long[] keys = new long[ordinals.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = ((long) (Integer.MAX_VALUE - Float.floatToRawIntBits(weights[i])) << 32) | i;
+            }
+            Arrays.sort(keys);
+            order = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                order[i] = (int) keys[i];
+            }
+            byImpact = order;
+        }
+        return order;
+    }
+
+    Postings with(int ordinal, float weight, byte field) {
+        int index = Arrays.binarySearch(ordinals, ordinal);
+        if (index >= 0) {
+            float[] newWeights = weights.clone();
+            byte[] newFields = fields.clone();
+            newWeights[index] = weight;
+            newFields[index] = field;
+            return new Postings(ordinals, newWeights, newFields);
+        }
+
+        int insertAt = -index - 1;
+        int size = ordinals.length;
+        int[] newOrdinals = new int[size + 1];
+        float[] newWeights = new float[size + 1];
+        byte[] newFields = new byte[size + 1];
+        System.arraycopy(ordinals, 0, newOrdinals, 0, insertAt);
+        System.arraycopy(weights, 0, newWeights, 0, insertAt);
+        System.arraycopy(fields, 0, newFields, 0, insertAt);
+        newOrdinals[insertAt] = ordinal;
+        newWeights[insertAt] = weight;
+        newFields[insertAt] = field;
+        System.arraycopy(ordinals, insertAt, newOrdinals, insertAt + 1, size - insertAt);
+        System.arraycopy(weights, insertAt, newWeights, insertAt + 1, size - insertAt);
+        System.arraycopy(fields, insertAt, newFields, insertAt + 1, size - insertAt);
+        return new Postings(newOrdinals, newWeights, newFields);
+    }
+
+    // Returns null once the last document is removed, so the term can be dropped.
+    Postings without(int ordinal) {
+        int index = Arrays.binarySearch(ordinals, ordinal);
+        if (index < 0) {
+            return this;
+        }
+        int size = ordinals.length;
+        if (size == 1) {
+            return null;
+        }
+
+        int[] newOrdinals = new int[size - 1];
+        float[] newWeights = new float[size - 1];
+        byte[] newFields = new byte[size - 1];
+        System.arraycopy(ordinals, 0, newOrdinals, 0, index);
+        System.arraycopy(weights, 0, newWeights, 0, index);
+        System.arraycopy(fields, 0, newFields, 0, index);
+        System.arraycopy(ordinals, index + 1, newOrdinals, index, size - index - 1);
+        System.arraycopy(weights, index + 1, newWeights, index, size - index - 1);
+        System.arraycopy(fields, index + 1, newFields, index, size - index - 1);
+        return new Postings(newOrdinals, newWeights, newFields);
+    }
+}
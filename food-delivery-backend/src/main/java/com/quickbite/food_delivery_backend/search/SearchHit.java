@@ -0,0 +1,10 @@
+package com.quickbite.food_delivery_backend.search;
+
+public record SearchHit(Type type, Long id, Long restaurantId, String restaurantName, String name,
+                        Double price, String image, double score) {
+
+    public enum Type {
+        RESTAURANT,
+        MENU_ITEM
+    }
+}
@@ -0,0 +1,541 @@
+package com.quickbite.food_delivery_backend.search;
+
+import com.quickbite.food_delivery_backend.catalog.MenuItemView;
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Inverted index over restaurants and menu items. The term dictionary is sorted so prefix
+// queries are a range scan. Documents are addressed by dense int ordinals (even for
+// restaurants, odd for menu items) and posting lists are immutable sorted arrays that are
+// replaced on write, so queries run on primitive arrays and never block behind a writer.
+// Writes must be serialized by the caller; the catalog write lock does that.
+public final class SearchIndex {
+
+    public static final int RESTAURANT_NAME = 1;
+    public static final int CATEGORY = 1 << 1;
+    public static final int MENU_ITEM_NAME = 1 << 2;
+    public static final int DESCRIPTION = 1 << 3;
+    public static final int ALL_FIELDS = RESTAURANT_NAME | CATEGORY | MENU_ITEM_NAME | DESCRIPTION;
+
+    public static final int RESTAURANTS = 1;
+    public static final int MENU_ITEMS = 1 << 1;
+    public static final int ALL_TYPES = RESTAURANTS | MENU_ITEMS;
+
+    private static final float RESTAURANT_NAME_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float MENU_ITEM_NAME_WEIGHT = 2.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final float PREFIX_FACTOR = 0.6f;
+
+    // A single-token query matching at least this many postings reads them in impact order and
+    // stops after `limit` hits instead of scoring every match; see topByImpact
+    private static final int IMPACT_MIN_POSTINGS = 2_048;
+    private static final int IMPACT_MAX_LIMIT = 1_000;
+
+    // Incremental removals leave holes in `documents`; past this share a full build is cheaper
+    private static final int MIN_COMPACTION_HOLES = 1_024;
+
+    private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, Integer> ordinalsByKey = new ConcurrentHashMap<>();
+    private volatile IndexedDocument[] documents = new IndexedDocument[16];
+    private volatile int documentCount;
+    private int nextRestaurantOrdinal = 0;
+    private int nextMenuItemOrdinal = 1;
+    // Ordinals of removed documents by key, handed back if the same document is indexed again
+    private final Map<Long, Integer> retiredOrdinals = new HashMap<>();
+
+    public record IndexedDocument(long key, SearchHit.Type type, Long id, Long restaurantId, String name,
+                                  Double price, String image, String[] terms) {
+    }
+
+    public record Match(IndexedDocument document, float score) {
+    }
+
+    private static final class TermStats {
+        float weight;
+        byte fields;
+    }
+
+    private record Expansion(Postings postings, float factor) {
+    }
+
+    // Matching documents for part of a query, sorted by ordinal
+    private record Scored(int[] ordinals, float[] scores, int size) {
+    }
+
+    public static long restaurantKey(Long restaurantId) {
+        return restaurantId << 1;
+    }
+
+    public static long menuItemKey(Long menuItemId) {
+        return (menuItemId << 1) | 1;
+    }
+
+    public static SearchIndex build(Collection<RestaurantView> restaurants) {
+        SearchIndex index = new SearchIndex();
+        Map<String, List<long[]>> pending = new HashMap<>();
+
+        for (RestaurantView restaurant : restaurants) {
+            index.collect(restaurantDocument(restaurant), restaurantTerms(restaurant), pending);
+            for (MenuItemView item : restaurant.menu()) {
+                index.collect(menuItemDocument(restaurant.id(), item), menuItemTerms(item), pending);
+            }
+        }
+
+        // Each pending entry packs (ordinal, weight bits, fields); ordinals are unique per term
+        for (Map.Entry<String, List<long[]>> entry : pending.entrySet()) {
+            List<long[]> postings = entry.getValue();
+            postings.sort(Comparator.comparingLong(posting -> posting[0]));
+            int[] ordinals = new int[postings.size()];
+            float[] weights = new float[postings.size()];
+            byte[] fields = new byte[postings.size()];
+            for (int i = 0; i < postings.size(); i++) {
+                long[] posting = postings.get(i);
+                ordinals[i] = (int) posting[0];
+                weights[i] = Float.intBitsToFloat((int) posting[1]);
+                fields[i] = (byte) posting[2];
+            }
+            index.terms.put(entry.getKey(), new Postings(ordinals, weights, fields));
+        }
+        return index;
+    }
+
+    private void collect(IndexedDocument document, Map<String, TermStats> termStats, Map<String, List<long[]>> pending) {
+        IndexedDocument stored = withTerms(document, termStats);
+        int ordinal = assignOrdinal(stored);
+        termStats.forEach((term, stats) -> pending.computeIfAbsent(term, t -> new ArrayList<>())
+                .add(new long[] { ordinal, Float.floatToRawIntBits(stats.weight), stats.fields }));
+    }
+
+    public synchronized void index(RestaurantView restaurant) {
+        add(restaurantDocument(restaurant), restaurantTerms(restaurant));
+    }
+
+    public synchronized void index(Long restaurantId, MenuItemView item) {
+        add(menuItemDocument(restaurantId, item), menuItemTerms(item));
+    }
+
+    private void add(IndexedDocument document, Map<String, TermStats> termStats) {
+        IndexedDocument stored = withTerms(document, termStats);
+        Integer existing = ordinalsByKey.get(stored.key());
+        if (existing != null) {
+            // Same document re-indexed: keep its ordinal and drop terms it no longer has
+            IndexedDocument previous = documents[existing];
+            for (String term : previous.terms()) {
+                if (!termStats.containsKey(term)) {
+                    terms.computeIfPresent(term, (t, postings) -> postings.without(existing));
+                }
+            }
+        }
+
+        int ordinal = existing != null ? existing : assignOrdinal(stored);
+        documents[ordinal] = stored;
+        termStats.forEach((term, stats) -> terms.compute(term, (t, postings) -> postings == null
+                ? Postings.of(ordinal, stats.weight, stats.fields)
+                : postings.with(ordinal, stats.weight, stats.fields)));
+    }
+
+    // An ordinal is only ever reused for the document that held it, so an in-flight query that
+    // still sees a stale posting resolves it to that document or to nothing, never to another.
+    public synchronized void remove(long key) {
+        Integer ordinal = ordinalsByKey.remove(key);
+        if (ordinal == null) {
+            return;
+        }
+        IndexedDocument document = documents[ordinal];
+        documents[ordinal] = null;
+        documentCount--;
+        retiredOrdinals.put(key, ordinal);
+        for (String term : document.terms()) {
+            terms.computeIfPresent(term, (t, postings) -> postings.without(ordinal));
+        }
+    }
+
+    private int assignOrdinal(IndexedDocument document) {
+        Integer retired = retiredOrdinals.remove(document.key());
+        int ordinal;
+        if (retired != null) {
+            ordinal = retired;
+        } else if (document.type() == SearchHit.Type.RESTAURANT) {
+            ordinal = nextRestaurantOrdinal;
+            nextRestaurantOrdinal += 2;
+        } else {
+            ordinal = nextMenuItemOrdinal;
+            nextMenuItemOrdinal += 2;
+        }
+        if (ordinal >= documents.length) {
+            documents = Arrays.copyOf(documents, Math.max(ordinal + 1, documents.length * 3 / 2));
+        }
+        documents[ordinal] = document;
+        ordinalsByKey.put(document.key(), ordinal);
+        documentCount++;
+        return ordinal;
+    }
+
+    public int documentCount() {
+        return documentCount;
+    }
+
+    public int termCount() {
+        return terms.size();
+    }
+
+    // True once removed documents leave enough unused slots that the index should be rebuilt
+    public synchronized boolean needsCompaction() {
+        return retiredOrdinals.size() >= Math.max(MIN_COMPACTION_HOLES, documentCount / 4);
+    }
+
+    Integer ordinalOf(long key) {
+        return ordinalsByKey.get(key);
+    }
+
+    // Every token must match (exactly or, from MIN_PREFIX_LENGTH characters, as a prefix) in one
+    // of the requested fields. Scores are the sum over tokens of field weight * idf, with prefix
+    // matches discounted.
+    public List<Match> search(List<String> tokens, int fieldMask, int typeMask, int limit) {
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        IndexedDocument[] docs = documents;
+        int total = Math.max(documentCount, 1);
+        Set<String> distinct = new LinkedHashSet<>(tokens);
+        if (distinct.size() == 1 && limit <= IMPACT_MAX_LIMIT) {
+            List<Expansion> expansions = expand(distinct.iterator().next());
+            int postings = 0;
+            for (Expansion expansion : expansions) {
+                postings += expansion.postings().size();
+            }
+            if (postings >= IMPACT_MIN_POSTINGS) {
+                return topByImpact(expansions, fieldMask, typeMask, total, limit, docs);
+            }
+        }
+
+        List<Scored> perToken = new ArrayList<>(distinct.size());
+        for (String token : distinct) {
+            Scored matches = union(expand(token), fieldMask, typeMask, total);
+            if (matches.size() == 0) {
+                return List.of();
+            }
+            perToken.add(matches);
+        }
+
+        // Intersect from the most selective token so the candidate set shrinks fastest
+        perToken.sort(Comparator.comparingInt(Scored::size));
+        Scored result = perToken.get(0);
+        for (int i = 1; i < perToken.size() && result.size() > 0; i++) {
+            result = intersect(result, perToken.get(i));
+        }
+
+        return top(result, docs, limit);
+    }
+
+    private List<Expansion> expand(String token) {
+        List<Expansion> result = new ArrayList<>();
+        Postings exact = terms.get(token);
+        if (exact != null) {
+            result.add(new Expansion(exact, 1.0f));
+        }
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            for (Postings postings : terms.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+                if (result.size() >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                result.add(new Expansion(postings, PREFIX_FACTOR));
+            }
+        }
+        return result;
+    }
+
+    private static Scored union(List<Expansion> expansions, int fieldMask, int typeMask, int total) {
+        List<Scored> lists = new ArrayList<>(expansions.size());
+        for (Expansion expansion : expansions) {
+            lists.add(filter(expansion, fieldMask, typeMask, total));
+        }
+        if (lists.isEmpty()) {
+            return new Scored(new int[0], new float[0], 0);
+        }
+        // Pairwise merging keeps the work at O(postings * log(expansions))
+        while (lists.size() > 1) {
+            List<Scored> merged = new ArrayList<>((lists.size() + 1) / 2);
+            for (int i = 0; i < lists.size(); i += 2) {
+                merged.add(i + 1 < lists.size() ? merge(lists.get(i), lists.get(i + 1)) : lists.get(i));
+            }
+            lists = merged;
+        }
+        return lists.get(0);
+    }
+
+    private static float scoreFactor(Expansion expansion, int total) {
+        return (float) Math.log(1.0 + (double) total / expansion.postings().size()) * expansion.factor();
+    }
+
+    private static boolean accepts(Postings postings, int position, int fieldMask, int typeMask) {
+        return (postings.fields[position] & fieldMask) != 0
+                && (typeMask & ((postings.ordinals[position] & 1) == 0 ? RESTAURANTS : MENU_ITEMS)) != 0;
+    }
+
+    private static Scored filter(Expansion expansion, int fieldMask, int typeMask, int total) {
+        Postings postings = expansion.postings();
+        float factor = scoreFactor(expansion, total);
+
+        int[] ordinals = new int[postings.size()];
+        float[] scores = new float[postings.size()];
+        int size = 0;
+        for (int i = 0; i < postings.size(); i++) {
+            int ordinal = postings.ordinals[i];
+            if (!accepts(postings, i, fieldMask, typeMask)) {
+                continue;
+            }
+            ordinals[size] = ordinal;
+            scores[size] = postings.weights[i] * factor;
+            size++;
+        }
+        return new Scored(ordinals, scores, size);
+    }
+
+    // Union of two matches for the same token; a document keeps its best score
+    private static Scored merge(Scored a, Scored b) {
+        int[] ordinals = new int[a.size() + b.size()];
+        float[] scores = new float[a.size() + b.size()];
+        int i = 0, j = 0, size = 0;
+        while (i < a.size() && j < b.size()) {
+            int left = a.ordinals()[i];
+            int right = b.ordinals()[j];
+            if (left < right) {
+                ordinals[size] = left;
+                scores[size++] = a.scores()[i++];
+            } else if (right < left) {
+                ordinals[size] = right;
+                scores[size++] = b.scores()[j++];
+            } else {
+                ordinals[size] = left;
+                scores[size++] = Math.max(a.scores()[i++], b.scores()[j++]);
+            }
+        }
+        while (i < a.size()) {
+            ordinals[size] = a.ordinals()[i];
+            scores[size++] = a.scores()[i++];
+        }
+        while (j < b.size()) {
+            ordinals[size] = b.ordinals()[j];
+            scores[size++] = b.scores()[j++];
+        }
+        return new Scored(ordinals, scores, size);
+    }
+
+    // Documents matching both sides, with summed scores; gallops through the larger side
+    private static Scored intersect(Scored small, Scored large) {
+        int[] ordinals = new int[small.size()];
+        float[] scores = new float[small.size()];
+        int size = 0;
+        int from = 0;
+        for (int i = 0; i < small.size() && from < large.size(); i++) {
+            int ordinal = small.ordinals()[i];
+            int found = gallop(large.ordinals(), from, large.size(), ordinal);
+            if (found >= 0) {
+                ordinals[size] = ordinal;
+                scores[size++] = small.scores()[i] + large.scores()[found];
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return new Scored(ordinals, scores, size);
+    }
+
+    private static int gallop(int[] values, int from, int to, int target) {
+        int step = 1;
+        int high = from;
+        while (high < to && values[high] < target) {
+            from = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        return Arrays.binarySearch(values, from, Math.min(high + 1, to), target);
+    }
+
+    // Same result as union + top for one token, without touching every posting of a common term:
+    // each expansion's postings are read in impact order (score descending, then ordinal), and
+    // the lists are merged by score until `limit` distinct documents are found. A document's
+    // first appearance carries its best score, which is what union keeps.
+    private static List<Match> topByImpact(List<Expansion> expansions, int fieldMask, int typeMask, int total,
+                                           int limit, IndexedDocument[] docs) {
+        int lists = expansions.size();
+        Postings[] postings = new Postings[lists];
+        int[][] orders = new int[lists][];
+        float[] factors = new float[lists];
+        int[] cursors = new int[lists];
+        for (int l = 0; l < lists; l++) {
+            postings[l] = expansions.get(l).postings();
+            orders[l] = postings[l].byImpact();
+            factors[l] = scoreFactor(expansions.get(l), total);
+        }
+
+        // Heads of the lists; the next entry of a list is pushed once its head is consumed
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> {
+            float scoreA = postings[a[0]].weights[a[1]] * factors[a[0]];
+            float scoreB = postings[b[0]].weights[b[1]] * factors[b[0]];
+            return scoreA != scoreB ? Float.compare(scoreB, scoreA)
+                    : Integer.compare(postings[a[0]].ordinals[a[1]], postings[b[0]].ordinals[b[1]]);
+        });
+        for (int l = 0; l < lists; l++) {
+            pushNext(heads, l, postings[l], orders[l], cursors, fieldMask, typeMask);
+        }
+
+        List<Match> matches = new ArrayList<>(Math.min(limit, 64));
+        Set<Integer> seen = new HashSet<>();
+        while (matches.size() < limit && !heads.isEmpty()) {
+            int[] head = heads.poll();
+            int l = head[0];
+            int ordinal = postings[l].ordinals[head[1]];
+            if (seen.add(ordinal)) {
+                IndexedDocument document = ordinal < docs.length ? docs[ordinal] : null;
+                if (document != null) {
+                    matches.add(new Match(document, postings[l].weights[head[1]] * factors[l]));
+                }
+            }
+            pushNext(heads, l, postings[l], orders[l], cursors, fieldMask, typeMask);
+        }
+        return matches;
+    }
+
+    private static void pushNext(PriorityQueue<int[]> heads, int list, Postings postings, int[] order, int[] cursors,
+                                 int fieldMask, int typeMask) {
+        while (cursors[list] < order.length) {
+            int position = order[cursors[list]++];
+            if (accepts(postings, position, fieldMask, typeMask)) {
+                heads.add(new int[] { list, position });
+                return;
+            }
+        }
+    }
+
+    // Best `limit` matches by score (ties broken by ordinal), using a min-heap of positions
+    private static List<Match> top(Scored result, IndexedDocument[] docs, int limit) {
+        int capacity = Math.min(limit, result.size());
+        int[] heap = new int[capacity];
+        int heapSize = 0;
+        for (int i = 0; i < result.size(); i++) {
+            if (heapSize < capacity) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, result);
+            } else if (ranksAbove(result, i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, heapSize, result);
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(heapSize);
+        while (heapSize > 0) {
+            int position = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, result);
+            int ordinal = result.ordinals()[position];
+            IndexedDocument document = ordinal < docs.length ? docs[ordinal] : null;
+            if (document != null) {
+                matches.add(new Match(document, result.scores()[position]));
+            }
+        }
+        Collections.reverse(matches);
+        return matches;
+    }
+
+    private static boolean ranksAbove(Scored result, int a, int b) {
+        float scoreA = result.scores()[a];
+        float scoreB = result.scores()[b];
+        return scoreA != scoreB ? scoreA > scoreB : result.ordinals()[a] < result.ordinals()[b];
+    }
+
+    private static void siftUp(int[] heap, int index, Scored result) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksAbove(result, heap[parent], heap[index])) {
+                break;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, Scored result) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                break;
+            }
+            int right = left + 1;
+            int lowest = right < size && ranksAbove(result, heap[left], heap[right]) ? right : left;
+            if (!ranksAbove(result, heap[index], heap[lowest])) {
+                break;
+            }
+            swap(heap, index, lowest);
+            index = lowest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private static IndexedDocument restaurantDocument(RestaurantView restaurant) {
+        return new IndexedDocument(restaurantKey(restaurant.id()), SearchHit.Type.RESTAURANT, restaurant.id(),
+                restaurant.id(), restaurant.name(), null, restaurant.image(), null);
+    }
+
+    private static IndexedDocument menuItemDocument(Long restaurantId, MenuItemView item) {
+        return new IndexedDocument(menuItemKey(item.id()), SearchHit.Type.MENU_ITEM, item.id(),
+                restaurantId, item.name(), item.price(), item.image(), null);
+    }
+
+    private static IndexedDocument withTerms(IndexedDocument document, Map<String, TermStats> termStats) {
+        return new IndexedDocument(document.key(), document.type(), document.id(), document.restaurantId(),
+                document.name(), document.price(), document.image(), termStats.keySet().toArray(new String[0]));
+    }
+
+    private static Map<String, TermStats> restaurantTerms(RestaurantView restaurant) {
+        Map<String, TermStats> termStats = new HashMap<>();
+        addField(termStats, restaurant.name(), RESTAURANT_NAME, RESTAURANT_NAME_WEIGHT);
+        addField(termStats, restaurant.category(), CATEGORY, CATEGORY_WEIGHT);
+        addField(termStats, restaurant.description(), DESCRIPTION, DESCRIPTION_WEIGHT);
+        return termStats;
+    }
+
+    private static Map<String, TermStats> menuItemTerms(MenuItemView item) {
+        Map<String, TermStats> termStats = new HashMap<>();
+        addField(termStats, item.name(), MENU_ITEM_NAME, MENU_ITEM_NAME_WEIGHT);
+        addField(termStats, item.description(), DESCRIPTION, DESCRIPTION_WEIGHT);
+        return termStats;
+    }
+
+    // A term scores the sum of the weights of the distinct fields it appears in
+    private static void addField(Map<String, TermStats> termStats, String text, int field, float weight) {
+        for (String token : Tokenizer.tokenize(text)) {
+            TermStats stats = termStats.computeIfAbsent(token, t -> new TermStats());
+            if ((stats.fields & field) == 0) {
+                stats.fields |= (byte) field;
+                stats.weight += weight;
+            }
+        }
+    }
+}
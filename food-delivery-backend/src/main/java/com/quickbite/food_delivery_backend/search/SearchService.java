@@ -0,0 +1,139 @@
+package com.quickbite.food_delivery_backend.search;
+
+import com.quickbite.food_delivery_backend.catalog.CatalogListener;
+import com.quickbite.food_delivery_backend.catalog.CatalogService;
+import com.quickbite.food_delivery_backend.catalog.CatalogSnapshot;
+import com.quickbite.food_delivery_backend.catalog.MenuItemView;
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Keeps the search index in step with the catalog snapshot and answers search queries.
+@Service
+public class SearchService implements CatalogListener {
+
+    private static final int MAX_INCREMENTAL_CHANGES = 1_000;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile SearchIndex index = SearchIndex.build(List.of());
+
+    private Timer queryTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        queryTimer = Timer.builder("search.query.duration")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("search.index.documents", this, service -> service.index.documentCount())
+                .register(meterRegistry);
+        Gauge.builder("search.index.terms", this, service -> service.index.termCount())
+                .register(meterRegistry);
+    }
+
+    public List<SearchHit> search(String query, int typeMask, int limit) {
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshot snapshot = catalogService.snapshot();
+            List<SearchHit> hits = new ArrayList<>();
+            for (SearchIndex.Match match : index.search(Tokenizer.tokenize(query), SearchIndex.ALL_FIELDS, typeMask, limit)) {
+                SearchIndex.IndexedDocument document = match.document();
+                String restaurantName = snapshot.restaurant(document.restaurantId())
+                        .map(RestaurantView::name)
+                        .orElse(null);
+                hits.add(new SearchHit(document.type(), document.id(), document.restaurantId(), restaurantName,
+                        document.name(), document.price(), document.image(), match.score()));
+            }
+            return hits;
+        } finally {
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Token match against restaurant categories, e.g. "pizza" or "south ind"; results keep catalog order.
+    public List<RestaurantView> findRestaurantsByCategory(String category) {
+        CatalogSnapshot snapshot = catalogService.snapshot();
+        return index.search(Tokenizer.tokenize(category), SearchIndex.CATEGORY, SearchIndex.RESTAURANTS, Integer.MAX_VALUE)
+                .stream()
+                .map(match -> snapshot.restaurant(match.document().id()).orElse(null))
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(RestaurantView::id))
+                .toList();
+    }
+
+    @Override
+    public void onCatalogRebuilt(CatalogSnapshot snapshot) {
+        index = SearchIndex.build(snapshot.restaurants());
+    }
+
+    @Override
+    public void onCatalogUpdated(CatalogSnapshot previous, CatalogSnapshot current, Set<Long> restaurantIds) {
+        List<Long> removals = new ArrayList<>();
+        List<Runnable> additions = new ArrayList<>();
+        SearchIndex target = index;
+
+        for (Long restaurantId : restaurantIds) {
+            RestaurantView before = previous.restaurant(restaurantId).orElse(null);
+            RestaurantView after = current.restaurant(restaurantId).orElse(null);
+
+            if (after == null) {
+                removals.add(SearchIndex.restaurantKey(restaurantId));
+            } else if (before == null || !before.withMenu(List.of()).equals(after.withMenu(List.of()))) {
+                additions.add(() -> target.index(after));
+            }
+
+            Map<Long, MenuItemView> oldItems = menuById(before);
+            Map<Long, MenuItemView> newItems = menuById(after);
+            // Edited items are re-indexed in place, keeping their ordinal
+            oldItems.forEach((id, item) -> {
+                if (!newItems.containsKey(id)) {
+                    removals.add(SearchIndex.menuItemKey(id));
+                }
+            });
+            newItems.forEach((id, item) -> {
+                if (!item.equals(oldItems.get(id))) {
+                    additions.add(() -> target.index(restaurantId, item));
+                }
+            });
+        }
+
+        // Each incremental change copies the postings of every term it touches, so bulk
+        // changes such as a menu import are cheaper as one fresh build
+        if (removals.size() + additions.size() > MAX_INCREMENTAL_CHANGES) {
+            index = SearchIndex.build(current.restaurants());
+            return;
+        }
+        // Apply every removal before any addition so a menu item moving between two
+        // restaurants in the same batch is not removed again after being re-added
+        removals.forEach(target::remove);
+        additions.forEach(Runnable::run);
+        if (target.needsCompaction()) {
+            index = SearchIndex.build(current.restaurants());
+        }
+    }
+
+    private static Map<Long, MenuItemView> menuById(RestaurantView restaurant) {
+        if (restaurant == null) {
+            return Map.of();
+        }
+        return restaurant.menu().stream().collect(Collectors.toMap(MenuItemView::id, Function.identity()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.quickbite.food_delivery_backend.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,8 +16,13 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.http.HttpMethod;
 
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+
 import com.quickbite.food_delivery_backend.security.jwt.AuthEntryPointJwt;
 import com.quickbite.food_delivery_backend.security.jwt.AuthTokenFilter;
+import com.quickbite.food_delivery_backend.security.ratelimit.RateLimitFilter;
+import com.quickbite.food_delivery_backend.security.ratelimit.RateLimiter;
 import com.quickbite.food_delivery_backend.security.services.UserDetailsServiceImpl;
 
 @Configuration
@@ -28,6 +34,19 @@ public class WebSecurityConfig {
   @Autowired
   private AuthEntryPointJwt unauthorizedHandler;
 
+  @Autowired
+  private RateLimiter rateLimiter;
+
+  // Raising this rehashes each user's password with the new cost on their next login.
+  @Value("${app.passwordHashStrength:10}")
+  private int passwordHashStrength;
+
+  @Value("${server.port:8080}")
+  private int serverPort;
+
+  @Value("${management.server.port:-1}")
+  private int managementPort;
+
   @Bean
   public AuthTokenFilter authenticationJwtTokenFilter() {
     return new AuthTokenFilter();
@@ -51,7 +70,7 @@ public class WebSecurityConfig {
 
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    return new BCryptPasswordEncoder(passwordHashStrength);
   }
 
   @Bean
@@ -60,16 +79,32 @@ public class WebSecurityConfig {
         .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(auth -> 
-          auth.requestMatchers("/api/auth/**").permitAll()
+          // Async dispatches (SSE completion, CompletableFuture results) belong to a request
+          // that was already authorized; the JWT filter does not run on them
+          auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+              .requestMatchers("/api/auth/**").permitAll()
               .requestMatchers("/api/test/**").permitAll()
               .requestMatchers(HttpMethod.GET, "/api/restaurants/**").permitAll()
+              .requestMatchers(HttpMethod.GET, "/api/search/**").permitAll()
+              .requestMatchers("/actuator/health").permitAll()
+              // Scrapers carry no JWT, so the scrape is open only on the separate management
+              // port, which is kept off the public network; on the application port it needs ADMIN
+              .requestMatchers(this::isManagementPortScrape).permitAll()
+              .requestMatchers("/actuator/**").hasRole("ADMIN")
               .anyRequest().authenticated()
         );
     
     http.authenticationProvider(authenticationProvider());
 
     http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+    http.addFilterAfter(new RateLimitFilter(rateLimiter), AuthTokenFilter.class);
     
     return http.build();
   }
+
+  private boolean isManagementPortScrape(HttpServletRequest request) {
+    return managementPort > 0 && managementPort != serverPort
+        && request.getLocalPort() == managementPort
+        && "/actuator/prometheus".equals(request.getRequestURI());
+  }
 }
@@ -10,16 +10,20 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.quickbite.food_delivery_backend.security.services.CredentialsEpochService;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
 import com.quickbite.food_delivery_backend.security.services.UserDetailsServiceImpl;
 
+import io.jsonwebtoken.Claims;
+
 public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private JwtUtils jwtUtils;
@@ -27,25 +31,41 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private UserDetailsServiceImpl userDetailsService;
 
+  @Autowired
+  private CredentialsEpochService credentialsEpochService;
+
+  // When false, every request reloads the user from the database as before.
+  @Value("${app.jwtStatelessPrincipal:true}")
+  private boolean statelessPrincipal;
+
   private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
+  private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
+
   @Override
   protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
       throws ServletException, IOException {
     try {
       String jwt = parseJwt(request);
-      if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-        String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        UsernamePasswordAuthenticationToken authentication =
-            new UsernamePasswordAuthenticationToken(
-                userDetails,
-                null,
-                userDetails.getAuthorities());
-        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+      Claims claims = jwt != null ? jwtUtils.getVerifiedClaims(jwt) : null;
+      if (claims != null) {
+        UserDetailsImpl userDetails = statelessPrincipal ? jwtUtils.getPrincipalFromClaims(claims) : null;
+        if (userDetails == null) {
+          userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        if (credentialsEpochService.isCurrent(userDetails.getId(), jwtUtils.getIssuedAtMillis(claims))) {
+          UsernamePasswordAuthenticationToken authentication =
+              new UsernamePasswordAuthenticationToken(
+                  userDetails,
+                  null,
+                  userDetails.getAuthorities());
+          authentication.setDetails(authenticationDetailsSource.buildDetails(request));
+
+          SecurityContextHolder.getContext().setAuthentication(authentication);
+        } else {
+          logger.warn("JWT token for user {} was issued before its credentials changed", userDetails.getId());
+        }
       }
     } catch (Exception e) {
       logger.error("Cannot set user authentication: {}", e);
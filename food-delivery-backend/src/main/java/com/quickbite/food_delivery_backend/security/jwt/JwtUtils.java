@@ -1,12 +1,17 @@
 package com.quickbite.food_delivery_backend.security.jwt;
 
 import java.security.Key;
+import java.util.Collections;
 import java.util.Date;
 
+import jakarta.annotation.PostConstruct;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
@@ -19,37 +24,68 @@ import io.jsonwebtoken.security.Keys;
 public class JwtUtils {
   private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+  static final String CLAIM_USER_ID = "uid";
+  static final String CLAIM_NAME = "name";
+  static final String CLAIM_ROLE = "role";
+  // iat has second precision; this is the issue time in milliseconds, so a token handed out
+  // right after a credentials change can be told apart from one issued just before it
+  static final String CLAIM_ISSUED_AT_MS = "iatms";
+
   @Value("${app.jwtSecret}")
   private String jwtSecret;
 
   @Value("${app.jwtExpirationMs}")
   private int jwtExpirationMs;
 
+  @Value("${app.jwtCacheMaxEntries:10000}")
+  private int jwtCacheMaxEntries;
+
+  // The key and parser are immutable and thread-safe, so they are built once.
+  private Key signingKey;
+  private JwtParser parser;
+  private VerifiedTokenCache verifiedTokens;
+
+  @PostConstruct
+  void init() {
+    signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    verifiedTokens = new VerifiedTokenCache(jwtCacheMaxEntries);
+  }
+
   public String generateJwtToken(Authentication authentication) {
 
     UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+    String role = userPrincipal.getAuthorities().stream()
+        .findFirst()
+        .map(GrantedAuthority::getAuthority)
+        .orElse(null);
 
+    Date issuedAt = new Date();
     return Jwts.builder()
         .setSubject((userPrincipal.getUsername()))
-        .setIssuedAt(new Date())
-        .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-        .signWith(key(), SignatureAlgorithm.HS256)
+        .claim(CLAIM_USER_ID, userPrincipal.getId())
+        .claim(CLAIM_NAME, userPrincipal.getFullName())
+        .claim(CLAIM_ROLE, role)
+        .claim(CLAIM_ISSUED_AT_MS, issuedAt.getTime())
+        .setIssuedAt(issuedAt)
+        .setExpiration(new Date(issuedAt.getTime() + jwtExpirationMs))
+        .signWith(signingKey, SignatureAlgorithm.HS256)
         .compact();
   }
-  
-  private Key key() {
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-  }
 
-  public String getUserNameFromJwtToken(String token) {
-    return Jwts.parserBuilder().setSigningKey(key()).build()
-               .parseClaimsJws(token).getBody().getSubject();
-  }
+  // Verifies signature and expiry in a single parse and returns the claims, or null if the
+  // token is not valid. Tokens verified earlier are served from the cache until they expire.
+  public Claims getVerifiedClaims(String token) {
+    long now = System.currentTimeMillis();
+    Claims claims = verifiedTokens.get(token, now);
+    if (claims != null) {
+      return claims;
+    }
 
-  public boolean validateJwtToken(String authToken) {
     try {
-      Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-      return true;
+      claims = parser.parseClaimsJws(token).getBody();
+      verifiedTokens.put(token, claims, now);
+      return claims;
     } catch (MalformedJwtException e) {
       logger.error("Invalid JWT token: {}", e.getMessage());
     } catch (ExpiredJwtException e) {
@@ -58,8 +94,47 @@ public class JwtUtils {
       logger.error("JWT token is unsupported: {}", e.getMessage());
     } catch (IllegalArgumentException e) {
       logger.error("JWT claims string is empty: {}", e.getMessage());
+    } catch (JwtException e) {
+      logger.error("Invalid JWT signature: {}", e.getMessage());
+    }
+
+    return null;
+  }
+
+  // Rebuilds the principal from the token alone. Returns null for tokens issued before the
+  // id and role claims were added, so callers can fall back to loading the user.
+  public UserDetailsImpl getPrincipalFromClaims(Claims claims) {
+    Long id = claims.get(CLAIM_USER_ID, Long.class);
+    String role = claims.get(CLAIM_ROLE, String.class);
+    if (id == null || role == null) {
+      return null;
+    }
+
+    return new UserDetailsImpl(
+        id,
+        claims.get(CLAIM_NAME, String.class),
+        claims.getSubject(),
+        null,
+        Collections.singletonList(new SimpleGrantedAuthority(role)));
+  }
+
+  // Millisecond issue time; tokens issued before the claim was added fall back to iat, or null
+  // if they carry neither.
+  public Long getIssuedAtMillis(Claims claims) {
+    Long issuedAtMillis = claims.get(CLAIM_ISSUED_AT_MS, Long.class);
+    if (issuedAtMillis != null) {
+      return issuedAtMillis;
     }
+    Date issuedAt = claims.getIssuedAt();
+    return issuedAt != null ? issuedAt.getTime() : null;
+  }
+
+  public String getUserNameFromJwtToken(String token) {
+    Claims claims = getVerifiedClaims(token);
+    return claims != null ? claims.getSubject() : null;
+  }
 
-    return false;
+  public boolean validateJwtToken(String authToken) {
+    return getVerifiedClaims(authToken) != null;
   }
 }
@@ -0,0 +1,76 @@
+package com.quickbite.food_delivery_backend.security.jwt;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.jsonwebtoken.Claims;
+
+// Bounded cache of tokens whose signature has already been checked, keyed by the compact
+// token string and kept no longer than the token's own expiry. A hit requires the exact
+// same token bytes, so it is as strong as re-verifying. Cached claims must not be modified.
+final class VerifiedTokenCache {
+
+  private record Entry(Claims claims, long expiresAtMillis) {}
+
+  private final int maxEntries;
+  private final ConcurrentHashMap<String, Entry> entries;
+  private final AtomicBoolean evicting = new AtomicBoolean();
+
+  VerifiedTokenCache(int maxEntries) {
+    this.maxEntries = Math.max(0, maxEntries);
+    this.entries = new ConcurrentHashMap<>(Math.min(this.maxEntries, 1024));
+  }
+
+  Claims get(String token, long nowMillis) {
+    if (maxEntries == 0) {
+      return null;
+    }
+    Entry entry = entries.get(token);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expiresAtMillis() <= nowMillis) {
+      entries.remove(token, entry);
+      return null;
+    }
+    return entry.claims();
+  }
+
+  void put(String token, Claims claims, long nowMillis) {
+    if (maxEntries == 0 || claims.getExpiration() == null) {
+      return;
+    }
+    long expiresAt = claims.getExpiration().getTime();
+    if (expiresAt <= nowMillis) {
+      return;
+    }
+    if (entries.size() >= maxEntries) {
+      evict(nowMillis);
+    }
+    entries.put(token, new Entry(claims, expiresAt));
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  // Drops expired tokens first; if that is not enough, trims arbitrary entries down to
+  // three quarters of capacity so the sweep cost is amortized over many inserts.
+  private void evict(long nowMillis) {
+    if (!evicting.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      entries.values().removeIf(entry -> entry.expiresAtMillis() <= nowMillis);
+      int target = maxEntries - maxEntries / 4;
+      Iterator<String> keys = entries.keySet().iterator();
+      while (entries.size() > target && keys.hasNext()) {
+        keys.next();
+        keys.remove();
+      }
+    } finally {
+      evicting.set(false);
+    }
+  }
+}
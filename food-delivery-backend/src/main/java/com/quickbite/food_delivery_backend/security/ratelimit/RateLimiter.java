@@ -0,0 +1,172 @@
+package com.quickbite.food_delivery_backend.security.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Per-client token buckets for each route group. Buckets untouched for app.rateLimitIdleEvictMs
+// are swept away (they are full by then, so nothing is lost); if the map still outgrows
+// app.rateLimitMaxBuckets, arbitrary buckets are dropped, which at worst gives those clients
+// a fresh burst.
+@Component
+public class RateLimiter {
+
+    public enum RouteGroup {
+        AUTH, CART, ORDERS, DEFAULT;
+
+        static RouteGroup of(String path) {
+            if (path.startsWith("/api/auth/")) {
+                return AUTH;
+            }
+            if (path.startsWith("/api/cart")) {
+                return CART;
+            }
+            if (path.startsWith("/api/orders")) {
+                return ORDERS;
+            }
+            return DEFAULT;
+        }
+    }
+
+    private record Limit(long intervalNanos, long burstNanos) {
+
+        static Limit of(int capacity, double refillPerSecond) {
+            long interval = (long) Math.ceil(1e9 / refillPerSecond);
+            return new Limit(interval, interval * (Math.max(1, capacity) - 1));
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rateLimitEnabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rateLimitAuthCapacity:10}")
+    private int authCapacity;
+
+    @Value("${app.rateLimitAuthRefillPerSecond:0.2}")
+    private double authRefillPerSecond;
+
+    @Value("${app.rateLimitCartCapacity:30}")
+    private int cartCapacity;
+
+    @Value("${app.rateLimitCartRefillPerSecond:5}")
+    private double cartRefillPerSecond;
+
+    @Value("${app.rateLimitOrdersCapacity:20}")
+    private int ordersCapacity;
+
+    @Value("${app.rateLimitOrdersRefillPerSecond:2}")
+    private double ordersRefillPerSecond;
+
+    @Value("${app.rateLimitDefaultCapacity:100}")
+    private int defaultCapacity;
+
+    @Value("${app.rateLimitDefaultRefillPerSecond:20}")
+    private double defaultRefillPerSecond;
+
+    @Value("${app.rateLimitMaxBuckets:100000}")
+    private int maxBuckets;
+
+    @Value("${app.rateLimitIdleEvictMs:600000}")
+    private long idleEvictMs;
+
+    private final Map<RouteGroup, Limit> limits = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> allowed = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> rejected = new EnumMap<>(RouteGroup.class);
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    void start() {
+        limits.put(RouteGroup.AUTH, Limit.of(authCapacity, authRefillPerSecond));
+        limits.put(RouteGroup.CART, Limit.of(cartCapacity, cartRefillPerSecond));
+        limits.put(RouteGroup.ORDERS, Limit.of(ordersCapacity, ordersRefillPerSecond));
+        limits.put(RouteGroup.DEFAULT, Limit.of(defaultCapacity, defaultRefillPerSecond));
+        for (RouteGroup group : RouteGroup.values()) {
+            String tag = group.name().toLowerCase();
+            allowed.put(group, Counter.builder("ratelimit.requests").tag("group", tag).tag("result", "allowed")
+                    .register(meterRegistry));
+            rejected.put(group, Counter.builder("ratelimit.requests").tag("group", tag).tag("result", "rejected")
+                    .register(meterRegistry));
+        }
+        Gauge.builder("ratelimit.buckets", buckets, Map::size).register(meterRegistry);
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMs = Math.max(1000, idleEvictMs / 2);
+        sweeper.scheduleWithFixedDelay(this::evictIdle, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        sweeper.shutdown();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns 0 when the request may proceed, otherwise the nanoseconds to wait before retrying.
+    public long tryAcquire(RouteGroup group, String client) {
+        Limit limit = limits.get(group);
+        long now = System.nanoTime();
+        String key = group.ordinal() + ":" + client;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                trim(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+        }
+        long waitNanos = bucket.tryConsume(now, limit.intervalNanos(), limit.burstNanos());
+        (waitNanos == 0 ? allowed : rejected).get(group).increment();
+        return waitNanos;
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private void evictIdle() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleEvictMs);
+        buckets.values().removeIf(bucket -> bucket.idleSince(cutoff));
+    }
+
+    // Full buckets first, then arbitrary ones down to three quarters of the bound.
+    private void trim(long nowNanos) {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> bucket.idleSince(nowNanos));
+            int target = maxBuckets - maxBuckets / 4;
+            Iterator<String> keys = buckets.keySet().iterator();
+            while (buckets.size() > target && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.quickbite.food_delivery_backend.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket kept as a single "theoretical arrival time" (the generic cell rate algorithm):
+// each request pushes it one refill interval further out, and a request is allowed while it
+// stays within capacity intervals of now. One CAS per request, no lock, and a bucket whose
+// arrival time is in the past is simply full, so idle buckets can be dropped without changing
+// any outcome.
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrivalNanos;
+
+    TokenBucket(long nowNanos) {
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    // Returns 0 when the request may proceed, otherwise how many nanoseconds until it could.
+    long tryConsume(long nowNanos, long intervalNanos, long burstNanos) {
+        while (true) {
+            long current = theoreticalArrivalNanos.get();
+            long base = Math.max(current, nowNanos);
+            long waitNanos = base - burstNanos - nowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(current, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // Full and untouched since the given instant.
+    boolean idleSince(long nanos) {
+        return theoreticalArrivalNanos.get() < nanos;
+    }
+}
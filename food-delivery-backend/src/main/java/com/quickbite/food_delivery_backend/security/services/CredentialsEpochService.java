@@ -0,0 +1,101 @@
+package com.quickbite.food_delivery_backend.security.services;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.quickbite.food_delivery_backend.models.User;
+import com.quickbite.food_delivery_backend.repository.UserRepository;
+
+// Keeps each user's "credentials changed" epoch in memory so stateless tokens can be checked
+// without a database hit. Only users who changed credentials since signup have an entry.
+// Tokens are compared by their millisecond issue time, so the token handed out right after a
+// change stays valid. Changes made by other instances are picked up by a periodic reload,
+// so there a revoked token keeps working for up to app.credentialsEpochRefreshMs.
+@Service
+public class CredentialsEpochService {
+  private static final Logger logger = LoggerFactory.getLogger(CredentialsEpochService.class);
+
+  // Each reload looks this far behind the previous one, covering transactions that committed
+  // late and replica lag
+  private static final long RELOAD_OVERLAP_SECONDS = 60;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Value("${app.credentialsEpochRefreshMs}")
+  private long refreshMs;
+
+  private final Map<Long, Long> epochMillis = new ConcurrentHashMap<>();
+  private volatile Instant reloadedAt;
+  private ScheduledExecutorService refresher;
+
+  @PostConstruct
+  void load() {
+    reloadedAt = Instant.now();
+    for (Object[] row : userRepository.findCredentialsChangedAt()) {
+      record((Long) row[0], (Instant) row[1]);
+    }
+    refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "credentials-epoch-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    refresher.scheduleWithFixedDelay(this::reload, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void stop() {
+    refresher.shutdownNow();
+  }
+
+  // Runs on the refresh thread; public so tests can force a reload
+  public void reload() {
+    try {
+      Instant started = Instant.now();
+      for (Object[] row : userRepository.findCredentialsChangedSince(reloadedAt.minusSeconds(RELOAD_OVERLAP_SECONDS))) {
+        record((Long) row[0], (Instant) row[1]);
+      }
+      reloadedAt = started;
+    } catch (RuntimeException e) {
+      logger.warn("Could not reload credential epochs: {}", e.getMessage());
+    }
+  }
+
+  private void record(Long userId, Instant changedAt) {
+    epochMillis.merge(userId, changedAt.toEpochMilli(), Math::max);
+  }
+
+  public boolean isCurrent(Long userId, Long issuedAtMillis) {
+    Long epoch = epochMillis.get(userId);
+    if (epoch == null) {
+      return true;
+    }
+    return issuedAtMillis != null && issuedAtMillis > epoch;
+  }
+
+  // Call after a password, role or email change to revoke every token issued so far. Nothing
+  // in the API changes those yet; an endpoint that does must call this once its change commits.
+  @Transactional
+  public void credentialsChanged(Long userId) {
+    User user = userRepository.findById(userId)
+        .orElseThrow(() -> new RuntimeException("Error: User not found."));
+    Instant now = Instant.now();
+    user.setCredentialsChangedAt(now);
+    userRepository.save(user);
+    record(userId, now);
+  }
+}
@@ -0,0 +1,130 @@
+package com.quickbite.food_delivery_backend.security.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Runs BCrypt work off the Tomcat request threads on a fixed-size pool with a bounded queue,
+// so a burst of logins cannot starve cheap requests. When the queue is full the task is
+// rejected immediately and the caller answers 503 instead of waiting. Only the hash itself runs
+// on the pool: results are handed to the application task executor, so whatever the caller
+// chains on (user lookups, saves) never holds a hashing thread.
+@Component
+public class PasswordHashingExecutor {
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private PasswordEncoder encoder;
+
+  @Autowired
+  @Qualifier("applicationTaskExecutor")
+  private Executor callbackExecutor;
+
+  @Value("${app.passwordHashThreads:0}")
+  private int threads;
+
+  @Value("${app.passwordHashQueueCapacity:64}")
+  private int queueCapacity;
+
+  private ThreadPoolExecutor executor;
+  private Timer queueWait;
+  private Counter rejected;
+  // Compared against when the user does not exist, so unknown emails take as long as wrong passwords
+  private volatile String unknownUserHash;
+
+  @PostConstruct
+  void start() {
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCount = new AtomicInteger();
+    executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+
+    queueWait = Timer.builder("auth.password.hash.queue.wait").register(meterRegistry);
+    rejected = Counter.builder("auth.password.hash.rejected").register(meterRegistry);
+    Gauge.builder("auth.password.hash.queue.depth", executor, pool -> pool.getQueue().size())
+        .register(meterRegistry);
+    Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+        .register(meterRegistry);
+  }
+
+  @PreDestroy
+  void stop() {
+    executor.shutdown();
+  }
+
+  public CompletableFuture<String> encode(String operation, CharSequence rawPassword) {
+    return submit(operation, () -> encoder.encode(rawPassword));
+  }
+
+  // A null encodedPassword (unknown user) still costs one hash and never matches
+  public CompletableFuture<Boolean> matches(String operation, CharSequence rawPassword, String encodedPassword) {
+    return submit(operation, () -> {
+      if (encodedPassword == null) {
+        encoder.matches(rawPassword, unknownUserHash());
+        return false;
+      }
+      return encoder.matches(rawPassword, encodedPassword);
+    });
+  }
+
+  // True when the hash was made with a lower cost than app.passwordHashStrength; a higher
+  // cost is left as it is
+  public boolean upgradeEncoding(String encodedPassword) {
+    return encoder.upgradeEncoding(encodedPassword);
+  }
+
+  private String unknownUserHash() {
+    String hash = unknownUserHash;
+    if (hash == null) {
+      hash = encoder.encode("unknown-user-password");
+      unknownUserHash = hash;
+    }
+    return hash;
+  }
+
+  // Completes with the task's result on the application task executor, or throws
+  // RejectedExecutionException right away when the pool is saturated. Hash latency is
+  // recorded per operation (signin, signup, rehash).
+  private <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+    Timer duration = Timer.builder("auth.password.hash.duration")
+        .tag("operation", operation)
+        .publishPercentiles(0.5, 0.99)
+        .register(meterRegistry);
+    long queuedAt = System.nanoTime();
+    try {
+      return CompletableFuture.supplyAsync(() -> {
+        queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+        return duration.record(task);
+      }, executor).thenApplyAsync(result -> result, callbackExecutor);
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw e;
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.quickbite.food_delivery_backend.security.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,7 +12,7 @@ import com.quickbite.food_delivery_backend.models.User;
 import com.quickbite.food_delivery_backend.repository.UserRepository;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
   @Autowired
   UserRepository userRepository;
 
@@ -23,4 +24,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     return UserDetailsImpl.build(user);
   }
+
+  // Called by AuthController after a successful login whose stored hash was made with a lower
+  // BCrypt cost than the one currently configured; the new hash is computed on its pool.
+  @Override
+  @Transactional
+  public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+    User user = userRepository.findByEmail(userDetails.getUsername())
+        .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + userDetails.getUsername()));
+    user.setPassword(newPassword);
+    userRepository.save(user);
+
+    return UserDetailsImpl.build(user);
+  }
 }
@@ -0,0 +1,89 @@
+package com.quickbite.food_delivery_backend.benchmark;
+
+import com.quickbite.food_delivery_backend.security.jwt.AuthTokenFilter;
+import com.quickbite.food_delivery_backend.security.jwt.JwtUtils;
+import com.quickbite.food_delivery_backend.security.services.CredentialsEpochService;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// What AuthTokenFilter adds to every request: reading the bearer header, verifying the token,
+// building the principal from its claims and the credentials-epoch check. The database
+// fallback (app.jwtStatelessPrincipal=false) is left out; it costs a query per request.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+
+    // Set by OncePerRequestFilter on the request; cleared so one request can be replayed
+    private static final String FILTERED_ATTRIBUTE = AuthTokenFilter.class.getName() + ".FILTERED";
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    private AuthTokenFilter cachedFilter;
+    private AuthTokenFilter uncachedFilter;
+    private MockHttpServletRequest authenticated;
+    private MockHttpServletRequest anonymous;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtUtils cached = JwtVerificationBenchmark.jwtUtils(10_000);
+        cachedFilter = filter(cached);
+        uncachedFilter = filter(JwtVerificationBenchmark.jwtUtils(0));
+
+        UserDetailsImpl user = new UserDetailsImpl(42L, "John Doe", "john@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        authenticated = new MockHttpServletRequest("GET", "/api/orders/user/42");
+        authenticated.addHeader("Authorization", "Bearer " + cached.generateJwtToken(authentication));
+        anonymous = new MockHttpServletRequest("GET", "/api/restaurants");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object cachedToken() throws ServletException, IOException {
+        return run(cachedFilter, authenticated);
+    }
+
+    @Benchmark
+    public Object uncachedToken() throws ServletException, IOException {
+        return run(uncachedFilter, authenticated);
+    }
+
+    @Benchmark
+    public Object noToken() throws ServletException, IOException {
+        return run(cachedFilter, anonymous);
+    }
+
+    private Object run(AuthTokenFilter filter, MockHttpServletRequest request) throws ServletException, IOException {
+        request.removeAttribute(FILTERED_ATTRIBUTE);
+        filter.doFilter(request, response, CHAIN);
+        Object principal = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    private static AuthTokenFilter filter(JwtUtils jwtUtils) {
+        AuthTokenFilter filter = new AuthTokenFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        // Nobody has changed credentials, so every token is current
+        ReflectionTestUtils.setField(filter, "credentialsEpochService", new CredentialsEpochService());
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", true);
+        return filter;
+    }
+}
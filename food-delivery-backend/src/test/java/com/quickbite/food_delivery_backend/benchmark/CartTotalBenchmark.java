@@ -0,0 +1,54 @@
+package com.quickbite.food_delivery_backend.benchmark;
+
+import com.quickbite.food_delivery_backend.models.Cart;
+import com.quickbite.food_delivery_backend.models.CartItem;
+import com.quickbite.food_delivery_backend.models.MenuItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cart.calculateTotal, which runs on every add and remove, and what that makes building a cart
+// one item at a time cost.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartTotalBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int items;
+
+    private Cart cart;
+    private List<MenuItem> menu;
+
+    @Setup
+    public void setUp() {
+        menu = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            menu.add(new MenuItem("Dish " + i, 50.0 + i, null, true, null));
+        }
+        cart = fill(new Cart());
+    }
+
+    @Benchmark
+    public Double calculateTotal() {
+        cart.calculateTotal();
+        return cart.getTotalPrice();
+    }
+
+    @Benchmark
+    public Double addItems() {
+        return fill(new Cart()).getTotalPrice();
+    }
+
+    private Cart fill(Cart cart) {
+        for (int i = 0; i < menu.size(); i++) {
+            cart.addItem(new CartItem(cart, menu.get(i), 1 + i % 3));
+        }
+        return cart;
+    }
+}
@@ -0,0 +1,211 @@
+package com.quickbite.food_delivery_backend.benchmark;
+
+import com.quickbite.food_delivery_backend.dispatch.BalancedScoringPolicy;
+import com.quickbite.food_delivery_backend.dispatch.DispatchRequest;
+import com.quickbite.food_delivery_backend.dispatch.DispatchScoringPolicy;
+import com.quickbite.food_delivery_backend.dispatch.RiderPool;
+import com.quickbite.food_delivery_backend.dispatch.RiderState;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+// Replays synthetic order streams against the dispatch planner (RiderPool plus the default
+// scoring policy) and reports assignment latency: the time from an order arriving to it holding
+// a rider, including time spent waiting for one to free up. Several dispatcher threads each
+// replay their own deterministic stream; zones are skewed so a few are hot, and every assigned
+// order is delivered (its rider released) a random number of arrivals later.
+//
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.quickbite.food_delivery_backend.benchmark.DispatchSimulation \
+//       -Dsim.orders=1000000 -Dsim.threads=4
+//
+// Results go to stdout and target/dispatch-simulation.json.
+public class DispatchSimulation {
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        Result result = run(settings);
+        System.out.println(result.summary());
+        Path output = Path.of("target", "dispatch-simulation.json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, result.toJson(settings));
+    }
+
+    public record Settings(int zones, int riders, int capacity, int orders, int threads,
+                           int minDeliveryArrivals, int maxDeliveryArrivals, long seed) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    Integer.getInteger("sim.zones", 20),
+                    Integer.getInteger("sim.riders", 2_000),
+                    Integer.getInteger("sim.capacity", 2),
+                    Integer.getInteger("sim.orders", 400_000),
+                    Integer.getInteger("sim.threads", 4),
+                    Integer.getInteger("sim.minDeliveryArrivals", 200),
+                    Integer.getInteger("sim.maxDeliveryArrivals", 1_200),
+                    Long.getLong("sim.seed", 42L));
+        }
+    }
+
+    public record Result(int assigned, int unassigned, long elapsedNanos, long[] latenciesNanos) {
+
+        double throughputPerSecond() {
+            return assigned / (elapsedNanos / 1e9);
+        }
+
+        long percentile(double p) {
+            if (latenciesNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100.0 * latenciesNanos.length) - 1;
+            return latenciesNanos[Math.max(0, Math.min(index, latenciesNanos.length - 1))];
+        }
+
+        String summary() {
+            return String.format(Locale.ROOT,
+                    "assigned=%d unassigned=%d throughput=%.0f/s latency p50=%.1fus p95=%.1fus p99=%.1fus max=%.1fus",
+                    assigned, unassigned, throughputPerSecond(),
+                    percentile(50) / 1e3, percentile(95) / 1e3, percentile(99) / 1e3, percentile(100) / 1e3);
+        }
+
+        String toJson(Settings settings) {
+            return String.format(Locale.ROOT,
+                    "{\"settings\":{\"zones\":%d,\"riders\":%d,\"capacity\":%d,\"orders\":%d,\"threads\":%d,\"seed\":%d},"
+                            + "\"assigned\":%d,\"unassigned\":%d,\"throughputPerSecond\":%.1f,"
+                            + "\"latencyNanos\":{\"p50\":%d,\"p95\":%d,\"p99\":%d,\"max\":%d}}%n",
+                    settings.zones(), settings.riders(), settings.capacity(), settings.orders(), settings.threads(),
+                    settings.seed(), assigned, unassigned, throughputPerSecond(),
+                    percentile(50), percentile(95), percentile(99), percentile(100));
+        }
+    }
+
+    public static Result run(Settings settings) throws InterruptedException {
+        RiderPool pool = new RiderPool(settings.capacity());
+        DispatchScoringPolicy policy = new BalancedScoringPolicy();
+        Random setup = new Random(settings.seed());
+        for (long riderId = 0; riderId < settings.riders(); riderId++) {
+            String vehicle = setup.nextInt(4) == 0 ? "Car" : "Bike";
+            pool.register(riderId, zoneName(skewedZone(setup, settings.zones())), vehicle, 0, true, 0);
+        }
+
+        int perThread = settings.orders() / settings.threads();
+        List<Stream> streams = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < settings.threads(); t++) {
+            Stream stream = new Stream(pool, policy, settings, perThread, settings.seed() + t + 1);
+            streams.add(stream);
+            threads.add(new Thread(stream, "dispatch-sim-" + t));
+        }
+
+        long started = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - started;
+
+        int assigned = 0;
+        int unassigned = 0;
+        long[] latencies = new long[0];
+        for (Stream stream : streams) {
+            assigned += stream.assigned;
+            unassigned += stream.pending.size();
+            long[] merged = Arrays.copyOf(latencies, latencies.length + stream.assigned);
+            System.arraycopy(stream.latencies, 0, merged, latencies.length, stream.assigned);
+            latencies = merged;
+        }
+        Arrays.sort(latencies);
+        return new Result(assigned, unassigned, elapsed, latencies);
+    }
+
+    // Roughly Zipf: zone 0 is the busiest
+    private static int skewedZone(Random random, int zones) {
+        double u = random.nextDouble();
+        return (int) Math.min(zones - 1, Math.floor(zones * u * u));
+    }
+
+    private static String zoneName(int zone) {
+        return "zone-" + zone;
+    }
+
+    private static final class Stream implements Runnable {
+        private final RiderPool pool;
+        private final DispatchScoringPolicy policy;
+        private final Settings settings;
+        private final int orders;
+        private final Random random;
+        private final long[] latencies;
+        private final ArrayDeque<DispatchRequest> pending = new ArrayDeque<>();
+        // [due arrival index, rider id], earliest first
+        private final PriorityQueue<long[]> deliveries = new PriorityQueue<>(Comparator.comparingLong(delivery -> delivery[0]));
+        private int assigned;
+
+        Stream(RiderPool pool, DispatchScoringPolicy policy, Settings settings, int orders, long seed) {
+            this.pool = pool;
+            this.policy = policy;
+            this.settings = settings;
+            this.orders = orders;
+            this.random = new Random(seed);
+            this.latencies = new long[orders];
+        }
+
+        @Override
+        public void run() {
+            for (int arrival = 0; arrival < orders; arrival++) {
+                long now = System.currentTimeMillis();
+
+                boolean released = false;
+                while (!deliveries.isEmpty() && deliveries.peek()[0] <= arrival) {
+                    pool.release(deliveries.poll()[1], now);
+                    released = true;
+                }
+
+                // Orders that found nobody last time go first, once a slot has freed up
+                if (released) {
+                    retryPending(arrival, now);
+                }
+
+                String zone = random.nextInt(10) == 0 ? null : zoneName(skewedZone(random, settings.zones()));
+                tryAssign(new DispatchRequest(arrival, 1, zone, random.nextInt(3000), System.nanoTime()), arrival, now);
+            }
+            // Let the remaining deliveries finish so waiting orders get a rider
+            long now = System.currentTimeMillis();
+            while (!deliveries.isEmpty() && !pending.isEmpty()) {
+                pool.release(deliveries.poll()[1], now);
+                retryPending(orders, now);
+            }
+            for (long[] delivery : deliveries) {
+                pool.release(delivery[1], now);
+            }
+        }
+
+        private void retryPending(int arrival, long now) {
+            int retries = pending.size();
+            for (int i = 0; i < retries; i++) {
+                tryAssign(pending.poll(), arrival, now);
+            }
+        }
+
+        private void tryAssign(DispatchRequest request, int arrival, long now) {
+            RiderState rider = pool.reserve(request, policy, now);
+            if (rider == null) {
+                pending.add(request);
+                return;
+            }
+            latencies[assigned++] = System.nanoTime() - request.enqueuedNanos();
+            int deliveryArrivals = settings.minDeliveryArrivals()
+                    + random.nextInt(settings.maxDeliveryArrivals() - settings.minDeliveryArrivals() + 1);
+            deliveries.add(new long[] { arrival + deliveryArrivals, rider.getRiderId() });
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.quickbite.food_delivery_backend.benchmark;
+
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+import com.quickbite.food_delivery_backend.geo.GeoIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// "Near me" lookups over 100k restaurants spread across one metro area: the in-memory grid
+// index against the SQL alternative, a bounding-box query on an indexed (latitude, longitude)
+// table followed by an exact distance filter and sort. The database is in-memory H2, so the
+// SQL numbers leave out the network round trip a real deployment would add.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoIndexBenchmark {
+
+    private static final double MIN_LAT = 12.80;
+    private static final double MAX_LAT = 13.15;
+    private static final double MIN_LON = 77.45;
+    private static final double MAX_LON = 77.80;
+    private static final double KM_PER_DEGREE = Math.PI * GeoIndex.EARTH_RADIUS_KM / 180;
+
+    @Param("100000")
+    public int restaurants;
+
+    @Param("2.0")
+    public double radiusKm;
+
+    private GeoIndex index;
+    private Connection connection;
+    private PreparedStatement boundingBox;
+    private double[][] origins;
+    private int next;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        List<RestaurantView> views = new ArrayList<>(restaurants);
+        connection = DriverManager.getConnection("jdbc:h2:mem:geo-benchmark;MODE=MySQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table restaurants (id bigint primary key, latitude double, longitude double)");
+            statement.execute("create index idx_restaurants_position on restaurants (latitude, longitude)");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("insert into restaurants values (?, ?, ?)")) {
+            for (long id = 1; id <= restaurants; id++) {
+                double lat = MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT);
+                double lon = MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON);
+                views.add(new RestaurantView(id, "Restaurant " + id, null, null, null, null, null, null, null,
+                        null, lat, lon, null, List.of()));
+                insert.setLong(1, id);
+                insert.setDouble(2, lat);
+                insert.setDouble(3, lon);
+                insert.addBatch();
+                if (id % 1_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        boundingBox = connection.prepareStatement(
+                "select id, latitude, longitude from restaurants where latitude between ? and ? and longitude between ? and ?");
+
+        index = GeoIndex.build(views, 0.01);
+
+        origins = new double[1024][];
+        for (int i = 0; i < origins.length; i++) {
+            origins[i] = new double[] {
+                    MIN_LAT + random.nextDouble() * (MAX_LAT - MIN_LAT),
+                    MIN_LON + random.nextDouble() * (MAX_LON - MIN_LON) };
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<GeoIndex.Hit> indexRadius() {
+        double[] origin = nextOrigin();
+        return index.withinRadius(origin[0], origin[1], radiusKm, 20);
+    }
+
+    @Benchmark
+    public List<GeoIndex.Hit> indexNearest() {
+        double[] origin = nextOrigin();
+        return index.nearest(origin[0], origin[1], 20, 50);
+    }
+
+    @Benchmark
+    public List<GeoIndex.Hit> sqlBoundingBox() throws SQLException {
+        double[] origin = nextOrigin();
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double lonDelta = radiusKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(origin[0])));
+        boundingBox.setDouble(1, origin[0] - latDelta);
+        boundingBox.setDouble(2, origin[0] + latDelta);
+        boundingBox.setDouble(3, origin[1] - lonDelta);
+        boundingBox.setDouble(4, origin[1] + lonDelta);
+        List<GeoIndex.Hit> hits = new ArrayList<>();
+        try (ResultSet rows = boundingBox.executeQuery()) {
+            while (rows.next()) {
+                double distance = GeoIndex.distanceKm(origin[0], origin[1], rows.getDouble(2), rows.getDouble(3));
+                if (distance <= radiusKm) {
+                    hits.add(new GeoIndex.Hit(rows.getLong(1), distance));
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(GeoIndex.Hit::distanceKm));
+        return hits.size() > 20 ? hits.subList(0, 20) : hits;
+    }
+
+    private double[] nextOrigin() {
+        return origins[next++ & (origins.length - 1)];
+    }
+}
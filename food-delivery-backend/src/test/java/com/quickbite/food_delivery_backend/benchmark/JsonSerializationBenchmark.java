@@ -0,0 +1,97 @@
+package com.quickbite.food_delivery_backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+import com.quickbite.food_delivery_backend.models.*;
+import com.quickbite.food_delivery_backend.payload.response.OrderLineSummary;
+import com.quickbite.food_delivery_backend.payload.response.OrderSummary;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson writing restaurant and order responses to bytes, both as the JPA entity graphs the
+// API used to return and as the catalog views and order summaries it returns now. size is the
+// menu length and the number of order lines.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"5", "50"})
+    public int size;
+
+    // Configured the way Spring Boot configures the MVC message converter's mapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Restaurant restaurant;
+    private RestaurantView restaurantView;
+    private Order order;
+    private OrderSummary orderSummary;
+
+    @Setup
+    public void setUp() {
+        User owner = new User("Restaurant Owner", "owner@quickbite.com", "$2a$10$hash", ERole.ROLE_RESTAURANT);
+        owner.setId(1L);
+        restaurant = new Restaurant("Spicy Biryani House", "https://images.example.com/biryani.jpg", 4.5, 30,
+                "Biryani, Mughlai", "Free", "50% OFF");
+        restaurant.setId(7L);
+        restaurant.setOwner(owner);
+        restaurant.setDescription("Authentic Hyderabadi dum biryani.");
+        restaurant.setAddress("12 MG Road, Bengaluru");
+        for (int i = 0; i < size; i++) {
+            MenuItem item = new MenuItem("Dish " + i, 100.0 + i, "A generous plate of dish number " + i + ".",
+                    i % 2 == 0, "https://images.example.com/dish" + i + ".jpg");
+            item.setId(100L + i);
+            item.setRestaurant(restaurant);
+            restaurant.getMenu().add(item);
+        }
+        restaurantView = RestaurantView.from(restaurant, restaurant.getMenu());
+
+        User customer = new User("John Doe", "john@example.com", "$2a$10$hash", ERole.ROLE_CUSTOMER);
+        customer.setId(2L);
+        order = new Order(customer, restaurant, 0.0, "221B Baker Street");
+        order.setId(1_000L);
+        order.setCreatedAt(LocalDateTime.of(2026, 1, 1, 13, 30));
+        List<OrderLineSummary> lines = new ArrayList<>();
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            MenuItem menuItem = restaurant.getMenu().get(i);
+            OrderItem line = new OrderItem(order, menuItem, 1 + i % 3, menuItem.getPrice());
+            line.setId(10_000L + i);
+            order.addItem(line);
+            total += line.getPrice() * line.getQuantity();
+            lines.add(new OrderLineSummary(order.getId(), line.getId(), menuItem.getId(), menuItem.getName(),
+                    menuItem.getImage(), line.getQuantity(), line.getPrice()));
+        }
+        order.setTotalAmount(total);
+        orderSummary = new OrderSummary(order.getId(), order.getCreatedAt(), order.getStatus(), total,
+                restaurant.getId(), restaurant.getName()).withItems(lines);
+    }
+
+    @Benchmark
+    public byte[] restaurantEntity() throws Exception {
+        return objectMapper.writeValueAsBytes(restaurant);
+    }
+
+    @Benchmark
+    public byte[] restaurantView() throws Exception {
+        return objectMapper.writeValueAsBytes(restaurantView);
+    }
+
+    @Benchmark
+    public byte[] orderEntity() throws Exception {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] orderSummary() throws Exception {
+        return objectMapper.writeValueAsBytes(orderSummary);
+    }
+}
@@ -0,0 +1,42 @@
+package com.quickbite.food_delivery_backend.benchmark;
+
+import com.quickbite.food_delivery_backend.security.jwt.JwtUtils;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of issuing a token at signin, and of a cold (uncached) parse of a freshly signed one.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = JwtVerificationBenchmark.jwtUtils(0);
+        UserDetailsImpl user = new UserDetailsImpl(42L, "John Doe", "john@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public Long signAndParse() {
+        return jwtUtils.getPrincipalFromClaims(jwtUtils.getVerifiedClaims(jwtUtils.generateJwtToken(authentication))).getId();
+    }
+}
@@ -0,0 +1,99 @@
+package com.quickbite.food_delivery_backend.benchmark;
+
+import com.quickbite.food_delivery_backend.FoodDeliveryBackendApplication;
+import com.quickbite.food_delivery_backend.controllers.OrderController;
+import com.quickbite.food_delivery_backend.models.MenuItem;
+import com.quickbite.food_delivery_backend.models.Restaurant;
+import com.quickbite.food_delivery_backend.models.User;
+import com.quickbite.food_delivery_backend.payload.request.OrderItemRequest;
+import com.quickbite.food_delivery_backend.payload.request.OrderRequest;
+import com.quickbite.food_delivery_backend.repository.RestaurantRepository;
+import com.quickbite.food_delivery_backend.repository.UserRepository;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Checkout end to end through OrderController against the embedded H2 test profile: the
+// order, its lines and the outbox row. The statements counter is JDBC statements prepared per
+// iteration (Hibernate statistics), so statements / orders is the round trips one checkout
+// costs; with MySQL each of those is a network round trip this in-memory database leaves out.
+// Id block fetches run on their own connection and are not counted: two statements per 50 ids.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPlacementBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private OrderController orderController;
+    private Statistics statistics;
+    private OrderRequest request;
+    private UserDetailsImpl caller;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long orders;
+        public long statements;
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(FoodDeliveryBackendApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        orderController = context.getBean(OrderController.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        Restaurant restaurant = new Restaurant("Benchmark Kitchen", null, 4.0, 30, "Test", "Free", null);
+        for (int i = 1; i <= items; i++) {
+            MenuItem item = new MenuItem("Dish " + i, 10.0 * i, "Benchmark dish " + i, true, null);
+            item.setRestaurant(restaurant);
+            restaurant.getMenu().add(item);
+        }
+        restaurant = context.getBean(RestaurantRepository.class).save(restaurant);
+
+        List<OrderItemRequest> lines = new ArrayList<>();
+        for (MenuItem item : restaurant.getMenu()) {
+            OrderItemRequest line = new OrderItemRequest();
+            line.setMenuItemId(item.getId());
+            line.setQuantity(1);
+            lines.add(line);
+        }
+        User customer = context.getBean(UserRepository.class).findByEmail("john@example.com").orElseThrow();
+        caller = UserDetailsImpl.build(customer);
+        request = new OrderRequest();
+        request.setCustomerId(customer.getId());
+        request.setRestaurantId(restaurant.getId());
+        request.setDeliveryAddress("221B Benchmark Street");
+        request.setItems(lines);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object placeOrder(Counters counters) {
+        long before = statistics.getPrepareStatementCount();
+        Object response = orderController.createOrder(null, request, caller);
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        counters.orders++;
+        return response;
+    }
+}
@@ -0,0 +1,111 @@
+package com.quickbite.food_delivery_backend.benchmark;
+
+import com.quickbite.food_delivery_backend.catalog.MenuItemView;
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+import com.quickbite.food_delivery_backend.search.SearchIndex;
+import com.quickbite.food_delivery_backend.search.Tokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Top-20 search over 2,000 restaurants with 64 menu items each. Dish words are drawn with a
+// skew, so "chicken" sits in over a fifth of all documents while the tail words match a few
+// thousand. commonTermFullScan asks for 1,001 results, one more than the impact-ordered path
+// serves, so it scores every matching document the way every common-term query used to.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "chicken", "masala", "paneer", "rice", "curry", "butter", "tikka", "biryani", "naan", "garlic",
+            "dal", "roll", "spicy", "fried", "veg", "mutton", "egg", "kebab", "soup", "salad",
+            "noodles", "momos", "dosa", "idli", "vada", "paratha", "kulcha", "lassi", "kheer", "halwa",
+            "tandoori", "korma", "vindaloo", "saag", "aloo", "gobi", "chole", "rajma", "pulao", "raita" };
+
+    @Param("2000")
+    public int restaurants;
+
+    @Param("64")
+    public int itemsPerRestaurant;
+
+    private SearchIndex index;
+    private List<String> chicken;
+    private List<String> chickenPrefix;
+    private List<String> chickenMasala;
+    private List<List<String>> tailTerms;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<RestaurantView> views = new ArrayList<>(restaurants);
+        long itemId = 1;
+        for (long id = 1; id <= restaurants; id++) {
+            List<MenuItemView> menu = new ArrayList<>(itemsPerRestaurant);
+            for (int i = 0; i < itemsPerRestaurant; i++) {
+                menu.add(new MenuItemView(itemId++, word(random) + " " + word(random), 100.0,
+                        word(random) + " " + word(random) + " " + word(random), false, null));
+            }
+            views.add(new RestaurantView(id, word(random) + " House " + id, null, 4.0, 30, word(random), null, null,
+                    null, null, null, null, null, menu));
+        }
+        index = SearchIndex.build(views);
+
+        chicken = Tokenizer.tokenize("chicken");
+        chickenPrefix = Tokenizer.tokenize("chick");
+        chickenMasala = Tokenizer.tokenize("chicken masala");
+        tailTerms = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            tailTerms.add(Tokenizer.tokenize(WORDS[WORDS.length - 1 - i]));
+        }
+    }
+
+    // Rank-skewed: word i is picked about 1/(i+1) as often as the first
+    private static String word(Random random) {
+        double total = 0;
+        for (int i = 0; i < WORDS.length; i++) {
+            total += 1.0 / (i + 1);
+        }
+        double pick = random.nextDouble() * total;
+        for (int i = 0; i < WORDS.length; i++) {
+            pick -= 1.0 / (i + 1);
+            if (pick <= 0) {
+                return WORDS[i];
+            }
+        }
+        return WORDS[WORDS.length - 1];
+    }
+
+    @Benchmark
+    public List<SearchIndex.Match> commonTerm() {
+        return index.search(chicken, SearchIndex.ALL_FIELDS, SearchIndex.ALL_TYPES, 20);
+    }
+
+    @Benchmark
+    public List<SearchIndex.Match> commonTermFullScan() {
+        return index.search(chicken, SearchIndex.ALL_FIELDS, SearchIndex.ALL_TYPES, 1_001);
+    }
+
+    @Benchmark
+    public List<SearchIndex.Match> commonPrefix() {
+        return index.search(chickenPrefix, SearchIndex.ALL_FIELDS, SearchIndex.ALL_TYPES, 20);
+    }
+
+    @Benchmark
+    public List<SearchIndex.Match> commonTermsTogether() {
+        return index.search(chickenMasala, SearchIndex.ALL_FIELDS, SearchIndex.ALL_TYPES, 20);
+    }
+
+    @Benchmark
+    public List<SearchIndex.Match> tailTerm() {
+        return index.search(tailTerms.get(next++ & (tailTerms.size() - 1)), SearchIndex.ALL_FIELDS,
+                SearchIndex.ALL_TYPES, 20);
+    }
+}
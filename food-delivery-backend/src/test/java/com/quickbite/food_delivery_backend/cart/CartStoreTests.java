@@ -0,0 +1,169 @@
+package com.quickbite.food_delivery_backend.cart;
+
+import com.quickbite.food_delivery_backend.models.*;
+import com.quickbite.food_delivery_backend.payload.request.CartOperationRequest;
+import com.quickbite.food_delivery_backend.repository.CartRepository;
+import com.quickbite.food_delivery_backend.repository.MenuItemRepository;
+import com.quickbite.food_delivery_backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+
+// Background flushing is pushed out of the way so each test decides when carts are written.
+@SpringBootTest(properties = { "app.cartFlushIntervalMs=3600000", "app.cartIdleEvictMs=0" })
+@ActiveProfiles("test")
+class CartStoreTests {
+
+    @Autowired
+    CartStore cartStore;
+
+    @Autowired
+    CartRepository cartRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    MenuItemRepository menuItemRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @MockitoSpyBean
+    CartPersister persister;
+
+    private Long userId;
+    private MenuItem first;
+    private MenuItem second;
+
+    @BeforeEach
+    void setUp() {
+        userId = newUser();
+        List<MenuItem> menu = menuItemRepository.findAll();
+        first = menu.get(0);
+        second = menu.get(1);
+    }
+
+    @Test
+    void editsStayInMemoryUntilFlushed() {
+        cartStore.add(userId, first.getId(), 2);
+        CartView view = cartStore.add(userId, second.getId(), 1);
+
+        assertThat(view.items()).hasSize(2);
+        assertThat(view.totalPrice()).isEqualTo(first.getPrice() * 2 + second.getPrice());
+        assertThat(cartRepository.findByUserId(userId)).isEmpty();
+
+        cartStore.flush(userId);
+
+        assertThat(persistedQuantities()).isEqualTo(Map.of(first.getId(), 2, second.getId(), 1));
+    }
+
+    @Test
+    void removalsAndClearsReachTheDatabase() {
+        cartStore.add(userId, first.getId(), 1);
+        CartView view = cartStore.add(userId, second.getId(), 3);
+        cartStore.flush(userId);
+
+        // The line id the client saw before the flush still works afterwards
+        cartStore.removeLine(view.items().get(0).id());
+        cartStore.flush(userId);
+        assertThat(persistedQuantities()).isEqualTo(Map.of(second.getId(), 3));
+
+        cartStore.clear(userId);
+        cartStore.flush(userId);
+        assertThat(persistedQuantities()).isEmpty();
+    }
+
+    @Test
+    void evictedCartsReloadFromTheDatabase() {
+        cartStore.add(userId, first.getId(), 4);
+        cartStore.flushDirty();
+
+        CartView reloaded = cartStore.get(userId);
+
+        assertThat(reloaded.id()).isNotNull();
+        assertThat(reloaded.items()).singleElement()
+                .satisfies(line -> assertThat(line.quantity()).isEqualTo(4));
+        assertThat(reloaded.totalPrice()).isEqualTo(first.getPrice() * 4);
+    }
+
+    @Test
+    void batchAppliesEveryOperationToOneCart() {
+        cartStore.add(userId, first.getId(), 1);
+
+        CartView view = cartStore.apply(userId, List.of(
+                        operation(CartOperationRequest.Type.ADD, second.getId(), 2),
+                        operation(CartOperationRequest.Type.ADD, second.getId(), 1),
+                        operation(CartOperationRequest.Type.SET_QUANTITY, first.getId(), 5),
+                        operation(CartOperationRequest.Type.REMOVE, first.getId(), null)),
+                cartStore.resolveMenuItems(List.of(first.getId(), second.getId())));
+
+        assertThat(view.items()).singleElement()
+                .satisfies(line -> assertThat(line.quantity()).isEqualTo(3));
+        assertThat(view.totalPrice()).isEqualTo(second.getPrice() * 3);
+    }
+
+    @Test
+    void checkoutFlushOnlyWaitsForItsOwnCart() throws InterruptedException {
+        Long otherUserId = newUser();
+        cartStore.add(otherUserId, first.getId(), 1);
+
+        CountDownLatch persisting = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            persisting.countDown();
+            proceed.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(persister).persist(argThat(snapshots -> snapshots.stream()
+                .anyMatch(snapshot -> snapshot.userId().equals(otherUserId))));
+
+        Thread background = new Thread(cartStore::flushDirty);
+        background.start();
+        try {
+            assertThat(persisting.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // The background flush is stuck on another user's cart; this one still goes straight through
+            cartStore.add(userId, first.getId(), 2);
+            cartStore.flush(userId);
+            assertThat(persistedQuantities()).isEqualTo(Map.of(first.getId(), 2));
+        } finally {
+            proceed.countDown();
+            background.join();
+        }
+    }
+
+    private Long newUser() {
+        User user = new User("Cart User", UUID.randomUUID() + "@example.com", "unused", ERole.ROLE_CUSTOMER);
+        return userRepository.save(user).getId();
+    }
+
+    private static CartOperationRequest operation(CartOperationRequest.Type type, Long menuItemId, Integer quantity) {
+        CartOperationRequest operation = new CartOperationRequest();
+        operation.setType(type);
+        operation.setMenuItemId(menuItemId);
+        operation.setQuantity(quantity);
+        return operation;
+    }
+
+    private Map<Long, Integer> persistedQuantities() {
+        return transactionTemplate.execute(status -> cartRepository.findByUserId(userId)
+                .map(cart -> cart.getItems().stream()
+                        .collect(Collectors.toMap(item -> item.getMenuItem().getId(), CartItem::getQuantity)))
+                .orElse(Map.of()));
+    }
+}
@@ -0,0 +1,119 @@
+package com.quickbite.food_delivery_backend.catalog;
+
+import com.quickbite.food_delivery_backend.models.MenuItem;
+import com.quickbite.food_delivery_backend.models.Restaurant;
+import com.quickbite.food_delivery_backend.repository.MenuItemRepository;
+import com.quickbite.food_delivery_backend.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogEntityListenerTests {
+
+    @Autowired
+    CatalogService catalogService;
+
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    @Autowired
+    MenuItemRepository menuItemRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void writesReachTheSnapshotOnlyAfterCommit() {
+        long version = catalogService.snapshot().version();
+
+        Long restaurantId = transactionTemplate.execute(status -> {
+            Restaurant restaurant = new Restaurant("Committed Kitchen", null, 4.0, 30, "Test", "Free", null);
+            MenuItem item = new MenuItem("Dosa", 80.0, null, true, null);
+            item.setRestaurant(restaurant);
+            restaurant.getMenu().add(item);
+            Long id = restaurantRepository.saveAndFlush(restaurant).getId();
+
+            assertThat(catalogService.snapshot().restaurant(id)).isEmpty();
+            assertThat(catalogService.snapshot().version()).isEqualTo(version);
+            return id;
+        });
+
+        // One batch per transaction
+        assertThat(catalogService.snapshot().version()).isEqualTo(version + 1);
+        RestaurantView view = catalogService.snapshot().restaurant(restaurantId).orElseThrow();
+        assertThat(view.name()).isEqualTo("Committed Kitchen");
+        assertThat(view.menu()).extracting(MenuItemView::name).containsExactly("Dosa");
+    }
+
+    @Test
+    void rolledBackWritesNeverReachTheSnapshot() {
+        Restaurant restaurant = restaurantRepository.save(new Restaurant("Rollback Kitchen", null, 4.0, 30, "Test", "Free", null));
+        CatalogSnapshot before = catalogService.snapshot();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Restaurant managed = restaurantRepository.findById(restaurant.getId()).orElseThrow();
+            managed.setName("Renamed Then Rolled Back");
+            MenuItem item = new MenuItem("Never Sold", 10.0, null, true, null);
+            item.setRestaurant(managed);
+            menuItemRepository.save(item);
+            restaurantRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(catalogService.snapshot()).isSameAs(before);
+        assertThat(catalogService.snapshot().restaurant(restaurant.getId()))
+                .map(RestaurantView::name).hasValue("Rollback Kitchen");
+    }
+
+    @Test
+    void updatesAndRemovalsAreAppliedAfterCommit() {
+        Restaurant restaurant = new Restaurant("Changing Kitchen", null, 4.0, 30, "Test", "Free", null);
+        MenuItem dosa = new MenuItem("Dosa", 80.0, null, true, null);
+        MenuItem vada = new MenuItem("Vada", 40.0, null, true, null);
+        dosa.setRestaurant(restaurant);
+        vada.setRestaurant(restaurant);
+        restaurant.getMenu().add(dosa);
+        restaurant.getMenu().add(vada);
+        Long restaurantId = restaurantRepository.save(restaurant).getId();
+        Long dosaId = catalogService.snapshot().restaurant(restaurantId).orElseThrow().menu().get(0).id();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            MenuItem managed = menuItemRepository.findById(dosaId).orElseThrow();
+            managed.setPrice(95.0);
+            menuItemRepository.flush();
+            assertThat(catalogService.snapshot().menuItem(dosaId)).map(MenuItemView::price).hasValue(80.0);
+        });
+        assertThat(catalogService.snapshot().menuItem(dosaId)).map(MenuItemView::price).hasValue(95.0);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            menuItemRepository.deleteById(dosaId);
+            menuItemRepository.flush();
+            assertThat(catalogService.snapshot().menuItem(dosaId)).isPresent();
+        });
+        assertThat(catalogService.snapshot().menuItem(dosaId)).isEmpty();
+        assertThat(catalogService.snapshot().restaurant(restaurantId).orElseThrow().menu())
+                .extracting(MenuItemView::name).containsExactly("Vada");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            restaurantRepository.deleteById(restaurantId);
+            restaurantRepository.flush();
+            assertThat(catalogService.snapshot().restaurant(restaurantId)).isPresent();
+        });
+        assertThat(catalogService.snapshot().restaurant(restaurantId)).isEmpty();
+    }
+}
@@ -0,0 +1,113 @@
+package com.quickbite.food_delivery_backend.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CatalogSnapshotTests {
+
+    @Test
+    void addingRestaurantsKeepsThemSortedAndLeavesThePreviousSnapshotAlone() {
+        CatalogSnapshot initial = CatalogSnapshot.of(1, List.of(restaurant(2L, "Second", item(20L, "Dosa", 80.0))));
+
+        CatalogSnapshot next = initial.apply(List.of(CatalogChange.restaurantUpsert(restaurant(1L, "First"))));
+
+        assertThat(next.version()).isEqualTo(2);
+        assertThat(next.restaurants()).extracting(RestaurantView::id).containsExactly(1L, 2L);
+        assertThat(next.restaurant(1L)).map(RestaurantView::menu).hasValue(List.of());
+        assertThat(initial.restaurants()).extracting(RestaurantView::id).containsExactly(2L);
+        assertThat(initial.restaurant(1L)).isEmpty();
+    }
+
+    @Test
+    void updatingARestaurantKeepsItsMenu() {
+        CatalogSnapshot initial = CatalogSnapshot.of(1, List.of(restaurant(1L, "Old Name", item(10L, "Dosa", 80.0))));
+
+        CatalogSnapshot next = initial.apply(List.of(CatalogChange.restaurantUpsert(restaurant(1L, "New Name"))));
+
+        assertThat(next.restaurant(1L)).map(RestaurantView::name).hasValue("New Name");
+        assertThat(next.menuItem(10L)).map(MenuItemView::name).hasValue("Dosa");
+        assertThat(next.restaurantIdOf(10L)).isEqualTo(1L);
+    }
+
+    @Test
+    void removingARestaurantDropsItsMenuItems() {
+        CatalogSnapshot initial = CatalogSnapshot.of(1, List.of(
+                restaurant(1L, "Closing", item(10L, "Dosa", 80.0), item(11L, "Idli", 50.0)),
+                restaurant(2L, "Staying", item(20L, "Vada", 40.0))));
+
+        CatalogSnapshot next = initial.apply(List.of(CatalogChange.restaurantRemove(1L)));
+
+        assertThat(next.restaurant(1L)).isEmpty();
+        assertThat(next.menuItem(10L)).isEmpty();
+        assertThat(next.restaurantIdOf(11L)).isNull();
+        assertThat(next.restaurantCount()).isEqualTo(1);
+        assertThat(next.menuItemCount()).isEqualTo(1);
+        assertThat(initial.menuItem(10L)).isPresent();
+    }
+
+    @Test
+    void menuItemsAreAddedUpdatedAndRemovedInIdOrder() {
+        CatalogSnapshot initial = CatalogSnapshot.of(1, List.of(restaurant(1L, "Kitchen", item(10L, "Dosa", 80.0), item(30L, "Vada", 40.0))));
+
+        CatalogSnapshot next = initial.apply(List.of(
+                CatalogChange.menuItemUpsert(1L, item(20L, "Idli", 50.0)),
+                CatalogChange.menuItemUpsert(1L, item(10L, "Masala Dosa", 95.0)),
+                CatalogChange.menuItemRemove(1L, item(30L, "Vada", 40.0))));
+
+        assertThat(next.restaurant(1L).orElseThrow().menu())
+                .extracting(MenuItemView::id, MenuItemView::name)
+                .containsExactly(
+                        tuple(10L, "Masala Dosa"),
+                        tuple(20L, "Idli"));
+        assertThat(next.menuItem(20L)).map(MenuItemView::price).hasValue(50.0);
+        assertThat(next.menuItem(30L)).isEmpty();
+        assertThat(next.menuItemCount()).isEqualTo(2);
+        assertThat(initial.menuItem(10L)).map(MenuItemView::name).hasValue("Dosa");
+    }
+
+    @Test
+    void aMenuItemMovedToAnotherRestaurantLeavesTheOldMenu() {
+        CatalogSnapshot initial = CatalogSnapshot.of(1, List.of(
+                restaurant(1L, "From", item(10L, "Dosa", 80.0)),
+                restaurant(2L, "To")));
+
+        CatalogSnapshot next = initial.apply(List.of(CatalogChange.menuItemUpsert(2L, item(10L, "Dosa", 80.0))));
+
+        assertThat(next.restaurant(1L).orElseThrow().menu()).isEmpty();
+        assertThat(next.restaurant(2L).orElseThrow().menu()).extracting(MenuItemView::id).containsExactly(10L);
+        assertThat(next.restaurantIdOf(10L)).isEqualTo(2L);
+    }
+
+    // A restaurant and its menu saved in one transaction arrive together, restaurant first
+    @Test
+    void aNewRestaurantAndItsMenuCanArriveInOneBatch() {
+        List<CatalogChange> changes = new ArrayList<>();
+        changes.add(CatalogChange.restaurantUpsert(restaurant(5L, "Opening")));
+        for (long id = 59; id >= 50; id--) {
+            changes.add(CatalogChange.menuItemUpsert(5L, item(id, "Item " + id, 10.0)));
+        }
+
+        CatalogSnapshot next = CatalogSnapshot.empty().apply(changes);
+
+        assertThat(next.restaurant(5L).orElseThrow().menu()).extracting(MenuItemView::id)
+                .isSorted().hasSize(10);
+        for (long id = 50; id <= 59; id++) {
+            assertThat(next.menuItem(id)).map(MenuItemView::name).hasValue("Item " + id);
+        }
+        // Menu items for a restaurant the snapshot does not hold are ignored
+        assertThat(next.apply(List.of(CatalogChange.menuItemUpsert(99L, item(90L, "Orphan", 1.0)))).menuItem(90L)).isEmpty();
+    }
+
+    static RestaurantView restaurant(Long id, String name, MenuItemView... menu) {
+        return new RestaurantView(id, name, null, 4.0, 30, "Test", "Free", null, null, null, null, null, null, List.of(menu));
+    }
+
+    static MenuItemView item(Long id, String name, Double price) {
+        return new MenuItemView(id, name, price, null, true, null);
+    }
+}
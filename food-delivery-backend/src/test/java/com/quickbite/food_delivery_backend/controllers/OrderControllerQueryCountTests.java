@@ -0,0 +1,156 @@
+package com.quickbite.food_delivery_backend.controllers;
+
+import com.quickbite.food_delivery_backend.models.*;
+import com.quickbite.food_delivery_backend.payload.request.OrderItemRequest;
+import com.quickbite.food_delivery_backend.payload.request.OrderRequest;
+import com.quickbite.food_delivery_backend.payload.response.OrderSummary;
+import com.quickbite.food_delivery_backend.repository.*;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderControllerQueryCountTests {
+
+    @Autowired
+    OrderController orderController;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private User customer;
+    private Restaurant restaurant;
+    private List<MenuItem> menu;
+
+    @BeforeEach
+    void setUp() {
+        customer = userRepository.findByEmail("john@example.com").orElseThrow();
+
+        restaurant = new Restaurant("Query Count Kitchen", null, 4.0, 30, "Test", "Free", null);
+        for (int i = 1; i <= 15; i++) {
+            MenuItem item = new MenuItem("Dish " + i, 10.0 * i, "Test dish " + i, true, null);
+            item.setRestaurant(restaurant);
+            restaurant.getMenu().add(item);
+        }
+        restaurant = restaurantRepository.save(restaurant);
+        menu = restaurant.getMenu();
+    }
+
+    // Lookups are one query each and the inserts go out as one batch per table
+    @Test
+    void statementsDoNotGrowWithOrderSize() {
+        long oneItem = statementsFor(orderFor(restaurant.getId(), menu.subList(0, 1)));
+        long fiveItems = statementsFor(orderFor(restaurant.getId(), menu.subList(0, 5)));
+        long fifteenItems = statementsFor(orderFor(restaurant.getId(), menu));
+
+        assertThat(fiveItems).isEqualTo(oneItem);
+        assertThat(fifteenItems).isEqualTo(oneItem);
+    }
+
+    @Test
+    void totalIsPricedFromTheMenu() {
+        OrderRequest request = orderFor(restaurant.getId(), menu.subList(0, 3));
+        request.setTotalPrice(1.0);
+
+        assertThat(orderController.createOrder(null, request, caller()).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        Order saved = orderRepository.findByRestaurantIdOrderByCreatedAtDesc(restaurant.getId()).get(0);
+        // 10 * 1 + 20 * 2 + 30 * 3
+        assertThat(saved.getTotalAmount()).isEqualTo(140.0);
+    }
+
+    @Test
+    void rejectsItemsFromAnotherRestaurant() {
+        Restaurant other = restaurantRepository.findAll().stream()
+                .filter(r -> !r.getId().equals(restaurant.getId()))
+                .findFirst()
+                .orElseThrow();
+
+        ResponseEntity<?> response = orderController.createOrder(null, orderFor(other.getId(), menu.subList(0, 1)), caller());
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void orderHistoryPagesWithAFixedNumberOfQueries() {
+        customer = userRepository.save(new User("History User", "history@example.com", "unused", ERole.ROLE_CUSTOMER));
+        for (int i = 0; i < 5; i++) {
+            orderController.createOrder(null, orderFor(restaurant.getId(), menu.subList(0, i + 1)), caller());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<Long> seen = new ArrayList<>();
+        List<Integer> lineCounts = new ArrayList<>();
+        String cursor = null;
+        do {
+            statistics.clear();
+            ResponseEntity<?> response = orderController.getUserOrders(customer.getId(), cursor, 2);
+
+            // One join query for the page of summaries, one for all of their lines
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+            for (Object order : (List<?>) response.getBody()) {
+                OrderSummary summary = (OrderSummary) order;
+                seen.add(summary.id());
+                lineCounts.add(summary.items().size());
+            }
+            cursor = response.getHeaders().getFirst(OrderController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(5).isSortedAccordingTo(Comparator.reverseOrder());
+        assertThat(lineCounts).containsExactly(5, 4, 3, 2, 1);
+    }
+
+    private long statementsFor(OrderRequest request) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThat(orderController.createOrder(null, request, caller()).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private OrderRequest orderFor(Long restaurantId, List<MenuItem> items) {
+        List<OrderItemRequest> lines = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            OrderItemRequest line = new OrderItemRequest();
+            line.setMenuItemId(items.get(i).getId());
+            line.setQuantity(i + 1);
+            lines.add(line);
+        }
+
+        OrderRequest request = new OrderRequest();
+        request.setCustomerId(customer.getId());
+        request.setRestaurantId(restaurantId);
+        request.setDeliveryAddress("221B Test Street");
+        request.setItems(lines);
+        return request;
+    }
+
+    private UserDetailsImpl caller() {
+        return UserDetailsImpl.build(customer);
+    }
+}
@@ -0,0 +1,111 @@
+package com.quickbite.food_delivery_backend.datagen;
+
+import com.quickbite.food_delivery_backend.config.IdRangeReserver;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DatasetGeneratorTests {
+
+    private static final LocalDate END = LocalDate.of(2026, 1, 1);
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    IdRangeReserver idRangeReserver;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private DatasetSpec spec(int threads) {
+        return new DatasetSpec(10_500, 60, 12, 12_000, 2, END, 0.05, "password", 7L, threads, 500);
+    }
+
+    @Test
+    void generatesTheRequestedRowsWithConsistentReferences() {
+        DatasetGenerator.Report report = new DatasetGenerator(dataSource, idRangeReserver, passwordEncoder)
+                .generate(spec(4));
+        long users = report.firstIds().get("users");
+        long orders = report.firstIds().get("orders");
+
+        assertThat(count("select count(*) from users where id >= ? and id < ?", users, users + 10_500)).isEqualTo(10_500);
+        assertThat(count("select count(*) from users where id >= ? and id < ? and role = 'ROLE_DELIVERY'",
+                users, users + 10_500)).isEqualTo(522);
+        assertThat(count("select count(*) from delivery_info where user_id >= ? and user_id < ?",
+                users, users + 10_500)).isEqualTo(522);
+        assertThat(count("select count(*) from orders where id >= ? and id < ?", orders, orders + 12_000)).isEqualTo(12_000);
+
+        // Every line's dish is on its order's restaurant menu and the totals add up
+        assertThat(count("select count(*) from order_items oi join orders o on o.id = oi.order_id "
+                + "join menu_items m on m.id = oi.menu_item_id where o.id >= ? and o.id < ? "
+                + "and m.restaurant_id <> o.restaurant_id", orders, orders + 12_000)).isZero();
+        assertThat(count("select count(*) from orders o where o.id >= ? and o.id < ? and abs(o.total_amount - "
+                + "(select sum(oi.price * oi.quantity) from order_items oi where oi.order_id = o.id)) > 0.01",
+                orders, orders + 12_000)).isZero();
+
+        Timestamp first = jdbcTemplate.queryForObject("select min(created_at) from orders where id >= ? and id < ?",
+                Timestamp.class, orders, orders + 12_000);
+        Timestamp last = jdbcTemplate.queryForObject("select max(created_at) from orders where id >= ? and id < ?",
+                Timestamp.class, orders, orders + 12_000);
+        assertThat(first.toLocalDateTime()).isAfterOrEqualTo(END.minusMonths(2).atStartOfDay());
+        assertThat(last.toLocalDateTime()).isBefore(END.atStartOfDay());
+
+        // Popular restaurants take far more than their even share of orders
+        List<Long> perRestaurant = jdbcTemplate.queryForList("select count(*) from orders where id >= ? and id < ? "
+                + "group by restaurant_id order by count(*) desc", Long.class, orders, orders + 12_000);
+        assertThat(perRestaurant.get(0)).isGreaterThan(5 * perRestaurant.get(perRestaurant.size() / 2));
+    }
+
+    @Test
+    void sameSeedGivesSameRowsWhateverTheThreadCount() {
+        DatasetGenerator generator = new DatasetGenerator(dataSource, idRangeReserver, passwordEncoder);
+        DatasetGenerator.Report serial = generator.generate(spec(1));
+        DatasetGenerator.Report parallel = generator.generate(spec(4));
+
+        assertThat(orderRows(parallel)).isEqualTo(orderRows(serial));
+        assertThat(menuRows(parallel)).isEqualTo(menuRows(serial));
+        assertThat(jdbcTemplate.queryForList("select full_name || '|' || role || '|' || address from users "
+                        + "where id >= ? order by id", String.class, parallel.firstIds().get("users")))
+                .isEqualTo(jdbcTemplate.queryForList("select full_name || '|' || role || '|' || address from users "
+                        + "where id >= ? and id < ? order by id", String.class, serial.firstIds().get("users"),
+                        serial.firstIds().get("users") + 10_500));
+    }
+
+    // Orders and their lines with ids made relative to each run's reserved ranges
+    private List<String> orderRows(DatasetGenerator.Report report) {
+        long orders = report.firstIds().get("orders");
+        return jdbcTemplate.queryForList("select (o.user_id - ?) || '|' || (o.restaurant_id - ?) || '|' || "
+                        + "o.total_amount || '|' || o.status || '|' || o.created_at || '|' || (oi.menu_item_id - ?) "
+                        + "|| 'x' || oi.quantity from orders o join order_items oi on oi.order_id = o.id "
+                        + "where o.id >= ? and o.id < ? order by oi.id", String.class,
+                report.firstIds().get("users"), report.firstIds().get("restaurants"),
+                report.firstIds().get("menu_items"), orders, orders + 12_000);
+    }
+
+    private List<String> menuRows(DatasetGenerator.Report report) {
+        return jdbcTemplate.queryForList("select (restaurant_id - ?) || '|' || name || '|' || price from menu_items "
+                        + "where restaurant_id >= ? and restaurant_id < ? order by id", String.class,
+                report.firstIds().get("restaurants"), report.firstIds().get("restaurants"),
+                report.firstIds().get("restaurants") + 60);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
@@ -0,0 +1,147 @@
+package com.quickbite.food_delivery_backend.dispatch;
+
+import com.quickbite.food_delivery_backend.models.*;
+import com.quickbite.food_delivery_backend.orders.OrderLifecycleService;
+import com.quickbite.food_delivery_backend.repository.DeliveryInfoRepository;
+import com.quickbite.food_delivery_backend.repository.OrderRepository;
+import com.quickbite.food_delivery_backend.repository.RestaurantRepository;
+import com.quickbite.food_delivery_backend.repository.UserRepository;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The sweep is parked so only this test's events drive the engine.
+@SpringBootTest(properties = "app.dispatchSweepIntervalMs=3600000")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DispatchEngineTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    DispatchEngine dispatchEngine;
+
+    @Autowired
+    OrderLifecycleService orderLifecycleService;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    @Autowired
+    DeliveryInfoRepository deliveryInfoRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private User customer;
+    private Restaurant restaurant;
+    private Long riderId;
+
+    @BeforeEach
+    void setUp() {
+        // A zone of its own keeps orders from other tests away from this rider
+        String zone = "Harbour " + UUID.randomUUID();
+        customer = userRepository.save(new User("Dispatch Customer", UUID.randomUUID() + "@example.com", "unused", ERole.ROLE_CUSTOMER));
+        restaurant = new Restaurant("Dispatch Kitchen", null, 4.0, 30, "Test", "Free", null);
+        restaurant.setDeliveryZone(zone);
+        restaurant = restaurantRepository.save(restaurant);
+
+        User rider = userRepository.save(new User("Rider", UUID.randomUUID() + "@example.com", "unused", ERole.ROLE_DELIVERY));
+        deliveryInfoRepository.save(new DeliveryInfo(rider, "Bike", "Splendor", "DL-1", "KA-01", zone.toUpperCase(), null));
+        riderId = rider.getId();
+        assertThat(dispatchEngine.setRiderOnline(riderId, true)).isTrue();
+    }
+
+    @Test
+    void ridersAreAssignedUpToCapacityAndFreedOnDelivery() {
+        List<Long> orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Long orderId = orderRepository.save(new Order(customer, restaurant, 100.0, "1 Dock Road")).getId();
+            orderLifecycleService.transition(orderId, EOrderStatus.CONFIRMED);
+            orders.add(orderId);
+        }
+
+        awaitTrue(() -> assignedCount(orders) == 2);
+        Long waitingOrder = orders.stream().filter(id -> riderOf(id) == null).findFirst().orElseThrow();
+        Long deliveredOrder = orders.stream().filter(id -> riderOf(id) != null).findFirst().orElseThrow();
+        assertThat(riderOf(deliveredOrder)).isEqualTo(riderId);
+
+        orderLifecycleService.transition(deliveredOrder, EOrderStatus.PREPARING);
+        orderLifecycleService.transition(deliveredOrder, EOrderStatus.OUT_FOR_DELIVERY);
+        orderLifecycleService.transition(deliveredOrder, EOrderStatus.DELIVERED);
+
+        awaitTrue(() -> riderId.equals(riderOf(waitingOrder)));
+        assertThat(dispatchEngine.riders().activeOrders(riderId)).isEqualTo(2);
+    }
+
+    @Test
+    void cancelledOrdersAreNotAssigned() {
+        dispatchEngine.setRiderOnline(riderId, false);
+        Long orderId = orderRepository.save(new Order(customer, restaurant, 100.0, "1 Dock Road")).getId();
+        orderLifecycleService.transition(orderId, EOrderStatus.CONFIRMED);
+        orderLifecycleService.transition(orderId, EOrderStatus.CANCELLED);
+
+        dispatchEngine.setRiderOnline(riderId, true);
+        dispatchEngine.sweep();
+
+        awaitTrue(() -> dispatchEngine.riders().activeOrders(riderId) == 0);
+        assertThat(riderOf(orderId)).isNull();
+    }
+
+    @Test
+    void onlyTheRiderOrAnAdminCanChangeTheirStatus() throws Exception {
+        User rider = userRepository.findById(riderId).orElseThrow();
+        User admin = userRepository.findByEmail("admin@quickbite.com").orElseThrow();
+
+        mockMvc.perform(post("/api/dispatch/riders/" + riderId + "/offline").with(user(UserDetailsImpl.build(customer))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/dispatch/riders/" + riderId + "/offline").with(user(UserDetailsImpl.build(rider))))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/dispatch/riders/" + riderId + "/online").with(user(UserDetailsImpl.build(admin))))
+                .andExpect(status().isOk());
+    }
+
+    private Long riderOf(Long orderId) {
+        return jdbcTemplate.queryForObject("select rider_id from orders where id = ?", Long.class, orderId);
+    }
+
+    private long assignedCount(List<Long> orderIds) {
+        return orderIds.stream().filter(id -> riderOf(id) != null).count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
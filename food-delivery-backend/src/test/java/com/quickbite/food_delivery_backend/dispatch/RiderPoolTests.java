@@ -0,0 +1,69 @@
+package com.quickbite.food_delivery_backend.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RiderPoolTests {
+
+    private final BalancedScoringPolicy policy = new BalancedScoringPolicy();
+
+    @Test
+    void prefersTheLeastLoadedRiderInTheOrdersZone() {
+        RiderPool pool = new RiderPool(2);
+        pool.register(1, "North", "Bike", 1, true, 0);
+        pool.register(2, "north ", "Bike", 0, true, 0);
+        pool.register(3, "South", "Bike", 0, true, 0);
+
+        RiderState rider = pool.reserve(new DispatchRequest(10, 1, "NORTH", 200, 0), policy, 1000);
+
+        assertThat(rider.getRiderId()).isEqualTo(2);
+        assertThat(pool.reserve(new DispatchRequest(11, 1, "East", 200, 0), policy, 1000)).isNull();
+    }
+
+    @Test
+    void concurrentDispatchersNeverExceedARidersCapacity() throws Exception {
+        RiderPool pool = new RiderPool(2);
+        for (long riderId = 0; riderId < 40; riderId++) {
+            pool.register(riderId, riderId % 4 == 0 ? "a" : "b", riderId % 3 == 0 ? "Car" : "Bike", 0, true, 0);
+        }
+        ConcurrentHashMap<Long, AtomicInteger> holding = new ConcurrentHashMap<>();
+        AtomicInteger overCapacity = new AtomicInteger();
+
+        List<Thread> dispatchers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread dispatcher = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    String zone = random.nextInt(3) == 0 ? null : (random.nextBoolean() ? "a" : "b");
+                    RiderState rider = pool.reserve(new DispatchRequest(i, 1, zone, random.nextInt(3000), 0), policy, i);
+                    if (rider == null) {
+                        continue;
+                    }
+                    AtomicInteger held = holding.computeIfAbsent(rider.getRiderId(), id -> new AtomicInteger());
+                    if (held.incrementAndGet() > pool.capacity()) {
+                        overCapacity.incrementAndGet();
+                    }
+                    held.decrementAndGet();
+                    pool.release(rider.getRiderId(), i);
+                }
+            });
+            dispatchers.add(dispatcher);
+            dispatcher.start();
+        }
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.join();
+        }
+
+        assertThat(overCapacity).hasValue(0);
+        for (long riderId = 0; riderId < 40; riderId++) {
+            assertThat(pool.activeOrders(riderId)).isZero();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.quickbite.food_delivery_backend.eta;
+
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EtaEstimatorTests {
+
+    private static final long MINUTE = 60_000;
+    private static final long RESTAURANT = 1;
+
+    @Test
+    void measuredStagesReplaceTheListedTime() {
+        EtaEstimator estimator = new EtaEstimator(60 * MINUTE, 12, 3, 4);
+        long now = 100 * 60 * MINUTE;
+
+        assertThat(estimator.estimateMinutes(RESTAURANT, 30, 0, now)).isEqualTo(30);
+
+        // 2 minutes waiting, 10 preparing, 8 on the road
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            long placed = now - 30 * MINUTE + orderId;
+            estimator.orderCreated(orderId, RESTAURANT, placed);
+            estimator.statusChanged(orderId, RESTAURANT, EOrderStatus.PENDING, EOrderStatus.PREPARING, placed + 2 * MINUTE);
+            estimator.statusChanged(orderId, RESTAURANT, EOrderStatus.PREPARING, EOrderStatus.OUT_FOR_DELIVERY, placed + 12 * MINUTE);
+            estimator.statusChanged(orderId, RESTAURANT, EOrderStatus.OUT_FOR_DELIVERY, EOrderStatus.DELIVERED, placed + 20 * MINUTE);
+        }
+
+        assertThat(estimator.estimateMinutes(RESTAURANT, 30, 0, now)).isEqualTo(20);
+        assertThat(estimator.queueDepth(RESTAURANT)).isZero();
+        assertThat(estimator.trackedOrders()).isZero();
+
+        // Samples age out of the window and the listed time comes back
+        assertThat(estimator.estimateMinutes(RESTAURANT, 30, 0, now + 90 * MINUTE)).isEqualTo(30);
+    }
+
+    @Test
+    void busyKitchensAndRidersAddDelay() {
+        EtaEstimator estimator = new EtaEstimator(60 * MINUTE, 12, 3, 2);
+        long now = 100 * 60 * MINUTE;
+        // Listed 20 minutes: 3 waiting, 9 preparing, 8 on the road
+        int idle = estimator.estimateMinutes(RESTAURANT, 20, 0, now);
+        assertThat(idle).isEqualTo(20);
+
+        for (long orderId = 1; orderId <= 5; orderId++) {
+            estimator.orderCreated(orderId, RESTAURANT, now);
+        }
+        estimator.statusChanged(5, RESTAURANT, EOrderStatus.PENDING, EOrderStatus.CANCELLED, now);
+
+        // Four in the kitchen, two at a time: ours waits behind one and a half more prep slots
+        assertThat(estimator.queueDepth(RESTAURANT)).isEqualTo(4);
+        assertThat(estimator.estimateMinutes(RESTAURANT, 20, 0, now)).isEqualTo(34);
+        // One waiting order per rider adds one more trip
+        assertThat(estimator.estimateMinutes(RESTAURANT, 20, 1.0, now)).isEqualTo(42);
+    }
+}
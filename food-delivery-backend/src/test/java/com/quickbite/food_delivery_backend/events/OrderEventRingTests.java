@@ -0,0 +1,109 @@
+package com.quickbite.food_delivery_backend.events;
+
+import com.quickbite.food_delivery_backend.models.EOrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventRingTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "blocking", "sleeping", "yielding", "busy-spin" })
+    void everyConsumerSeesEveryEventInOrder(String waitStrategy) throws Exception {
+        int events = 8_000;
+        RecordingConsumer first = new RecordingConsumer("first", events);
+        RecordingConsumer second = new RecordingConsumer("second", events);
+        OrderEventRing ring = new OrderEventRing(64, WaitStrategy.named(waitStrategy), List.of(first, second));
+        ring.start("test-");
+
+        List<Thread> publishers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            Thread publisher = new Thread(() -> {
+                for (int i = 0; i < events / 4; i++) {
+                    while (!ring.tryPublish(OrderEvent.Type.CREATED, i, 1, 1, null, EOrderStatus.PENDING, 1.0)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            publishers.add(publisher);
+            publisher.start();
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+
+        assertThat(first.done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.done.await(10, TimeUnit.SECONDS)).isTrue();
+        ring.halt();
+        // Counters are updated once the batch that ended in the last event returns
+        OrderEventRing.Processor processor = ring.processors().get(0);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (processor.lag() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        for (RecordingConsumer consumer : List.of(first, second)) {
+            assertThat(consumer.outOfOrder).isZero();
+            assertThat(consumer.lastSequence).isEqualTo(events - 1);
+        }
+        assertThat(processor.consumed()).isEqualTo(events);
+        assertThat(processor.batches()).isBetween(1L, (long) events);
+        assertThat(processor.lag()).isZero();
+    }
+
+    @Test
+    void refusesEventsWhenTheSlowestConsumerIsAFullRingBehind() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        OrderEventConsumer stuck = (event, sequence, endOfBatch) -> release.await();
+        OrderEventRing ring = new OrderEventRing(8, WaitStrategy.named("blocking"), List.of(stuck));
+        ring.start("test-");
+
+        int accepted = 0;
+        for (int i = 0; i < 20; i++) {
+            if (ring.tryPublish(OrderEvent.Type.STATUS_CHANGED, i, 1, 0, EOrderStatus.PENDING, EOrderStatus.CONFIRMED, 0)) {
+                accepted++;
+            }
+        }
+
+        assertThat(accepted).isEqualTo(8);
+        assertThat(ring.processors().get(0).lag()).isEqualTo(8);
+        release.countDown();
+        ring.halt();
+    }
+
+    private static final class RecordingConsumer implements OrderEventConsumer {
+        private final String name;
+        private final long expected;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private long lastSequence = -1;
+        private int outOfOrder;
+
+        RecordingConsumer(String name, long expected) {
+            this.name = name;
+            this.expected = expected;
+        }
+
+        @Override
+        public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+            if (sequence != lastSequence + 1) {
+                outOfOrder++;
+            }
+            lastSequence = sequence;
+            if (sequence == expected - 1) {
+                done.countDown();
+            }
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+    }
+}
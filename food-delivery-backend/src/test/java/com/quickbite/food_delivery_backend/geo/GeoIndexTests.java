@@ -0,0 +1,67 @@
+package com.quickbite.food_delivery_backend.geo;
+
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoIndexTests {
+
+    @Test
+    void queriesMatchABruteForceScan() {
+        Random random = new Random(7);
+        List<RestaurantView> restaurants = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            restaurants.add(restaurant(id, 12.8 + random.nextDouble() * 0.4, 77.4 + random.nextDouble() * 0.4));
+        }
+        restaurants.add(restaurant(5_001L, null, null));
+        GeoIndex index = GeoIndex.build(restaurants, 0.01);
+
+        assertThat(index.size()).isEqualTo(5_000);
+        for (int i = 0; i < 50; i++) {
+            double lat = 12.8 + random.nextDouble() * 0.4;
+            double lon = 77.4 + random.nextDouble() * 0.4;
+
+            assertThat(ids(index.withinRadius(lat, lon, 3, 1_000))).isEqualTo(ids(bruteForce(restaurants, lat, lon, 3, 1_000)));
+            assertThat(ids(index.nearest(lat, lon, 10, 50))).isEqualTo(ids(bruteForce(restaurants, lat, lon, 50, 10)));
+        }
+    }
+
+    @Test
+    void searchesAcrossTheAntimeridian() {
+        List<RestaurantView> restaurants = List.of(
+                restaurant(1L, -17.0, 179.99),
+                restaurant(2L, -17.0, -179.99),
+                restaurant(3L, -17.0, 178.0));
+        GeoIndex index = GeoIndex.build(restaurants, 0.01);
+
+        assertThat(ids(index.withinRadius(-17.0, 179.995, 5, 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.nearest(-17.0, -179.995, 3, 500))).containsExactly(2L, 1L, 3L);
+    }
+
+    private static List<GeoIndex.Hit> bruteForce(List<RestaurantView> restaurants, double lat, double lon,
+                                                  double radiusKm, int limit) {
+        return restaurants.stream()
+                .filter(restaurant -> restaurant.latitude() != null)
+                .map(restaurant -> new GeoIndex.Hit(restaurant.id(),
+                        GeoIndex.distanceKm(lat, lon, restaurant.latitude(), restaurant.longitude())))
+                .filter(hit -> hit.distanceKm() <= radiusKm)
+                .sorted(Comparator.comparingDouble(GeoIndex.Hit::distanceKm))
+                .limit(limit)
+                .toList();
+    }
+
+    private static List<Long> ids(List<GeoIndex.Hit> hits) {
+        return hits.stream().map(GeoIndex.Hit::restaurantId).toList();
+    }
+
+    private static RestaurantView restaurant(Long id, Double latitude, Double longitude) {
+        return new RestaurantView(id, "Restaurant " + id, null, null, null, null, null, null, null, null,
+                latitude, longitude, null, List.of());
+    }
+}
@@ -0,0 +1,312 @@
+package com.quickbite.food_delivery_backend.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickbite.food_delivery_backend.models.IdempotencyRecord;
+import com.quickbite.food_delivery_backend.payload.request.AddToCartRequest;
+import com.quickbite.food_delivery_backend.payload.response.MessageResponse;
+import com.quickbite.food_delivery_backend.repository.IdempotencyRecordRepository;
+import com.quickbite.food_delivery_backend.repository.MenuItemRepository;
+import com.quickbite.food_delivery_backend.repository.UserRepository;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.idempotencyPersistent=true",
+        // Renewed every third of this
+        "app.idempotencyLeaseMs=900"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotencyServiceTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    MenuItemRepository menuItemRepository;
+
+    @Autowired
+    IdempotencyService idempotencyService;
+
+    @MockitoSpyBean
+    IdempotencyRecordRepository recordRepository;
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<?>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return idempotencyService.execute(key, "test", request(2), () -> {
+                        runs.incrementAndGet();
+                        sleep(200);
+                        return ResponseEntity.ok(new MessageResponse("ran"));
+                    });
+                }));
+            }
+            start.countDown();
+
+            int replays = 0;
+            for (Future<ResponseEntity<?>> result : results) {
+                ResponseEntity<?> response = result.get();
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                if (response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)) {
+                    replays++;
+                    assertThat(response.getBody()).isEqualTo("{\"message\":\"ran\"}");
+                }
+            }
+            assertThat(runs).hasValue(1);
+            assertThat(replays).isEqualTo(7);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void aKeyCannotBeReusedForADifferentRequest() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute(key, "test", request(1), () -> ResponseEntity.ok(new MessageResponse("first")));
+
+        ResponseEntity<?> response = idempotencyService.execute(key, "test", request(5),
+                () -> ResponseEntity.ok(new MessageResponse("second")));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    void failuresAreNotReplayed() {
+        String key = UUID.randomUUID().toString();
+        assertThatThrownBy(() -> idempotencyService.execute(key, "test", request(1), () -> {
+            throw new RuntimeException("Error: boom");
+        })).hasMessage("Error: boom");
+
+        ResponseEntity<?> retried = idempotencyService.execute(key, "test", request(1),
+                () -> ResponseEntity.ok(new MessageResponse("retried")));
+
+        assertThat(retried.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(((MessageResponse) retried.getBody()).getMessage()).isEqualTo("retried");
+    }
+
+    @Test
+    void storedResponsesSurviveARestart() {
+        String key = UUID.randomUUID().toString();
+        idempotencyService.execute(key, "test", request(1), () -> ResponseEntity.status(HttpStatus.CREATED).body(new MessageResponse("stored")));
+        forgetInMemoryEntries();
+
+        ResponseEntity<?> replayed = idempotencyService.execute(key, "test", request(1), () -> {
+            throw new AssertionError("should have been replayed");
+        });
+
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replayed.getBody()).isEqualTo("{\"message\":\"stored\"}");
+    }
+
+    @Test
+    void claimsLeftByACrashedInstanceAreTakenOverOnceTheLeaseRunsOut() {
+        String recent = UUID.randomUUID().toString();
+        String abandoned = UUID.randomUUID().toString();
+        String fingerprint = ReflectionTestUtils.invokeMethod(idempotencyService, "fingerprint", request(1));
+        // Claimed by an instance that died before storing a response
+        recordRepository.save(new IdempotencyRecord("test:" + recent, fingerprint, Instant.now()));
+        recordRepository.save(new IdempotencyRecord("test:" + abandoned, fingerprint, Instant.now().minus(Duration.ofHours(1))));
+
+        ResponseEntity<?> stillRunning = idempotencyService.execute(recent, "test", request(1),
+                () -> ResponseEntity.ok(new MessageResponse("ran")));
+        assertThat(stillRunning.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+        // A different body does not take over the claim
+        ResponseEntity<?> otherRequest = idempotencyService.execute(abandoned, "test", request(2),
+                () -> ResponseEntity.ok(new MessageResponse("ran")));
+        assertThat(otherRequest.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+
+        ResponseEntity<?> retried = idempotencyService.execute(abandoned, "test", request(1),
+                () -> ResponseEntity.ok(new MessageResponse("ran")));
+        assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retried.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(recordRepository.findById("test:" + abandoned).orElseThrow().getStatus()).isEqualTo(200);
+    }
+
+    // Another instance sees the claim renewed, so a first attempt slower than the lease is not
+    // run a second time
+    @Test
+    void aSlowFirstAttemptKeepsItsClaim() throws Exception {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<?>> first = pool.submit(() -> idempotencyService.execute(key, "test", request(1), () -> {
+                runs.incrementAndGet();
+                sleep(2_500);
+                return ResponseEntity.ok(new MessageResponse("slow"));
+            }));
+            sleep(1_800);
+            forgetInMemoryEntries();
+
+            ResponseEntity<?> retried = idempotencyService.execute(key, "test", request(1), () -> {
+                runs.incrementAndGet();
+                return ResponseEntity.ok(new MessageResponse("ran again"));
+            });
+            assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+            assertThat(first.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+            forgetInMemoryEntries();
+            ResponseEntity<?> replayed = idempotencyService.execute(key, "test", request(1), () -> {
+                runs.incrementAndGet();
+                return ResponseEntity.ok(new MessageResponse("ran again"));
+            });
+            assertThat(replayed.getBody()).isEqualTo("{\"message\":\"slow\"}");
+            assertThat(runs).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // The first store fails after the action committed; the claim stays held until a retry
+    // gets the response in
+    @Test
+    void responsesThatCouldNotBeStoredAreRetried() {
+        String key = UUID.randomUUID().toString();
+        doThrow(new DataAccessResourceFailureException("Error: connection lost"))
+                .when(recordRepository).complete(eq("test:" + key), any(), any(), any());
+
+        ResponseEntity<?> first = idempotencyService.execute(key, "test", request(1),
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(new MessageResponse("placed")));
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        forgetInMemoryEntries();
+
+        ResponseEntity<?> elsewhere = idempotencyService.execute(key, "test", request(1), () -> {
+            throw new AssertionError("should not run again");
+        });
+        assertThat(elsewhere.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+        // The database is back
+        reset(recordRepository);
+        awaitStatus("test:" + key, 201);
+        ResponseEntity<?> replayed = idempotencyService.execute(key, "test", request(1), () -> {
+            throw new AssertionError("should have been replayed");
+        });
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replayed.getBody()).isEqualTo("{\"message\":\"placed\"}");
+    }
+
+    @Test
+    void aResponseThatCannotBeSerializedStillCompletesTheKey() {
+        String key = UUID.randomUUID().toString();
+
+        ResponseEntity<?> first = idempotencyService.execute(key, "test", request(1),
+                () -> ResponseEntity.ok(new Unserializable()));
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<?> replayed = idempotencyService.execute(key, "test", request(1), () -> {
+            throw new AssertionError("should have been replayed");
+        });
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(replayed.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isTrue();
+        assertThat(replayed.getBody()).isNull();
+        assertThat(recordRepository.findById("test:" + key).orElseThrow().getStatus()).isEqualTo(200);
+    }
+
+    static class Unserializable {
+        public String getValue() {
+            throw new IllegalStateException("Error: not serializable");
+        }
+    }
+
+    // The body names a user, but the key belongs to whoever is signed in: another caller sending
+    // the same key and body gets a fresh response, not the first caller's
+    @Test
+    void keysAreScopedToTheSignedInCaller() throws Exception {
+        String key = UUID.randomUUID().toString();
+        UserDetailsImpl first = UserDetailsImpl.build(userRepository.findByEmail("john@example.com").orElseThrow());
+        UserDetailsImpl second = UserDetailsImpl.build(userRepository.findByEmail("delivery@quickbite.com").orElseThrow());
+        AddToCartRequest body = request(1);
+        body.setUserId(first.getId());
+        body.setMenuItemId(menuItemRepository.findAll().get(0).getId());
+        String json = objectMapper.writeValueAsString(body);
+
+        mockMvc.perform(post("/api/cart/add").with(user(first)).header(IdempotencyService.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/cart/add").with(user(second)).header(IdempotencyService.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+        mockMvc.perform(post("/api/cart/add").with(user(first)).header(IdempotencyService.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(header().exists(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    // As if the retry reached another instance
+    private void forgetInMemoryEntries() {
+        ((Map<?, ?>) ReflectionTestUtils.getField(idempotencyService, "entries")).clear();
+    }
+
+    private void awaitStatus(String id, int status) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!Integer.valueOf(status).equals(recordRepository.findById(id).orElseThrow().getStatus())) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            sleep(50);
+        }
+    }
+
+    private static AddToCartRequest request(int quantity) {
+        AddToCartRequest request = new AddToCartRequest();
+        request.setUserId(1L);
+        request.setMenuItemId(1L);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.quickbite.food_delivery_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// JSON over HTTP for the virtual users. Every call is timed into the recorder under its endpoint
+// template; a transport error or non-2xx status counts as an error and fails the session.
+final class LoadClient {
+
+    static final class CallFailed extends Exception {
+        CallFailed(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LoadRecorder recorder;
+
+    LoadClient(String baseUrl, LoadRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    JsonNode get(String endpoint, String path, String token) throws CallFailed {
+        return send(endpoint, request(path, token).GET());
+    }
+
+    JsonNode post(String endpoint, String path, String token, Object body) throws CallFailed {
+        return send(endpoint, request(path, token).POST(json(body)));
+    }
+
+    JsonNode put(String endpoint, String path, String token, Object body) throws CallFailed {
+        return send(endpoint, request(path, token).PUT(json(body)));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private JsonNode send(String endpoint, HttpRequest.Builder request) throws CallFailed {
+        long started = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            recorder.record(endpoint, started, System.nanoTime() - started, false);
+            throw new CallFailed(endpoint + ": " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CallFailed(endpoint + ": interrupted");
+        }
+        long elapsed = System.nanoTime() - started;
+        boolean ok = response.statusCode() / 100 == 2;
+        recorder.record(endpoint, started, elapsed, ok);
+        if (!ok) {
+            throw new CallFailed(endpoint + ": HTTP " + response.statusCode());
+        }
+        try {
+            return response.body().length == 0 ? null : objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            // Plain-text bodies such as "Order status updated."
+            return null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.quickbite.food_delivery_backend.loadtest;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histograms (microseconds, 3 significant digits) and error counts per endpoint, kept
+// separately for the ramp-up and the steady phase; a request belongs to the phase it started in.
+final class LoadRecorder {
+
+    static final String RAMP = "ramp";
+    static final String STEADY = "steady";
+
+    private final long startedNanos;
+    private final long rampNanos;
+    private final Map<String, Map<String, Stats>> phases = new ConcurrentHashMap<>();
+    private final LongAdder sessions = new LongAdder();
+    private final LongAdder failedSessions = new LongAdder();
+
+    private static final class Stats {
+        final Histogram latencies = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+    }
+
+    LoadRecorder(long startedNanos, long rampNanos) {
+        this.startedNanos = startedNanos;
+        this.rampNanos = rampNanos;
+    }
+
+    void record(String endpoint, long requestStartedNanos, long elapsedNanos, boolean ok) {
+        String phase = requestStartedNanos - startedNanos < rampNanos ? RAMP : STEADY;
+        Stats stats = phases.computeIfAbsent(phase, p -> new ConcurrentHashMap<>())
+                .computeIfAbsent(endpoint, e -> new Stats());
+        stats.latencies.recordValue(Math.max(1, elapsedNanos / 1_000));
+        if (!ok) {
+            stats.errors.increment();
+        }
+    }
+
+    void sessionFinished(boolean ok) {
+        sessions.increment();
+        if (!ok) {
+            failedSessions.increment();
+        }
+    }
+
+    ObjectNode report(double rampSeconds, double steadySeconds) {
+        JsonNodeFactory json = JsonNodeFactory.instance;
+        ObjectNode report = json.objectNode();
+        report.put("sessions", sessions.sum());
+        report.put("failedSessions", failedSessions.sum());
+        ArrayNode phaseNodes = report.putArray("phases");
+        for (String phase : new String[] { RAMP, STEADY }) {
+            double seconds = phase.equals(RAMP) ? rampSeconds : steadySeconds;
+            ObjectNode phaseNode = phaseNodes.addObject();
+            phaseNode.put("phase", phase);
+            phaseNode.put("seconds", seconds);
+            ArrayNode endpoints = phaseNode.putArray("endpoints");
+            long requests = 0;
+            long errors = 0;
+            for (Map.Entry<String, Stats> entry : new TreeMap<>(phases.getOrDefault(phase, Map.of())).entrySet()) {
+                Histogram latencies = entry.getValue().latencies;
+                long count = latencies.getTotalCount();
+                long failed = entry.getValue().errors.sum();
+                requests += count;
+                errors += failed;
+                ObjectNode endpoint = endpoints.addObject();
+                endpoint.put("endpoint", entry.getKey());
+                endpoint.put("requests", count);
+                endpoint.put("errors", failed);
+                endpoint.put("throughputPerSecond", round(seconds > 0 ? count / seconds : 0));
+                endpoint.put("p50Ms", millis(latencies.getValueAtPercentile(50)));
+                endpoint.put("p95Ms", millis(latencies.getValueAtPercentile(95)));
+                endpoint.put("p99Ms", millis(latencies.getValueAtPercentile(99)));
+                endpoint.put("maxMs", millis(latencies.getMaxValue()));
+            }
+            phaseNode.put("requests", requests);
+            phaseNode.put("errors", errors);
+            phaseNode.put("throughputPerSecond", round(seconds > 0 ? requests / seconds : 0));
+        }
+        return report;
+    }
+
+    static String summary(ObjectNode report) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "sessions=%d failed=%d%n",
+                report.get("sessions").asLong(), report.get("failedSessions").asLong()));
+        for (var phase : report.get("phases")) {
+            out.append(String.format(Locale.ROOT, "%n[%s] %.0fs, %d requests, %.1f req/s, %d errors%n",
+                    phase.get("phase").asText(), phase.get("seconds").asDouble(), phase.get("requests").asLong(),
+                    phase.get("throughputPerSecond").asDouble(), phase.get("errors").asLong()));
+            out.append(String.format(Locale.ROOT, "%-36s %9s %7s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+            for (var endpoint : phase.get("endpoints")) {
+                out.append(String.format(Locale.ROOT, "%-36s %9d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                        endpoint.get("endpoint").asText(), endpoint.get("requests").asLong(),
+                        endpoint.get("errors").asLong(), endpoint.get("p50Ms").asDouble(),
+                        endpoint.get("p95Ms").asDouble(), endpoint.get("p99Ms").asDouble(),
+                        endpoint.get("maxMs").asDouble()));
+            }
+        }
+        return out.toString();
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.quickbite.food_delivery_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.quickbite.food_delivery_backend.FoodDeliveryBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Closed-model load test over HTTP. Virtual users start one by one over the ramp, then all of
+// them run sessions (see VirtualUser) for the steady phase. Without load.target the app is booted
+// in-process on the "loadtest" profile (embedded H2 in MySQL mode, seeded by DataSeeder);
+// with it, the driver runs against that base URL, e.g. an instance backed by MySQL.
+//
+//   mvn test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.quickbite.food_delivery_backend.loadtest.LoadTestDriver \
+//       -Dload.users=100 -Dload.rampSeconds=30 -Dload.durationSeconds=120
+//
+// Virtual users sign up as fresh customers before the run. Throughput and p50/p95/p99 per
+// endpoint and phase go to stdout and target/loadtest-report.json.
+public class LoadTestDriver {
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        ConfigurableApplicationContext context = null;
+        String baseUrl = settings.target();
+        if (baseUrl.isEmpty()) {
+            context = new SpringApplicationBuilder(FoodDeliveryBackendApplication.class)
+                    .profiles("loadtest")
+                    .properties("server.port=0")
+                    .run();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            ObjectNode report = run(settings, baseUrl);
+            System.out.println(LoadRecorder.summary(report));
+            Path output = Path.of("target", "loadtest-report.json");
+            Files.createDirectories(output.getParent());
+            Files.writeString(output, new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    public record Settings(String target, int users, int rampSeconds, int durationSeconds, int thinkMs,
+                           int maxItemsPerOrder, String ownerEmail, String ownerPassword, long seed) {
+
+        static Settings fromSystemProperties() {
+            return new Settings(
+                    System.getProperty("load.target", ""),
+                    Integer.getInteger("load.users", 50),
+                    Integer.getInteger("load.rampSeconds", 30),
+                    Integer.getInteger("load.durationSeconds", 60),
+                    Integer.getInteger("load.thinkMs", 250),
+                    Integer.getInteger("load.maxItemsPerOrder", 3),
+                    System.getProperty("load.ownerEmail", "owner@quickbite.com"),
+                    System.getProperty("load.ownerPassword", "password"),
+                    Long.getLong("load.seed", 42L));
+        }
+    }
+
+    public static ObjectNode run(Settings settings, String baseUrl) throws Exception {
+        // Setup calls are timed into a recorder of their own and left out of the report
+        LoadClient setup = new LoadClient(baseUrl, new LoadRecorder(System.nanoTime(), 0));
+        String ownerToken = setup.post("signin", "/api/auth/signin", null,
+                Map.of("email", settings.ownerEmail(), "password", settings.ownerPassword())).get("token").asText();
+        List<Long> restaurantIds = new ArrayList<>();
+        for (JsonNode restaurant : setup.get("restaurants", "/api/restaurants", null)) {
+            if (restaurant.get("menu").size() > 0) {
+                restaurantIds.add(restaurant.get("id").asLong());
+            }
+        }
+        if (restaurantIds.isEmpty()) {
+            throw new IllegalStateException("Error: Target has no restaurants with a menu.");
+        }
+
+        String password = "load-test-password";
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<String> emails = new ArrayList<>(settings.users());
+        ExecutorService signups = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int i = 0; i < settings.users(); i++) {
+                String email = "vu" + i + "." + run + "@loadtest.quickbite.test";
+                emails.add(email);
+                pending.add(signups.submit(() -> setup.post("signup", "/api/auth/signup", null, Map.of(
+                        "fullName", "Load Test User", "email", email, "password", password,
+                        "role", "ROLE_CUSTOMER"))));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+        } finally {
+            signups.shutdown();
+        }
+
+        long rampNanos = TimeUnit.SECONDS.toNanos(settings.rampSeconds());
+        long started = System.nanoTime();
+        long deadline = started + rampNanos + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+        LoadRecorder recorder = new LoadRecorder(started, rampNanos);
+        LoadClient client = new LoadClient(baseUrl, recorder);
+        List<Thread> threads = new ArrayList<>(settings.users());
+        for (int i = 0; i < settings.users(); i++) {
+            long startAt = started + rampNanos * i / settings.users();
+            long wait = startAt - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            Thread thread = new Thread(new VirtualUser(client, recorder, emails.get(i), password, ownerToken,
+                    restaurantIds, settings, settings.seed() * 31 + i, deadline), "virtual-user-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double steadySeconds = (System.nanoTime() - started - rampNanos) / 1e9;
+
+        ObjectNode report = recorder.report(settings.rampSeconds(), steadySeconds);
+        ObjectNode config = report.putObject("settings");
+        config.put("target", baseUrl);
+        config.put("users", settings.users());
+        config.put("rampSeconds", settings.rampSeconds());
+        config.put("durationSeconds", settings.durationSeconds());
+        config.put("thinkMs", settings.thinkMs());
+        config.put("maxItemsPerOrder", settings.maxItemsPerOrder());
+        config.put("seed", settings.seed());
+        return report;
+    }
+}
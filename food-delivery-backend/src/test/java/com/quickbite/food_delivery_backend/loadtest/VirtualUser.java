@@ -0,0 +1,118 @@
+package com.quickbite.food_delivery_backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// One customer replaying sessions until the deadline: sign in, list restaurants, open one, add
+// dishes to the cart, check out, clear the cart and look at order history, while the restaurant
+// side moves the new order through to DELIVERED. Steps are separated by exponentially
+// distributed think time; a failed call ends the session and the next one starts. At the
+// deadline the user stops at its next think, mid-session or not.
+final class VirtualUser implements Runnable {
+
+    private static final class DeadlineReached extends Exception {
+        DeadlineReached() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final String[] STATUS_FLOW = { "CONFIRMED", "PREPARING", "OUT_FOR_DELIVERY", "DELIVERED" };
+
+    private final LoadClient client;
+    private final LoadRecorder recorder;
+    private final String email;
+    private final String password;
+    private final String ownerToken;
+    private final List<Long> restaurantIds;
+    private final LoadTestDriver.Settings settings;
+    private final SplittableRandom random;
+    private final long deadlineNanos;
+
+    VirtualUser(LoadClient client, LoadRecorder recorder, String email, String password, String ownerToken,
+                List<Long> restaurantIds, LoadTestDriver.Settings settings, long seed, long deadlineNanos) {
+        this.client = client;
+        this.recorder = recorder;
+        this.email = email;
+        this.password = password;
+        this.ownerToken = ownerToken;
+        this.restaurantIds = restaurantIds;
+        this.settings = settings;
+        this.random = new SplittableRandom(seed);
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public void run() {
+        while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+            try {
+                session();
+                recorder.sessionFinished(true);
+            } catch (LoadClient.CallFailed e) {
+                recorder.sessionFinished(false);
+            } catch (DeadlineReached | InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void session() throws LoadClient.CallFailed, DeadlineReached, InterruptedException {
+        JsonNode signin = client.post("POST /api/auth/signin", "/api/auth/signin", null,
+                Map.of("email", email, "password", password));
+        String token = signin.get("token").asText();
+        long userId = signin.get("id").asLong();
+        think();
+
+        client.get("GET /api/restaurants", "/api/restaurants", null);
+        think();
+
+        // A few restaurants get most of the traffic
+        double u = random.nextDouble();
+        long restaurantId = restaurantIds.get((int) (restaurantIds.size() * u * u));
+        JsonNode restaurant = client.get("GET /api/restaurants/{id}", "/api/restaurants/" + restaurantId, null);
+        JsonNode menu = restaurant.get("menu");
+        if (menu == null || menu.isEmpty()) {
+            return;
+        }
+        think();
+
+        int dishes = 1 + random.nextInt(settings.maxItemsPerOrder());
+        List<Map<String, Object>> items = new ArrayList<>(dishes);
+        for (int i = 0; i < dishes; i++) {
+            long menuItemId = menu.get(random.nextInt(menu.size())).get("id").asLong();
+            int quantity = 1 + random.nextInt(2);
+            client.post("POST /api/cart/add", "/api/cart/add", token,
+                    Map.of("userId", userId, "menuItemId", menuItemId, "quantity", quantity));
+            items.add(Map.of("menuItemId", menuItemId, "quantity", quantity));
+            think();
+        }
+
+        JsonNode placed = client.post("POST /api/orders", "/api/orders", token, Map.of(
+                "customerId", userId,
+                "restaurantId", restaurantId,
+                "deliveryAddress", (1 + random.nextInt(400)) + " Load Test Road",
+                "items", items));
+        long orderId = placed.get("orderId").asLong();
+        client.post("POST /api/cart/clear/{userId}", "/api/cart/clear/" + userId, token, Map.of());
+        think();
+
+        client.get("GET /api/orders/user/{userId}", "/api/orders/user/" + userId, token);
+
+        for (String status : STATUS_FLOW) {
+            think();
+            client.put("PUT /api/orders/{id}/status", "/api/orders/" + orderId + "/status", ownerToken, status);
+        }
+    }
+
+    private void think() throws DeadlineReached, InterruptedException {
+        if (settings.thinkMs() > 0) {
+            Thread.sleep((long) (-settings.thinkMs() * Math.log(1 - random.nextDouble())));
+        }
+        if (System.nanoTime() >= deadlineNanos) {
+            throw new DeadlineReached();
+        }
+    }
+}
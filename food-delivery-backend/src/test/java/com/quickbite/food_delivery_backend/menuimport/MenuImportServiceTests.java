@@ -0,0 +1,118 @@
+package com.quickbite.food_delivery_backend.menuimport;
+
+import com.quickbite.food_delivery_backend.catalog.CatalogService;
+import com.quickbite.food_delivery_backend.catalog.MenuItemView;
+import com.quickbite.food_delivery_backend.models.MenuItem;
+import com.quickbite.food_delivery_backend.models.Restaurant;
+import com.quickbite.food_delivery_backend.payload.response.MenuImportResponse;
+import com.quickbite.food_delivery_backend.repository.MenuItemRepository;
+import com.quickbite.food_delivery_backend.repository.RestaurantRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.menuImportBatchSize=500")
+@ActiveProfiles("test")
+class MenuImportServiceTests {
+
+    @Autowired
+    MenuImportService menuImportService;
+
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    @Autowired
+    MenuItemRepository menuItemRepository;
+
+    @Autowired
+    CatalogService catalogService;
+
+    private Restaurant restaurant;
+
+    @BeforeEach
+    void setUp() {
+        restaurant = restaurantRepository.save(new Restaurant("Import Kitchen", null, 4.0, 30, "Test", "Free", null));
+    }
+
+    @Test
+    void csvRowsAreValidatedAndUpsertedByName() throws IOException {
+        String csv = """
+                name,price,description,vegetarian
+                Paneer Roll,120,"Soft roll, grilled paneer",true
+                "Chef's \"\"Special\"\"",250.5,"Two
+                lines",no
+                ,99,missing name,true
+                Masala Fries,cheap,,false
+                Lassi,60,,maybe
+                Paneer Roll,130,Repriced,true
+                """;
+
+        MenuImportResponse response = menuImportService.importMenu(restaurant.getId(), MenuImportService.Format.CSV,
+                new StringReader(csv));
+
+        assertThat(response.rowsRead()).isEqualTo(6);
+        assertThat(response.inserted()).isEqualTo(2);
+        assertThat(response.updated()).isEqualTo(1);
+        assertThat(response.rejected()).isEqualTo(3);
+        assertThat(response.errors()).extracting(MenuImportResponse.RowError::line).containsExactly(5L, 6L, 7L);
+
+        Map<String, MenuItemView> menu = menuOf(restaurant.getId());
+        assertThat(menu).containsOnlyKeys("Paneer Roll", "Chef's \"Special\"");
+        assertThat(menu.get("Paneer Roll").price()).isEqualTo(130.0);
+        assertThat(menu.get("Chef's \"Special\"").description()).isEqualTo("Two\nlines");
+
+        // A second import of the same names updates in place
+        menuImportService.importMenu(restaurant.getId(), MenuImportService.Format.NDJSON, new StringReader("""
+                {"name": "Paneer Roll", "price": 140, "vegetarian": true}
+                not json
+                {"name": "Mango Lassi", "price": "80"}
+                """));
+        menu = menuOf(restaurant.getId());
+        assertThat(menu).containsOnlyKeys("Paneer Roll", "Chef's \"Special\"", "Mango Lassi");
+        assertThat(menu.get("Paneer Roll").price()).isEqualTo(140.0);
+        assertThat(menuItemRepository.findByRestaurantId(restaurant.getId())).hasSize(3);
+    }
+
+    @Test
+    void largeImportsSpanBatchesWithoutClashingWithJpaIds() throws IOException {
+        StringBuilder csv = new StringBuilder("name,price\n");
+        for (int i = 0; i < 20_000; i++) {
+            csv.append("Item ").append(i).append(',').append(i % 500).append('\n');
+        }
+
+        MenuImportResponse response = menuImportService.importMenu(restaurant.getId(), MenuImportService.Format.CSV,
+                new StringReader(csv.toString()));
+
+        assertThat(response.inserted()).isEqualTo(20_000);
+        assertThat(response.rejected()).isZero();
+        assertThat(catalogService.findById(restaurant.getId()).orElseThrow().menu()).hasSize(20_000);
+
+        MenuItem saved = new MenuItem("Saved through JPA", 10.0, null, true, null);
+        saved.setRestaurant(restaurant);
+        saved = menuItemRepository.save(saved);
+        assertThat(menuItemRepository.findByRestaurantId(restaurant.getId())).hasSize(20_001);
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredColumns() {
+        assertThatThrownBy(() -> menuImportService.importMenu(restaurant.getId(), MenuImportService.Format.CSV,
+                new StringReader("name,description\nRoll,Tasty\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Map<String, MenuItemView> menuOf(Long restaurantId) {
+        return catalogService.findById(restaurantId).orElseThrow().menu().stream()
+                .collect(Collectors.toMap(MenuItemView::name, Function.identity()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.quickbite.food_delivery_backend.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.sqlLogSampleRate=1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ObservabilityTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void endpointTimersAndHibernateMetricsAreScrapable() throws Exception {
+        mockMvc.perform(get("/api/restaurants")).andExpect(status().isOk());
+
+        Timer timer = meterRegistry.get("http.server.requests")
+                .tag("handler", "RestaurantController#getAllRestaurants").timer();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket")
+                .contains("handler=\"RestaurantController#getAllRestaurants\"")
+                .contains("hibernate_query_executions_total")
+                .contains("hikaricp_connections_acquire_seconds");
+
+        assertThat(meterRegistry.get("sql.log.statements").tag("result", "sampled").counter().count())
+                .isGreaterThan(0);
+    }
+
+    // Only the management port serves the scrape without a token
+    @Test
+    void scrapeOnTheApplicationPortNeedsAnAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(user("customer").roles("CUSTOMER")))
+                .andExpect(status().isForbidden());
+    }
+}
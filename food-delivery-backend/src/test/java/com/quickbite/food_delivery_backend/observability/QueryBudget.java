@@ -0,0 +1,42 @@
+package com.quickbite.food_delivery_backend.observability;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+// MockMvc matchers over the statements QueryCountFilter counted for a request, so integration
+// tests can pin an endpoint's query budget:
+//   mockMvc.perform(get("/api/restaurants/1")).andExpect(QueryBudget.atMost(2));
+public final class QueryBudget {
+
+    private QueryBudget() {}
+
+    public static ResultMatcher atMost(int statements) {
+        return result -> {
+            QueryCounter.Tally tally = tally(result);
+            if (tally.total() > statements) {
+                throw new AssertionError("Expected at most " + statements + " statements but ran "
+                        + tally.total() + "; repeated: " + tally.repeated(2));
+            }
+        };
+    }
+
+    public static ResultMatcher noStatementRunMoreThan(int times) {
+        return result -> {
+            Map<String, Integer> repeated = tally(result).repeated(times + 1);
+            if (!repeated.isEmpty()) {
+                throw new AssertionError("Expected no statement to run more than " + times + " times but got "
+                        + repeated);
+            }
+        };
+    }
+
+    private static QueryCounter.Tally tally(MvcResult result) {
+        Object tally = result.getRequest().getAttribute(QueryCountFilter.TALLY_ATTRIBUTE);
+        if (tally == null) {
+            throw new AssertionError("No query tally on the request; is QueryCountFilter registered with MockMvc?");
+        }
+        return (QueryCounter.Tally) tally;
+    }
+}
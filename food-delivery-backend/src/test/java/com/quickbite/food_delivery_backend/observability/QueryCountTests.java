@@ -0,0 +1,133 @@
+package com.quickbite.food_delivery_backend.observability;
+
+import com.quickbite.food_delivery_backend.models.MenuItem;
+import com.quickbite.food_delivery_backend.models.Restaurant;
+import com.quickbite.food_delivery_backend.models.User;
+import com.quickbite.food_delivery_backend.repository.MenuItemRepository;
+import com.quickbite.food_delivery_backend.repository.RestaurantRepository;
+import com.quickbite.food_delivery_backend.repository.UserRepository;
+import com.quickbite.food_delivery_backend.security.services.UserDetailsImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.queryCountHeader=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryCountTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    QueryCounter queryCounter;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    @Autowired
+    MenuItemRepository menuItemRepository;
+
+    private UserDetailsImpl customer;
+    private Restaurant restaurant;
+    private List<MenuItem> menu;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.findByEmail("john@example.com").orElseThrow();
+        customer = UserDetailsImpl.build(user);
+        restaurant = restaurantRepository.findAll().get(0);
+        menu = menuItemRepository.findByRestaurantId(restaurant.getId());
+    }
+
+    @Test
+    void endpointsStayWithinTheirQueryBudgets() throws Exception {
+        // Catalog reads are served from the in-memory catalog once it is loaded
+        mockMvc.perform(get("/api/restaurants"))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(1));
+        mockMvc.perform(get("/api/restaurants/" + restaurant.getId()))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(1));
+
+        // Checkout costs the same however many lines the order has
+        mockMvc.perform(order(1))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(6))
+                .andExpect(QueryBudget.noStatementRunMoreThan(1));
+        mockMvc.perform(order(5))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(6))
+                .andExpect(QueryBudget.noStatementRunMoreThan(1));
+
+        mockMvc.perform(get("/api/orders/user/" + customer.getId()).with(user(customer)))
+                .andExpect(status().isOk())
+                .andExpect(QueryBudget.atMost(2));
+    }
+
+    @Test
+    void countIsSentAsDebugHeader() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/orders/user/" + customer.getId()).with(user(customer)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(QueryCountFilter.HEADER))
+                .andReturn();
+
+        QueryCounter.Tally tally = (QueryCounter.Tally) result.getRequest().getAttribute(QueryCountFilter.TALLY_ATTRIBUTE);
+        assertThat(result.getResponse().getHeader(QueryCountFilter.HEADER)).isEqualTo(Integer.toString(tally.total()));
+        assertThat(tally.total()).isPositive();
+        assertThat(meterRegistry.get("sql.statements.per.request").tag("handler", "OrderController#getUserOrders")
+                .summary().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void repeatedStatementsAreReportedInNestedTallies() {
+        try (QueryCounter.Tally outer = queryCounter.open()) {
+            // Each call outside a transaction gets a fresh persistence context, so the lookup repeats
+            try (QueryCounter.Tally inner = queryCounter.open()) {
+                for (MenuItem item : menu.subList(0, 5)) {
+                    menuItemRepository.findById(item.getId());
+                }
+                assertThat(inner.repeated(5)).hasSize(1).containsValue(5);
+            }
+            userRepository.findByEmail("john@example.com");
+
+            assertThat(outer.total()).isEqualTo(6);
+            assertThat(outer.repeated(2).values()).containsExactly(5);
+        }
+    }
+
+    private MockHttpServletRequestBuilder order(int lines) {
+        String items = menu.stream().limit(lines)
+                .map(item -> "{\"menuItemId\":" + item.getId() + ",\"quantity\":2}")
+                .collect(Collectors.joining(","));
+        return post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerId\":" + customer.getId() + ",\"restaurantId\":" + restaurant.getId()
+                        + ",\"deliveryAddress\":\"1 Test Street\",\"items\":[" + items + "]}")
+                .with(user(customer));
+    }
+}
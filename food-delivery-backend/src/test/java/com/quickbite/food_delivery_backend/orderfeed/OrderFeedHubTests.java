@@ -0,0 +1,160 @@
+package com.quickbite.food_delivery_backend.orderfeed;
+
+import com.quickbite.food_delivery_backend.catalog.CatalogService;
+import com.quickbite.food_delivery_backend.payload.request.LoginRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = { "app.orderFeedDispatchThreads=1", "app.orderFeedSendTimeoutMs=500" })
+@ActiveProfiles("test")
+class OrderFeedHubTests {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    TestRestTemplate rest;
+
+    @Autowired
+    OrderFeedHub orderFeedHub;
+
+    @Autowired
+    CatalogService catalogService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+    private Long restaurantId;
+
+    @BeforeEach
+    void setUp() {
+        token = signIn("owner@quickbite.com");
+        restaurantId = catalogService.findAll().get(0).id();
+    }
+
+    @Test
+    void reconnectingClientsReplayWhatTheyMissed() throws Exception {
+        List<String> firstIds;
+        try (Stream<String> stream = connect(null)) {
+            orderFeedHub.publish(restaurantId, "order-status", Map.of("orderId", 1));
+            orderFeedHub.publish(restaurantId, "order-status", Map.of("orderId", 2));
+            firstIds = readIds(stream.iterator(), 2);
+        }
+
+        orderFeedHub.publish(restaurantId, "order-status", Map.of("orderId", 3));
+
+        try (Stream<String> stream = connect(firstIds.get(0))) {
+            List<String> replayed = readIds(stream.iterator(), 2);
+            assertThat(replayed.get(0)).isEqualTo(firstIds.get(1));
+            assertThat(replayed.get(1)).isNotIn(firstIds);
+        }
+    }
+
+    @Test
+    void unknownEventIdsAskTheClientToResync() throws Exception {
+        try (Stream<String> stream = connect("0-1")) {
+            Iterator<String> lines = stream.iterator();
+            assertThat(lines.next()).isEqualTo("event:resync");
+        }
+    }
+
+    @Test
+    void aClientThatStopsReadingDoesNotHoldUpOthers() throws Exception {
+        try (Stream<String> healthy = connect(null);
+             Socket stalled = new Socket()) {
+            int before = orderFeedHub.subscriberCount();
+            // A small receive window and no reads: the server's writes soon block
+            stalled.setReceiveBufferSize(4096);
+            stalled.connect(new InetSocketAddress("localhost", port));
+            stalled.getOutputStream().write(("GET /api/orders/restaurant/" + restaurantId + "/stream HTTP/1.1\r\n"
+                    + "Host: localhost\r\nAccept: text/event-stream\r\nAuthorization: Bearer " + token + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            awaitSubscribers(before + 1);
+
+            String padding = "x".repeat(256 * 1024);
+            for (int i = 0; i < 40; i++) {
+                orderFeedHub.publish(restaurantId, "order-status", Map.of("orderId", i, "padding", padding));
+            }
+
+            // The single dispatch thread is stuck on the stalled socket; the healthy client
+            // still gets every event, and the stalled one is dropped
+            assertThat(readIds(healthy.iterator(), 40)).hasSize(40);
+            awaitSubscribers(before);
+        }
+    }
+
+    @Test
+    void onlyTheOwnerOrAnAdminCanSubscribe() throws Exception {
+        assertThat(open(signIn("john@example.com"), restaurantId, null).statusCode()).isEqualTo(403);
+        assertThat(open(token, Long.MAX_VALUE, null).statusCode()).isEqualTo(404);
+
+        HttpResponse<Stream<String>> admin = open(signIn("admin@quickbite.com"), restaurantId, null);
+        try (Stream<String> stream = admin.body()) {
+            assertThat(admin.statusCode()).isEqualTo(200);
+        }
+    }
+
+    private void awaitSubscribers(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (orderFeedHub.subscriberCount() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(orderFeedHub.subscriberCount()).isEqualTo(count);
+    }
+
+    private String signIn(String email) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(email.startsWith("admin") ? "admin123" : "password");
+        return (String) rest.postForObject("/api/auth/signin", request, Map.class).get("token");
+    }
+
+    private Stream<String> connect(String lastEventId) throws Exception {
+        HttpResponse<Stream<String>> response = open(token, restaurantId, lastEventId);
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response.body();
+    }
+
+    private HttpResponse<Stream<String>> open(String bearer, Long restaurant, String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/orders/restaurant/" + restaurant + "/stream"))
+                .header("Authorization", "Bearer " + bearer)
+                .timeout(Duration.ofSeconds(10));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+    }
+
+    private static List<String> readIds(Iterator<String> lines, int count) {
+        List<String> ids = new ArrayList<>();
+        while (ids.size() < count && lines.hasNext()) {
+            String line = lines.next();
+            if (line.startsWith("id:")) {
+                ids.add(line.substring(3));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,91 @@
+package com.quickbite.food_delivery_backend.orders;
+
+import com.quickbite.food_delivery_backend.models.*;
+import com.quickbite.food_delivery_backend.repository.OrderRepository;
+import com.quickbite.food_delivery_backend.repository.OutboxEventRepository;
+import com.quickbite.food_delivery_backend.repository.RestaurantRepository;
+import com.quickbite.food_delivery_backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderLifecycleServiceTests {
+
+    @Autowired
+    OrderLifecycleService orderLifecycleService;
+
+    @Autowired
+    OutboxRelay outboxRelay;
+
+    @Autowired
+    OrderRepository orderRepository;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    private Long orderId;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay.relayPending();
+        User user = userRepository.save(new User("Lifecycle User", UUID.randomUUID() + "@example.com", "unused", ERole.ROLE_CUSTOMER));
+        Restaurant restaurant = restaurantRepository.findAll().get(0);
+        orderId = orderRepository.save(new Order(user, restaurant, 10.0, "1 Test Street")).getId();
+    }
+
+    @Test
+    void illegalTransitionsAreRejected() {
+        orderLifecycleService.transition(orderId, EOrderStatus.CONFIRMED);
+
+        assertThatThrownBy(() -> orderLifecycleService.transition(orderId, EOrderStatus.PENDING))
+                .isInstanceOf(OrderTransitionException.class);
+        assertThatThrownBy(() -> orderLifecycleService.transition(orderId, EOrderStatus.DELIVERED))
+                .isInstanceOf(OrderTransitionException.class);
+        assertThat(orderRepository.findById(orderId).orElseThrow().getStatus()).isEqualTo(EOrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void concurrentUpdatesApplyOnceAndWriteOneOutboxRow() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> updates = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                updates.add(() -> orderLifecycleService.transition(orderId, EOrderStatus.CONFIRMED));
+            }
+            int applied = 0;
+            for (Future<Boolean> result : pool.invokeAll(updates)) {
+                applied += result.get() ? 1 : 0;
+            }
+            assertThat(applied).isEqualTo(1);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(orderRepository.findById(orderId).orElseThrow().getVersion()).isEqualTo(1L);
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+
+        assertThat(outboxRelay.relayPending()).isEqualTo(1);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+}
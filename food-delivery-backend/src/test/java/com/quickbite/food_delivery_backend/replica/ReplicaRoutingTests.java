@@ -0,0 +1,169 @@
+package com.quickbite.food_delivery_backend.replica;
+
+import com.quickbite.food_delivery_backend.models.Restaurant;
+import com.quickbite.food_delivery_backend.repository.RestaurantRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two embedded databases: the test profile's H2 primary and a second H2 "replica" that only
+// changes when replicate() copies the primary into it, so reads show which one served them.
+@SpringBootTest(properties = {
+        "app.replicaUrls=" + ReplicaRoutingTests.REPLICA_URL,
+        "app.replicaUsername=sa",
+        "app.replicaPassword=",
+        // Checks are forced by the tests
+        "app.replicaHealthCheckMs=3600000"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:food_delivery_test;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:food_delivery_replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @TestConfiguration
+    static class LagConfig {
+        @Bean
+        @Primary
+        SettableLagProbe settableLagProbe() {
+            return new SettableLagProbe();
+        }
+    }
+
+    // Replication "not running" until a test sets a lag, so nothing reads the empty replica at startup
+    static class SettableLagProbe implements ReplicaLagProbe {
+        volatile Long lagSeconds;
+
+        @Override
+        public long secondsBehind(Connection replica) throws SQLException {
+            if (lagSeconds == null) {
+                throw new SQLException("Error: Replication is not running.");
+            }
+            return lagSeconds;
+        }
+    }
+
+    @Autowired
+    ReplicaRouter replicaRouter;
+
+    @Autowired
+    SettableLagProbe lagProbe;
+
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    @Autowired
+    ReplicaReads replicaReads;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+
+        replicate();
+        setLag(0L);
+    }
+
+    @Test
+    void replicaReadsUseTheReplicaAndWritesGoToThePrimary() {
+        double replicaReadCount = reads("replica");
+        Long id = restaurantRepository.save(new Restaurant("Written After Replication", null, 4.0, 30, "Test", "Free", null)).getId();
+
+        assertThat(findOnReplica(id)).isEmpty();
+        Optional<Restaurant> fromPrimary = readWrite.execute(status -> restaurantRepository.findById(id));
+        assertThat(fromPrimary).isPresent();
+        assertThat(reads("replica")).isGreaterThan(replicaReadCount);
+
+        replicate();
+        assertThat(findOnReplica(id)).isPresent();
+    }
+
+    // Spring Data runs repository reads in read-only transactions of its own; they must still
+    // see a write that has just committed
+    @Test
+    void otherReadOnlyTransactionsReadThePrimary() {
+        double replicaReadCount = reads("replica");
+        Long id = restaurantRepository.save(new Restaurant("Read Right After Writing", null, 4.0, 30, "Test", "Free", null)).getId();
+
+        assertThat(restaurantRepository.findById(id)).isPresent();
+        Optional<Restaurant> inReadOnly = readOnly.execute(status -> restaurantRepository.findById(id));
+        assertThat(inReadOnly).isPresent();
+        assertThat(reads("replica")).isEqualTo(replicaReadCount);
+    }
+
+    @Test
+    void laggingOrFailingReplicasFallBackToThePrimary() {
+        Long id = restaurantRepository.save(new Restaurant("Written While Lagging", null, 4.0, 30, "Test", "Free", null)).getId();
+
+        setLag(60L);
+        double primaryReads = reads("primary");
+        assertThat(findOnReplica(id)).isPresent();
+        assertThat(reads("primary")).isGreaterThan(primaryReads);
+
+        setLag(null);
+        assertThat(findOnReplica(id)).isPresent();
+
+        // Back in rotation once it checks out again
+        setLag(1L);
+        assertThat(findOnReplica(id)).isEmpty();
+    }
+
+    private Optional<Restaurant> findOnReplica(Long id) {
+        return replicaReads.execute(() -> restaurantRepository.findById(id));
+    }
+
+    private void setLag(Long seconds) {
+        lagProbe.lagSeconds = seconds;
+        replicaRouter.checkReplicas();
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("datasource.reads").tag("target", target).counter().count();
+    }
+
+    // Copies the primary's current state into the replica
+    private static void replicate() {
+        try {
+            Path script = Files.createTempFile("replica", ".sql");
+            try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+                 Statement statement = primary.createStatement()) {
+                statement.execute("SCRIPT DROP TO '" + script + "'");
+            }
+            try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                 Statement statement = replica.createStatement()) {
+                statement.execute("RUNSCRIPT FROM '" + script + "'");
+            }
+            Files.delete(script);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.quickbite.food_delivery_backend.search;
+
+import com.quickbite.food_delivery_backend.catalog.MenuItemView;
+import com.quickbite.food_delivery_backend.catalog.RestaurantView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexTests {
+
+    @Test
+    void tokensAreLowerCasedAccentFoldedAndStopWordsDropped() {
+        assertThat(Tokenizer.tokenize("Crème Brûlée & the CAFÉ-au-lait, 2 Pcs"))
+                .containsExactly("creme", "brulee", "cafe", "au", "lait", "2", "pcs");
+        assertThat(Tokenizer.tokenize(null)).isEmpty();
+        assertThat(Tokenizer.tokenize(" -- ")).isEmpty();
+    }
+
+    @Test
+    void queriesMatchFoldedTextAndPrefixes() {
+        SearchIndex index = SearchIndex.build(List.of(
+                restaurant(1L, "Café Olé", "Mexican", item(10L, "Jalapeño Poppers", "Crispy and cheesy"))));
+
+        assertThat(ids(index, "cafe ole")).containsExactly(1L);
+        assertThat(ids(index, "JALAPENO")).containsExactly(10L);
+        assertThat(ids(index, "jal pop")).containsExactly(10L);
+        // One character is too short to expand
+        assertThat(ids(index, "j")).isEmpty();
+        assertThat(ids(index, "crispy tacos")).isEmpty();
+    }
+
+    @Test
+    void prefixExpansionIsCapped() {
+        List<MenuItemView> menu = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            menu.add(item(100 + i, String.format("pa%03d", i), null));
+        }
+        SearchIndex index = SearchIndex.build(List.of(restaurant(1L, "Cap Test", null, menu.toArray(MenuItemView[]::new))));
+
+        assertThat(index.search(List.of("pa"), SearchIndex.ALL_FIELDS, SearchIndex.ALL_TYPES, 1_000)).hasSize(64);
+        assertThat(ids(index, "pa099")).containsExactly(199L);
+    }
+
+    @Test
+    void rarerTermsAndHeavierFieldsRankHigher() {
+        List<MenuItemView> menu = new ArrayList<>();
+        menu.add(item(10L, "Spicy Special", "With paneer"));
+        menu.add(item(11L, "Paneer Wrap", "Spicy and smoky"));
+        menu.add(item(12L, "Spicy Paneer", "House special"));
+        for (long i = 0; i < 20; i++) {
+            menu.add(item(20 + i, "Spicy Dish " + i, null));
+        }
+        SearchIndex index = SearchIndex.build(List.of(restaurant(1L, "Pizza Place", "Pizza", menu.toArray(MenuItemView[]::new)),
+                restaurant(2L, "Corner Cafe", "Cafe", item(50L, "Veg Sandwich", "Tastes like pizza"))));
+
+        // Both words in the name first; then "paneer", being rarer than "spicy", counts for more in the name
+        assertThat(ids(index, "spicy paneer")).containsExactly(12L, 11L, 10L);
+        // A restaurant name and category beat a menu item description
+        assertThat(ids(index, "pizza")).containsExactly(1L, 50L);
+    }
+
+    @Test
+    void multiTokenQueriesIntersectLikeABruteForceScan() {
+        Random random = new Random(7);
+        String[] words = { "chicken", "paneer", "masala", "tikka", "biryani", "garlic", "naan", "butter", "dal", "roll" };
+        List<MenuItemView> menu = new ArrayList<>();
+        List<Set<String>> texts = new ArrayList<>();
+        for (long i = 0; i < 5_000; i++) {
+            Set<String> text = new HashSet<>();
+            // Skewed so some words are common and others rare, which exercises galloping
+            for (int w = 0; w < words.length; w++) {
+                if (random.nextInt(words.length * 2) < words.length * 2 / (w + 1)) {
+                    text.add(words[w]);
+                }
+            }
+            texts.add(text);
+            menu.add(item(1_000 + i, String.join(" ", text), null));
+        }
+        SearchIndex index = SearchIndex.build(List.of(restaurant(1L, "Zzz", null, menu.toArray(MenuItemView[]::new))));
+
+        for (String query : List.of("chicken dal", "roll naan", "paneer masala tikka", "chicken paneer masala butter")) {
+            Set<String> wanted = Set.of(query.split(" "));
+            Set<Long> expected = new HashSet<>();
+            for (int i = 0; i < texts.size(); i++) {
+                if (texts.get(i).containsAll(wanted)) {
+                    expected.add(1_000L + i);
+                }
+            }
+            assertThat(new HashSet<>(ids(index, query, 10_000))).as(query).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void topKIsTheBestScoresInOrder() {
+        List<MenuItemView> menu = new ArrayList<>();
+        for (long i = 0; i < 50; i++) {
+            // Every fifth item also has the word in its description, which scores higher
+            menu.add(item(100 + i, "Curry " + i, i % 5 == 0 ? "A curry classic" : null));
+        }
+        SearchIndex index = SearchIndex.build(List.of(restaurant(1L, "Zzz", null, menu.toArray(MenuItemView[]::new))));
+
+        List<SearchIndex.Match> all = index.search(List.of("curry"), SearchIndex.ALL_FIELDS, SearchIndex.ALL_TYPES, 1_000);
+        List<SearchIndex.Match> top = index.search(List.of("curry"), SearchIndex.ALL_FIELDS, SearchIndex.ALL_TYPES, 7);
+
+        assertThat(top).hasSize(7);
+        assertThat(top).isEqualTo(all.subList(0, 7));
+        assertThat(top.stream().map(match -> match.document().id()).toList())
+                .containsExactly(100L, 105L, 110L, 115L, 120L, 125L, 130L);
+        for (int i = 1; i < all.size(); i++) {
+            assertThat(all.get(i - 1).score()).isGreaterThanOrEqualTo(all.get(i).score());
+        }
+    }
+
+    @Test
+    void commonTermsReadInImpactOrderMatchTheFullScan() {
+        Random random = new Random(11);
+        String[] names = { "Chicken Curry", "Chicken Roll", "Chicken Tikka", "Chickpea Salad", "Paneer Tikka" };
+        List<RestaurantView> restaurants = new ArrayList<>();
+        long itemId = 1_000;
+        for (long r = 1; r <= 100; r++) {
+            MenuItemView[] menu = new MenuItemView[50];
+            for (int i = 0; i < menu.length; i++) {
+                menu[i] = item(itemId++, names[random.nextInt(names.length)],
+                        random.nextBoolean() ? "with chicken stock" : "mild");
+            }
+            restaurants.add(restaurant(r, r % 10 == 0 ? "Chicken Shack " + r : "Diner " + r, "Indian", menu));
+        }
+        SearchIndex index = SearchIndex.build(restaurants);
+
+        for (String token : List.of("chicken", "chick", "tikka")) {
+            for (int typeMask : new int[] { SearchIndex.ALL_TYPES, SearchIndex.RESTAURANTS, SearchIndex.MENU_ITEMS }) {
+                // A limit above IMPACT_MAX_LIMIT takes the full scan
+                List<SearchIndex.Match> full = index.search(List.of(token), SearchIndex.ALL_FIELDS, typeMask, 100_000);
+                List<SearchIndex.Match> fast = index.search(List.of(token), SearchIndex.ALL_FIELDS, typeMask, 20);
+                assertThat(fast).as(token).isEqualTo(full.subList(0, Math.min(20, full.size())));
+            }
+        }
+    }
+
+    @Test
+    void reindexingADocumentReplacesItsTextAndKeepsItsOrdinal() {
+        SearchIndex index = SearchIndex.build(List.of(restaurant(1L, "Old Name", null, item(10L, "Masala Dosa", null))));
+        Integer ordinal = index.ordinalOf(SearchIndex.menuItemKey(10L));
+
+        index.remove(SearchIndex.menuItemKey(10L));
+        assertThat(ids(index, "dosa")).isEmpty();
+        index.index(1L, item(10L, "Rava Dosa", null));
+        assertThat(index.ordinalOf(SearchIndex.menuItemKey(10L))).isEqualTo(ordinal);
+
+        index.index(1L, item(10L, "Onion Uttapam", null));
+        assertThat(index.ordinalOf(SearchIndex.menuItemKey(10L))).isEqualTo(ordinal);
+        assertThat(ids(index, "dosa")).isEmpty();
+        assertThat(ids(index, "uttapam")).containsExactly(10L);
+        assertThat(index.documentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void manyRemovalsAskForCompaction() {
+        MenuItemView[] menu = new MenuItemView[2_000];
+        for (int i = 0; i < menu.length; i++) {
+            menu[i] = item(10L + i, "Dish " + i, null);
+        }
+        SearchIndex index = SearchIndex.build(List.of(restaurant(1L, "Zzz", null, menu)));
+
+        for (int i = 0; i < 1_000; i++) {
+            index.remove(SearchIndex.menuItemKey(10L + i));
+        }
+        assertThat(index.needsCompaction()).isFalse();
+        index.remove(SearchIndex.menuItemKey(1_010L));
+        assertThat(index.needsCompaction()).isFalse();
+        for (int i = 1_001; i < 1_024; i++) {
+            index.remove(SearchIndex.menuItemKey(10L + i));
+        }
+        assertThat(index.needsCompaction()).isTrue();
+    }
+
+    private static List<Long> ids(SearchIndex index, String query) {
+        return ids(index, query, 20);
+    }
+
+    private static List<Long> ids(SearchIndex index, String query, int limit) {
+        return index.search(Tokenizer.tokenize(query), SearchIndex.ALL_FIELDS, SearchIndex.ALL_TYPES, limit).stream()
+                .map(match -> match.document().id())
+                .collect(Collectors.toList());
+    }
+
+    static RestaurantView restaurant(Long id, String name, String category, MenuItemView... menu) {
+        return new RestaurantView(id, name, null, 4.0, 30, category, null, null, null, null, null, null, null, List.of(menu));
+    }
+
+    static MenuItemView item(Long id, String name, String description) {
+        return new MenuItemView(id, name, 100.0, description, false, null);
+    }
+}
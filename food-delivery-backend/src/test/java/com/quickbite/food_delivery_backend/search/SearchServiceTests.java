@@ -0,0 +1,71 @@
+package com.quickbite.food_delivery_backend.search;
+
+import com.quickbite.food_delivery_backend.models.MenuItem;
+import com.quickbite.food_delivery_backend.models.Restaurant;
+import com.quickbite.food_delivery_backend.repository.MenuItemRepository;
+import com.quickbite.food_delivery_backend.repository.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Edits go through the repositories, so the index only changes through the catalog's incremental updates
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchServiceTests {
+
+    @Autowired
+    SearchService searchService;
+
+    @Autowired
+    RestaurantRepository restaurantRepository;
+
+    @Autowired
+    MenuItemRepository menuItemRepository;
+
+    @Test
+    void editedRestaurantsAndMenuItemsAreFoundByTheirNewTextOnly() {
+        Restaurant restaurant = restaurantRepository.save(new Restaurant("Zanzibar Grill", null, 4.0, 30, "Test", "Free", null));
+        MenuItem item = new MenuItem("Wombat Wrap", 150.0, "Smoked and rolled", false, null);
+        item.setRestaurant(restaurant);
+        item = menuItemRepository.save(item);
+        MenuItem untouched = new MenuItem("Quandong Pie", 90.0, null, true, null);
+        untouched.setRestaurant(restaurant);
+        untouched = menuItemRepository.save(untouched);
+
+        assertThat(ids("zanzibar", SearchIndex.RESTAURANTS)).containsExactly(restaurant.getId());
+        assertThat(ids("wombat", SearchIndex.MENU_ITEMS)).containsExactly(item.getId());
+
+        restaurant.setName("Kookaburra Kitchen");
+        restaurantRepository.save(restaurant);
+        item.setName("Numbat Noodles");
+        item.setDescription("Hand pulled");
+        menuItemRepository.save(item);
+
+        assertThat(ids("zanzibar", SearchIndex.ALL_TYPES)).isEmpty();
+        assertThat(ids("wombat", SearchIndex.ALL_TYPES)).isEmpty();
+        assertThat(ids("smoked", SearchIndex.ALL_TYPES)).isEmpty();
+        assertThat(ids("kookaburra", SearchIndex.RESTAURANTS)).containsExactly(restaurant.getId());
+        assertThat(ids("numbat noodles", SearchIndex.MENU_ITEMS)).containsExactly(item.getId());
+        assertThat(ids("hand pulled", SearchIndex.MENU_ITEMS)).containsExactly(item.getId());
+        assertThat(ids("quandong", SearchIndex.MENU_ITEMS)).containsExactly(untouched.getId());
+
+        List<SearchHit> hits = searchService.search("numbat", SearchIndex.MENU_ITEMS, 10);
+        assertThat(hits).singleElement().satisfies(hit -> {
+            assertThat(hit.restaurantId()).isEqualTo(restaurant.getId());
+            assertThat(hit.restaurantName()).isEqualTo("Kookaburra Kitchen");
+        });
+
+        menuItemRepository.delete(item);
+        assertThat(ids("numbat", SearchIndex.ALL_TYPES)).isEmpty();
+        assertThat(ids("quandong", SearchIndex.MENU_ITEMS)).containsExactly(untouched.getId());
+    }
+
+    private List<Long> ids(String query, int typeMask) {
+        return searchService.search(query, typeMask, 10).stream().map(SearchHit::id).toList();
+    }
+}
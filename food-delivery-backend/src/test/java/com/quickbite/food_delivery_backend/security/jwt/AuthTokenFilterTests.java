@@ -0,0 +1,98 @@
+package com.quickbite.food_delivery_backend.security.jwt;
+
+import com.quickbite.food_delivery_backend.models.ERole;
+import com.quickbite.food_delivery_backend.models.User;
+import com.quickbite.food_delivery_backend.payload.request.LoginRequest;
+import com.quickbite.food_delivery_backend.repository.UserRepository;
+import com.quickbite.food_delivery_backend.security.services.CredentialsEpochService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class AuthTokenFilterTests {
+
+    @Autowired
+    TestRestTemplate rest;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PasswordEncoder encoder;
+
+    @Autowired
+    CredentialsEpochService credentialsEpochService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void principalIsBuiltFromClaimsWithoutLoadingTheUser() {
+        Map<?, ?> login = signin("john@example.com", "password");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<String> response = profile(login);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        // Only the profile lookup itself; the filter no longer loads the user
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void tokensIssuedBeforeCredentialsChangedAreRejected() {
+        User user = userRepository.save(new User("Revoked User", "revoked@example.com",
+                encoder.encode("password"), ERole.ROLE_CUSTOMER));
+        Map<?, ?> login = signin("revoked@example.com", "password");
+        assertThat(profile(login).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        credentialsEpochService.credentialsChanged(user.getId());
+
+        assertThat(profile(login).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        // A token issued right after the change, most likely within the same second, is accepted
+        assertThat(profile(signin("revoked@example.com", "password")).getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void credentialChangesMadeByAnotherInstanceApplyAfterReload() {
+        User user = userRepository.save(new User("Changed Elsewhere", "elsewhere@example.com",
+                encoder.encode("password"), ERole.ROLE_CUSTOMER));
+        Map<?, ?> login = signin("elsewhere@example.com", "password");
+
+        // Written straight to the database, as another instance would
+        user.setCredentialsChangedAt(Instant.now());
+        userRepository.save(user);
+        assertThat(profile(login).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        credentialsEpochService.reload();
+        assertThat(profile(login).getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    private Map<?, ?> signin(String email, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return rest.postForObject("/api/auth/signin", request, Map.class);
+    }
+
+    private ResponseEntity<String> profile(Map<?, ?> login) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth((String) login.get("token"));
+        return rest.exchange("/api/users/profile/" + login.get("id"), HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+    }
+}
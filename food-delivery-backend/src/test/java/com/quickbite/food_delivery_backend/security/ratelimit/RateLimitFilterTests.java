@@ -0,0 +1,57 @@
+package com.quickbite.food_delivery_backend.security.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.rateLimitAuthCapacity=3", "app.rateLimitAuthRefillPerSecond=0.01"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitFilterTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void burstIsAllowedThenRejectedWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(signin("10.0.0.1")).andExpect(request().asyncStarted());
+        }
+        mockMvc.perform(signin("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "100"))
+                .andExpect(jsonPath("$.message").value("Error: Too many requests, please try again shortly."));
+
+        // Other clients have their own buckets
+        mockMvc.perform(signin("10.0.0.2")).andExpect(request().asyncStarted());
+
+        assertThat(meterRegistry.get("ratelimit.requests").tag("group", "auth").tag("result", "rejected")
+                .counter().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    private static MockHttpServletRequestBuilder signin(String remoteAddr) {
+        return post("/api/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"nobody@ratelimit.test\",\"password\":\"wrong-password\"}")
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddr);
+                    return request;
+                });
+    }
+}
@@ -0,0 +1,132 @@
+package com.quickbite.food_delivery_backend.security.services;
+
+import com.quickbite.food_delivery_backend.models.ERole;
+import com.quickbite.food_delivery_backend.models.User;
+import com.quickbite.food_delivery_backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// One hashing thread and one queue slot, so the third concurrent login is turned away
+@SpringBootTest(properties = {"app.passwordHashThreads=1", "app.passwordHashQueueCapacity=1"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PasswordHashingExecutorTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @MockitoSpyBean
+    PasswordEncoder encoder;
+
+    @Test
+    void saturatedPoolAnswers503WithRetryAfter() throws Exception {
+        String email = newUser(new BCryptPasswordEncoder(10).encode("password"));
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if ("hold-the-pool".contentEquals(invocation.<CharSequence>getArgument(0))) {
+                hashing.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return invocation.callRealMethod();
+        }).when(encoder).matches(any(), any());
+        double rejected = meterRegistry.get("auth.password.hash.rejected").counter().count();
+        long waits = meterRegistry.get("auth.password.hash.queue.wait").timer().count();
+
+        MvcResult running = mockMvc.perform(signin(email, "hold-the-pool")).andExpect(request().asyncStarted()).andReturn();
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        MvcResult queued = mockMvc.perform(signin(email, "password")).andExpect(request().asyncStarted()).andReturn();
+        assertThat(meterRegistry.get("auth.password.hash.queue.depth").gauge().value()).isEqualTo(1);
+
+        MvcResult turnedAway = mockMvc.perform(signin(email, "password")).andReturn();
+        mockMvc.perform(asyncDispatch(turnedAway))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Error: Too many requests, please try again shortly."));
+        assertThat(meterRegistry.get("auth.password.hash.rejected").counter().count()).isEqualTo(rejected + 1);
+
+        release.countDown();
+        mockMvc.perform(asyncDispatch(running)).andExpect(status().isUnauthorized());
+        mockMvc.perform(asyncDispatch(queued)).andExpect(status().isOk()).andExpect(jsonPath("$.email").value(email));
+        assertThat(meterRegistry.get("auth.password.hash.queue.wait").timer().count()).isEqualTo(waits + 2);
+        assertThat(meterRegistry.get("auth.password.hash.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void loginRehashesPasswordsMadeWithALowerCostOnly() throws Exception {
+        String cheap = newUser(new BCryptPasswordEncoder(4).encode("password"));
+        String costly = newUser(new BCryptPasswordEncoder(12).encode("password"));
+        String costlyHash = userRepository.findByEmail(costly).orElseThrow().getPassword();
+        long rehashes = rehashes();
+
+        signInAndExpect(cheap, "password", 200);
+        assertThat(userRepository.findByEmail(cheap).orElseThrow().getPassword()).startsWith("$2a$10$");
+        assertThat(rehashes()).isEqualTo(rehashes + 1);
+
+        // The new hash is not rehashed again
+        signInAndExpect(cheap, "password", 200);
+        // A higher cost than configured is kept
+        signInAndExpect(costly, "password", 200);
+        assertThat(userRepository.findByEmail(costly).orElseThrow().getPassword()).isEqualTo(costlyHash);
+        assertThat(rehashes()).isEqualTo(rehashes + 1);
+
+        signInAndExpect(cheap, "wrong-password", 401);
+        signInAndExpect("nobody-" + UUID.randomUUID() + "@hashing.test", "password", 401);
+        assertThat(meterRegistry.get("auth.password.hash.duration").tag("operation", "signin").timer().count())
+                .isGreaterThanOrEqualTo(5);
+    }
+
+    private void signInAndExpect(String email, String password, int status) throws Exception {
+        MvcResult result = mockMvc.perform(signin(email, password)).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().is(status));
+    }
+
+    private long rehashes() {
+        return meterRegistry.find("auth.password.hash.duration").tag("operation", "rehash").timers().stream()
+                .mapToLong(timer -> timer.count())
+                .sum();
+    }
+
+    private String newUser(String encodedPassword) {
+        String email = "hash-" + UUID.randomUUID() + "@hashing.test";
+        userRepository.save(new User("Hashing Test", email, encodedPassword, ERole.ROLE_CUSTOMER));
+        return email;
+    }
+
+    private static MockHttpServletRequestBuilder signin(String email, String password) {
+        return post("/api/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}");
+    }
+}